@@ -1,23 +1,36 @@
 package com.github.mikephil.charting.aaa;
 
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
 import android.util.AttributeSet;
 
+import com.github.mikephil.charting.aaa.anima.BarTransition;
+import com.github.mikephil.charting.aaa.canvas.AndroidChartCanvas;
 import com.github.mikephil.charting.aaa.model.axis.XAxis;
 import com.github.mikephil.charting.aaa.model.axis.YAxis;
 import com.github.mikephil.charting.aaa.model.bar.BarData;
+import com.github.mikephil.charting.aaa.model.bar.BarEntrySet;
+import com.github.mikephil.charting.aaa.model.bar.BarEntrySetDiff;
 import com.github.mikephil.charting.aaa.renderer.BarChartRenderer;
+import com.github.mikephil.charting.aaa.renderer.IBarDataProvider;
 import com.github.mikephil.charting.aaa.renderer.XAxisRenderer;
 import com.github.mikephil.charting.aaa.renderer.YAxisRenderer;
+import com.github.mikephil.charting.aaa.sampling.IBarSampler;
+import com.github.mikephil.charting.aaa.utils.BarRectBuffer;
 import com.github.mikephil.charting.aaa.utils.Transformer;
 import com.github.mikephil.charting.aaa.utils.Utils;
+import com.github.mikephil.charting.aaa.utils.ViewPort;
 
 /**
  * Chart that draws bars.
  *
  */
-public class BarChartView extends ChartView {
+public class BarChartView extends ChartView implements IBarDataProvider {
 
 
     /**
@@ -51,6 +64,29 @@ public class BarChartView extends ChartView {
     // if set to true, all values are drawn above their bars, instead of below their top
     private boolean mDrawValueAboveBar = true;
 
+    // if set to true, the y-axis range is fitted to the visible bars on every frame
+    protected boolean mAutoScaleMinMaxEnabled = false;
+
+    // data, generation and x-range the y-axis was last fitted to, skips autoScale() while they stay the same
+    protected BarData mAutoScaleData = null;
+    protected int mAutoScaleGeneration = 0;
+    protected float mAutoScaleFromX = Float.NaN;
+    protected float mAutoScaleToX = Float.NaN;
+
+    /**
+     * 坐标轴图层缓存
+     */
+    // if set to true, axis lines and labels are drawn into mAxisLayer and only redrawn when they change
+    protected boolean mAxisLayerEnabled = false;
+    protected Bitmap mAxisLayer = null;
+    protected Canvas mAxisLayerCanvas = null;
+    protected final AndroidChartCanvas mAxisLayerChartCanvas = new AndroidChartCanvas();
+
+    // adapter the renderers draw the frame through
+    protected final AndroidChartCanvas mChartCanvas = new AndroidChartCanvas();
+    // the Transformer generation the layer was drawn with
+    protected int mAxisLayerGeneration = -1;
+
 
     public BarChartView(Context context) {
         super(context);
@@ -80,7 +116,8 @@ public class BarChartView extends ChartView {
         mXAxisRenderer = new XAxisRenderer(mViewPortHandler, mXAxis, mAxisTransformer);
         mYAxisRenderer = new YAxisRenderer(mViewPortHandler, mYAxis, mAxisTransformer);
         //
-        mRenderer = new BarChartRenderer(this, mViewPortHandler);
+        mRenderer = new BarChartRenderer(this, mViewPortHandler,
+                getResources().getDisplayMetrics().density);
         //
         mXAxis.setSpaceMin(0.5f);
         mXAxis.setSpaceMax(0.5f);
@@ -90,11 +127,13 @@ public class BarChartView extends ChartView {
      * 通知UI数据变化
      */
     @Override
-    public void notifyDataSetChanged() {
+    protected void refreshData() {
         // 数据安全性判断
         if (mData == null) {
             return;
         }
+        // 重新适配Y轴
+        mAutoScaleData = null;
         // 创建RectBuffer 矩形数组
         if (mRenderer != null) {
             mRenderer.initRectBuffers();
@@ -113,52 +152,173 @@ public class BarChartView extends ChartView {
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        mChartCanvas.setCanvas(canvas);
         //
         if (mData == null) {
             return;
         }
-        //
-        if (mXAxis.isEnabled()) {
-            mXAxisRenderer.computeAxis(mXAxis.mAxisMinimum, mXAxis.mAxisMaximum);
+        // Y轴只适配可见区域的数据
+        if (mAutoScaleMinMaxEnabled) {
+            autoScale();
         }
-        //
-        if (mYAxis.isEnabled()) {
-            mYAxisRenderer.computeAxis(mYAxis.mAxisMinimum, mYAxis.mAxisMaximum);
+        // 坐标轴与标签 缓存在图层中
+        final boolean axisLayer = mAxisLayerEnabled && prepareAxisLayer();
+        if (axisLayer) {
+            canvas.drawBitmap(mAxisLayer, 0f, 0f, null);
+        } else {
+            computeAxes();
+            // 绘制X轴
+            mXAxisRenderer.renderAxisLine(mChartCanvas);
+            // 绘制Y轴
+            mYAxisRenderer.renderAxisLine(mChartCanvas);
         }
-        // 绘制X轴
-        mXAxisRenderer.renderAxisLine(canvas);
-        // 绘制Y轴
-        mYAxisRenderer.renderAxisLine(canvas);
 
         //-----绘制矩形-----
         // make sure the data cannot be drawn outside the content-rect
         int clipRestoreCount = canvas.save();
-        canvas.clipRect(mViewPortHandler.getContentRect());
+        canvas.clipRect(mViewPortHandler.contentLeft(), mViewPortHandler.contentTop(),
+                mViewPortHandler.contentRight(), mViewPortHandler.contentBottom());
         //
-        mRenderer.drawData(canvas);
+        mRenderer.drawData(mChartCanvas);
         //
         // Removes clipping rectangle
         canvas.restoreToCount(clipRestoreCount);
 
         // 这个应该是绘制X Y 轴上的显示数字
-        mXAxisRenderer.renderAxisLabels(canvas);
-        mYAxisRenderer.renderAxisLabels(canvas);
+        if (!axisLayer) {
+            mXAxisRenderer.renderAxisLabels(mChartCanvas);
+            mYAxisRenderer.renderAxisLabels(mChartCanvas);
+        }
 
         // 绘制柱状图上的显示文字
-        mRenderer.drawValues(canvas);
+        mRenderer.drawValues(mChartCanvas);
+    }
+
+
+    protected void computeAxes() {
+        if (mXAxis.isEnabled()) {
+            mXAxisRenderer.computeAxis(mXAxis.mAxisMinimum, mXAxis.mAxisMaximum);
+        }
+        //
+        if (mYAxis.isEnabled()) {
+            mYAxisRenderer.computeAxis(mYAxis.mAxisMinimum, mYAxis.mAxisMaximum);
+        }
+    }
+
+    /**
+     * Makes sure the axis layer holds the current axis lines and labels. They are
+     * only drawn again if the view size, the matrices (axis range, offsets) or the
+     * state of one of the axes (range, formatter, text style, flags) changed, e.g.
+     * not at all during a y-phase animation. The labels lie outside the content
+     * rect, so compositing them before the bars looks the same as drawing them after.
+     * <p>
+     * 准备坐标轴图层
+     *
+     * @return false if no layer could be created, the axes are then drawn directly
+     */
+    protected boolean prepareAxisLayer() {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        if (mAxisLayer == null || mAxisLayer.getWidth() != width || mAxisLayer.getHeight() != height) {
+            releaseAxisLayer();
+            try {
+                mAxisLayer = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            } catch (OutOfMemoryError e) {
+                return false;
+            }
+            mAxisLayerCanvas = new Canvas(mAxisLayer);
+            mAxisLayerChartCanvas.setCanvas(mAxisLayerCanvas);
+        }
+        int generation = mAxisTransformer.getGeneration();
+        if (generation == mAxisLayerGeneration
+                && mXAxisRenderer.isLayerUpToDate()
+                && mYAxisRenderer.isLayerUpToDate()) {
+            return true;
+        }
+        computeAxes();
+        mAxisLayerCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        mXAxisRenderer.renderAxisLine(mAxisLayerChartCanvas);
+        mYAxisRenderer.renderAxisLine(mAxisLayerChartCanvas);
+        mXAxisRenderer.renderAxisLabels(mAxisLayerChartCanvas);
+        mYAxisRenderer.renderAxisLabels(mAxisLayerChartCanvas);
+        mXAxisRenderer.setLayerUpToDate();
+        mYAxisRenderer.setLayerUpToDate();
+        mAxisLayerGeneration = generation;
+        return true;
     }
 
+    protected void releaseAxisLayer() {
+        if (mAxisLayer != null) {
+            mAxisLayer.recycle();
+            mAxisLayer = null;
+            mAxisLayerCanvas = null;
+            mAxisLayerChartCanvas.setCanvas(null);
+        }
+        mXAxisRenderer.invalidateLayer();
+        mYAxisRenderer.invalidateLayer();
+    }
+
+    /**
+     * Enables caching of the axis lines and labels in an offscreen bitmap of the size
+     * of the view, default false. The layer is composited on every frame and only
+     * redrawn when the view size, the axis range, the formatter or the text style
+     * change. Pays off for charts that animate, e.g. during a y-phase animation.
+     *
+     * @param enabled
+     */
+    public void setAxisLayerCacheEnabled(boolean enabled) {
+        mAxisLayerEnabled = enabled;
+        if (!enabled) {
+            releaseAxisLayer();
+        }
+        invalidate();
+    }
+
+    public boolean isAxisLayerCacheEnabled() {
+        return mAxisLayerEnabled;
+    }
+
+    /**
+     * Redraws the cached axis layer on the next frame. Needed only for changes the
+     * cache can not see, e.g. a formatter whose output changed without being replaced.
+     */
+    public void invalidateAxisLayer() {
+        mXAxisRenderer.invalidateLayer();
+        mYAxisRenderer.invalidateLayer();
+        invalidate();
+    }
 
     @Override
-    public void calculateOffsets() {
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        releaseAxisLayer();
+    }
 
-        float offsetLeft = 0f, offsetRight = 0f, offsetTop = 0f, offsetBottom = 0f;
 
+    @Override
+    public void calculateOffsets() {
         // offsets for y-labels
+        float yAxisWidth = 0f;
         if (mYAxis.needsOffset()) {
-            offsetLeft += mYAxis.getRequiredWidthSpace(mYAxisRenderer
+            yAxisWidth = mYAxis.getRequiredWidthSpace(mYAxisRenderer
                     .getPaintAxisLabels());
         }
+        calculateOffsets(yAxisWidth);
+    }
+
+    /**
+     * Calculates the offsets with an already measured width of the y-axis labels.
+     *
+     * @param yAxisWidth
+     */
+    protected void calculateOffsets(float yAxisWidth) {
+
+        float offsetLeft = 0f, offsetRight = 0f, offsetTop = 0f, offsetBottom = 0f;
+
+        offsetLeft += yAxisWidth;
 
 
         if (mXAxis.isEnabled() && mXAxis.isDrawLabelsEnabled()) {
@@ -183,6 +343,115 @@ public class BarChartView extends ChartView {
     }
 
 
+    @Override
+    protected DataPreparation createDataPreparation(BarData data, int generation) {
+        return new BarDataPreparation(data, generation);
+    }
+
+    /**
+     * Prepares new data for setDataAsync(): min / max, axis values and label sizes are
+     * computed on shadow copies of the axes, the rect buffers are allocated fresh.
+     * apply() copies the results into the live axes and renderer.
+     * <p>
+     * 后台计算坐标轴与矩形数组
+     */
+    protected class BarDataPreparation implements DataPreparation {
+
+        protected final BarData mPreparedData;
+        protected final int mGeneration;
+
+        // 影子坐标轴
+        protected final XAxis mShadowXAxis = new XAxis();
+        protected final YAxis mShadowYAxis = new YAxis();
+        // 影子窗口, 后台线程不读UI线程的ViewPort / Transformer
+        protected final ViewPort mShadowViewPort = new ViewPort();
+        protected final Transformer mShadowTransformer = new Transformer(mShadowViewPort);
+        protected final XAxisRenderer mShadowXAxisRenderer;
+        protected final YAxisRenderer mShadowYAxisRenderer;
+
+        protected BarRectBuffer[] mPreparedBuffers;
+        protected float mYAxisWidth = 0f;
+
+        public BarDataPreparation(BarData data, int generation) {
+            mPreparedData = data;
+            mGeneration = generation;
+            // snapshot the axis configuration on the UI thread
+            mShadowXAxis.copyFrom(mXAxis);
+            mShadowYAxis.copyFrom(mYAxis);
+            mShadowViewPort.copyFrom(mViewPortHandler);
+            mShadowTransformer.copyFrom(mAxisTransformer);
+            mShadowXAxisRenderer = new XAxisRenderer(mShadowViewPort, mShadowXAxis, mShadowTransformer);
+            mShadowYAxisRenderer = new YAxisRenderer(mShadowViewPort, mShadowYAxis, mShadowTransformer);
+            mShadowXAxisRenderer.getPaintAxisLabels().set(mXAxisRenderer.getPaintAxisLabels());
+            mShadowYAxisRenderer.getPaintAxisLabels().set(mYAxisRenderer.getPaintAxisLabels());
+        }
+
+        @Override
+        public boolean prepare() {
+            // 最大值、最小值 and the range indices / pyramids, so the first frame builds nothing
+            mPreparedData.resolve();
+            mShadowXAxis.setValueBase(mPreparedData.getXBase(), mPreparedData.getXUnit());
+            mShadowXAxis.calculate(mPreparedData.getXMin(), mPreparedData.getXMax());
+            mShadowYAxis.calculate(mPreparedData.getYMin(), mPreparedData.getYMax());
+            if (isStale(mGeneration)) {
+                return false;
+            }
+            // 坐标轴上的Value与文字大小
+            mShadowYAxisRenderer.computeAxis(mShadowYAxis.mAxisMinimum, mShadowYAxis.mAxisMaximum);
+            mShadowXAxisRenderer.computeAxis(mShadowXAxis.mAxisMinimum, mShadowXAxis.mAxisMaximum);
+            if (mShadowYAxis.needsOffset()) {
+                mYAxisWidth = mShadowYAxis.getRequiredWidthSpace(mShadowYAxisRenderer.getPaintAxisLabels());
+            }
+            if (isStale(mGeneration)) {
+                return false;
+            }
+            // 创建RectBuffer 矩形数组
+            mPreparedBuffers = mRenderer.createRectBuffers(mPreparedData, null);
+            return !isStale(mGeneration);
+        }
+
+        @Override
+        public void apply() {
+            mXAxis.copyComputedFrom(mShadowXAxis);
+            mYAxis.copyComputedFrom(mShadowYAxis);
+            mRenderer.setRectBuffers(mPreparedBuffers);
+            calculateOffsets(mYAxisWidth);
+        }
+    }
+
+    /**
+     * Performs auto scaling of the y-axis to the bars inside the visible x-range
+     * (the x-axis range, which can be narrowed with XAxis.setAxisMinimum() /
+     * setAxisMaximum()). Nothing is recalculated while the data generation and the
+     * x-range stay the same, the offsets only when the fitted y-range changed.
+     */
+    protected void autoScale() {
+        final float fromX = mXAxis.mAxisMinimum;
+        final float toX = mXAxis.mAxisMaximum;
+        final int generation = mData.getGeneration();
+
+        if (mAutoScaleData == mData && mAutoScaleGeneration == generation
+                && mAutoScaleFromX == fromX && mAutoScaleToX == toX) {
+            return;
+        }
+        mAutoScaleData = mData;
+        mAutoScaleGeneration = generation;
+        mAutoScaleFromX = fromX;
+        mAutoScaleToX = toX;
+
+        final float yMin = mYAxis.mAxisMinimum;
+        final float yMax = mYAxis.mAxisMaximum;
+
+        mData.calcMinMaxY(fromX, toX);
+
+        mYAxis.calculate(mData.getYMin(), mData.getYMax());
+
+        // Y轴范围不变时不重新测量标签
+        if (mYAxis.mAxisMinimum != yMin || mYAxis.mAxisMaximum != yMax) {
+            calculateOffsets();
+        }
+    }
+
     protected void prepareValuePxMatrix() {
         mAxisTransformer.prepareMatrixValuePx(mXAxis.mAxisMinimum,
                 mXAxis.mAxisRange,
@@ -196,6 +465,7 @@ public class BarChartView extends ChartView {
 
 
     protected void calcMinMax() {
+        mXAxis.setValueBase(mData.getXBase(), mData.getXUnit());
         mXAxis.calculate(mData.getXMin(), mData.getXMax());
         mYAxis.calculate(mData.getYMin(), mData.getYMax());
     }
@@ -213,6 +483,59 @@ public class BarChartView extends ChartView {
     }
 
 
+    /**
+     * Replaces the data like setData() and animates the difference: the DataSets are
+     * compared by index, their bars by x-value (see BarEntrySetDiff). Changed bars
+     * tween from their old to their new value, inserted bars grow from 0, removed
+     * bars shrink to 0, all others are drawn at their value right away. Unlike
+     * animateY(), nothing else is re-animated. UI thread only.
+     * <p>
+     * 设置新数据 只对变化的柱子做动画
+     *
+     * @param data
+     * @param durationMillis
+     * @param easing         may be null
+     */
+    public void animateDataChange(BarData data, int durationMillis, TimeInterpolator easing) {
+        BarData old = mData;
+        BarTransition[] transitions = null;
+        if (data != null) {
+            transitions = new BarTransition[data.getDataSetCount()];
+            BarEntrySetDiff diff = new BarEntrySetDiff();
+            for (int i = 0; i < transitions.length; i++) {
+                BarEntrySet oldSet = old == null ? null : old.getDataSetByIndex(i);
+                diff.compute(oldSet, data.getDataSetByIndex(i));
+                if (!diff.isEmpty()) {
+                    transitions[i] = new BarTransition(diff, oldSet);
+                }
+            }
+        }
+        setData(data);
+        if (transitions == null) {
+            return;
+        }
+        mRenderer.setTransitions(transitions);
+        // only one transition triggers the redraws, they all run in lockstep
+        ValueAnimator.AnimatorUpdateListener listener = new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                postInvalidate();
+            }
+        };
+        for (BarTransition transition : transitions) {
+            if (transition != null) {
+                transition.animate(durationMillis, easing, listener);
+                listener = null;
+            }
+        }
+        invalidate();
+    }
+
+    public void animateDataChange(BarData data, int durationMillis) {
+        animateDataChange(data, durationMillis, null);
+    }
+
+
     /**
      * sets the number of maximum visible drawn values on the chart only active
      * when setDrawValues() is enabled
@@ -228,6 +551,61 @@ public class BarChartView extends ChartView {
     }
 
 
+    /**
+     * Sets the downsampling stage used when the visible range holds more bars than
+     * the chart is wide in pixels, e.g. new MinMaxBarSampler() or new LttbBarSampler().
+     * Set null (default) to draw every visible bar.
+     *
+     * @param sampler
+     */
+    public void setSampler(IBarSampler sampler) {
+        mRenderer.setSampler(sampler);
+        invalidate();
+    }
+
+    /**
+     * Enables merging of bars narrower than thresholdPx into one rectangle per pixel
+     * column and color, see BarChartRenderer.setSubPixelCoalescing().
+     *
+     * @param enabled
+     * @param thresholdPx
+     */
+    public void setSubPixelCoalescing(boolean enabled, float thresholdPx) {
+        mRenderer.setSubPixelCoalescing(enabled, thresholdPx);
+        invalidate();
+    }
+
+    /**
+     * Draws all visible bars of one color with a single drawLines call instead of one
+     * drawRect call per bar, see BarChartRenderer.setBatchedDrawing().
+     *
+     * @param enabled
+     */
+    public void setBatchedDrawing(boolean enabled) {
+        mRenderer.setBatchedDrawing(enabled);
+        invalidate();
+    }
+
+    /**
+     * Flag that indicates if auto scaling on the y axis is enabled. This is
+     * especially interesting for charts showing a window of their data: the
+     * y-axis then adjusts to the min / max of the visible bars. Enable the range
+     * index of large DataSets (BarEntrySet.setRangeIndexEnabled()) to keep this cheap.
+     *
+     * @param enabled
+     */
+    public void setAutoScaleMinMaxEnabled(boolean enabled) {
+        mAutoScaleMinMaxEnabled = enabled;
+        mAutoScaleData = null;
+    }
+
+    /**
+     * @return true if auto scaling on the y axis is enabled.
+     */
+    public boolean isAutoScaleMinMaxEnabled() {
+        return mAutoScaleMinMaxEnabled;
+    }
+
     /**
      * If set to true, all values are drawn above their bars, instead of below their top.
      *
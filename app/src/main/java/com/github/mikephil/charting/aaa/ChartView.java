@@ -13,12 +13,21 @@ import android.util.AttributeSet;
 import android.view.ViewGroup;
 
 import com.github.mikephil.charting.aaa.anima.ChartAnimator;
+import com.github.mikephil.charting.aaa.canvas.AndroidTextMetrics;
+import com.github.mikephil.charting.aaa.canvas.ChartPaint;
 import com.github.mikephil.charting.aaa.model.bar.BarData;
 import com.github.mikephil.charting.aaa.renderer.BarChartRenderer;
 import com.github.mikephil.charting.aaa.utils.MPPointF;
 import com.github.mikephil.charting.aaa.utils.Utils;
 import com.github.mikephil.charting.aaa.utils.ViewPort;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * Baseclass of all Chart-Views.
  */
@@ -35,6 +44,29 @@ public abstract class ChartView
      */
     protected BarData mData = null;
 
+    /**
+     * the newest snapshot published by a producer thread, taken over on the next frame
+     * <p>
+     * 后台线程发布的最新数据
+     */
+    private final AtomicReference<BarData> mPublishedData = new AtomicReference<BarData>();
+
+    /**
+     * incremented by every setData() / setDataAsync(), a preparation whose generation
+     * is no longer current is stale and gets dropped
+     */
+    private final AtomicInteger mDataGeneration = new AtomicInteger();
+
+    /**
+     * executor the data of setDataAsync() is prepared on, null for the shared default
+     */
+    private Executor mDataExecutor = null;
+
+    /**
+     * shared single background thread used when no executor was set
+     */
+    private static ExecutorService sDefaultDataExecutor;
+
     /**
      * paint object for drawing the information text when there are no values in
      * the chart
@@ -141,7 +173,7 @@ public abstract class ChartView
             mViewPortHandler.setChartDimens(w, h);
         }
         //
-        notifyDataSetChanged();
+        refreshData();
         //
         super.onSizeChanged(w, h, oldw, oldh);
     }
@@ -149,6 +181,8 @@ public abstract class ChartView
     @Override
     protected void onDraw(Canvas canvas) {
         // super.onDraw(canvas);
+        // 切换到后台线程发布的最新数据
+        takePublishedData();
         // 空数据时的显示内容
         if (mData == null) {
             boolean hasText = !TextUtils.isEmpty(mNoDataText);
@@ -177,6 +211,10 @@ public abstract class ChartView
         // 初始化速度、单位
         // initialize the utils
         Utils.init(getContext());
+        // 安装Android的文字测量, 不覆盖已设置的
+        if (!ChartPaint.hasDefaultTextMetrics()) {
+            ChartPaint.setDefaultTextMetrics(new AndroidTextMetrics());
+        }
         // 500dp
         mMaxHighlightDistance = Utils.convertDpToPixel(500f);
 
@@ -213,6 +251,8 @@ public abstract class ChartView
      * @param data
      */
     public void setData(BarData data) {
+        // 取消还在后台计算的数据
+        mDataGeneration.incrementAndGet();
         // 数据
         mData = data;
         // 是否重新计算offset
@@ -224,17 +264,214 @@ public abstract class ChartView
         }
 
         // let the chart know there is new data
-        notifyDataSetChanged();
+        refreshData();
     }
 
 
+    /**
+     * Sets a new data object like setData(), but does the expensive preparation
+     * (min / max, range indices and pyramids, axis values, label measurement, rect
+     * buffers) on a background executor and swaps the result in on the UI thread. The current data stays
+     * visible until then. A preparation is dropped if setData() or setDataAsync() is
+     * called again before it is applied. The data must not be modified while it is
+     * being prepared, and it should not be the data currently shown by the chart.
+     * The axis value formatters are called on the background thread as well and
+     * must be thread-safe. UI thread only.
+     * <p>
+     * 后台计算后设置数据
+     *
+     * @param data
+     */
+    public void setDataAsync(final BarData data) {
+        if (data == null) {
+            setData(null);
+            return;
+        }
+        final int generation = mDataGeneration.incrementAndGet();
+        final DataPreparation preparation = createDataPreparation(data, generation);
+
+        getDataExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (isStale(generation) || !preparation.prepare()) {
+                    return;
+                }
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (isStale(generation)) {
+                            return;
+                        }
+                        mData = data;
+                        preparation.apply();
+                        mOffsetsCalculated = true;
+                        invalidate();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Sets the executor setDataAsync() prepares data on. Defaults to a single
+     * background thread shared by all charts.
+     *
+     * @param executor
+     */
+    public void setDataExecutor(Executor executor) {
+        mDataExecutor = executor;
+    }
+
+    protected Executor getDataExecutor() {
+        if (mDataExecutor != null) {
+            return mDataExecutor;
+        }
+        synchronized (ChartView.class) {
+            if (sDefaultDataExecutor == null) {
+                sDefaultDataExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "ChartView-prepare");
+                        thread.setDaemon(true);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        return thread;
+                    }
+                });
+            }
+            return sDefaultDataExecutor;
+        }
+    }
+
+    /**
+     * Returns true if newer data was set after the preparation with the given
+     * generation was started. Long running preparations check this to stop early.
+     *
+     * @param generation
+     * @return
+     */
+    protected boolean isStale(int generation) {
+        return generation != mDataGeneration.get();
+    }
+
+    /**
+     * Creates the preparation of the given data for setDataAsync(). Called on the UI
+     * thread, so the implementation can snapshot the chart configuration (e.g. copy the
+     * axes into shadow axes) before prepare() runs in the background.
+     *
+     * @param data
+     * @param generation pass to isStale() to detect a newer setData()
+     * @return
+     */
+    protected abstract DataPreparation createDataPreparation(BarData data, int generation);
+
+    /**
+     * The work setDataAsync() splits between a background thread and the UI thread.
+     */
+    protected interface DataPreparation {
+
+        /**
+         * Computes everything the chart needs for the new data into shadow state.
+         * Runs on the background executor, must not touch the live chart state.
+         *
+         * @return false if the preparation was cancelled
+         */
+        boolean prepare();
+
+        /**
+         * Swaps the prepared state into the chart. Runs on the UI thread.
+         */
+        void apply();
+    }
+
+    /**
+     * Publishes a new data object from any thread. The data is frozen (see
+     * BarData.freeze()) and taken over by the chart on the UI thread before the next
+     * frame is drawn, so the renderer always reads one consistent snapshot without
+     * locking. If several snapshots are published between two frames, only the newest
+     * one is used. Build the next snapshot from getData().copy().
+     * <p>
+     * 后台线程发布数据
+     *
+     * @param data
+     */
+    public void publishData(BarData data) {
+        if (data == null) {
+            return;
+        }
+        data.freeze();
+        mPublishedData.set(data);
+        postInvalidate();
+    }
+
+    /**
+     * Takes over the newest published snapshot, if any. UI thread only.
+     *
+     * @return true if the data was replaced
+     */
+    protected boolean takePublishedData() {
+        BarData data = mPublishedData.getAndSet(null);
+        if (data == null) {
+            return false;
+        }
+        setData(data);
+        return true;
+    }
+
+    /**
+     * Starts a batch of data modifications, see BarData.beginUpdate(). Modify the data
+     * freely, then call endDataUpdate() to refresh the chart once.
+     * <p>
+     * 开始批量修改数据
+     */
+    public void beginDataUpdate() {
+        if (mData != null) {
+            mData.beginUpdate();
+        }
+    }
+
+    /**
+     * Ends a batch started with beginDataUpdate(). If anything changed, the min / max
+     * values, axes, rect buffers and offsets are refreshed once and the chart is redrawn.
+     * <p>
+     * 结束批量修改 统一刷新一次
+     *
+     * @return the number of entries added, changed or removed during the batch
+     */
+    public int endDataUpdate() {
+        if (mData == null) {
+            return 0;
+        }
+        int changed = mData.endUpdate();
+        if (!mData.isUpdating() && changed > 0) {
+            refreshData();
+            invalidate();
+        }
+        return changed;
+    }
+
     /**
      * Lets the chart know its underlying data has changed and performs all
      * necessary recalculations. It is crucial that this method is called
      * everytime data is changed dynamically. Not calling this method can lead
      * to crashes or unexpected behaviour.
+     * <p>
+     * The values are rescanned (BarData.notifyDataChanged()), so entries modified
+     * in place are picked up. Frozen DataSets are skipped.
+     */
+    public void notifyDataSetChanged() {
+        if (mData != null) {
+            mData.notifyDataChanged();
+        }
+        refreshData();
+    }
+
+    /**
+     * Recomputes everything the chart derives from the current data (rect buffers,
+     * axes, offsets) without rescanning the values. Used when the data was replaced,
+     * the view was resized or the data was only modified through the DataSet
+     * methods, which keep the min / max values up to date themselves.
      */
-    public abstract void notifyDataSetChanged();
+    protected abstract void refreshData();
 
     /**
      * Calculates the offsets of the chart to the border depending on the
@@ -269,5 +506,14 @@ public abstract class ChartView
         return mData;
     }
 
+    /**
+     * Returns the animator that holds the current x- and y-phase.
+     *
+     * @return
+     */
+    public ChartAnimator getAnimator() {
+        return mAnimator;
+    }
+
 
 }
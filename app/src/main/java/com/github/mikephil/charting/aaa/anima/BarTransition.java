@@ -0,0 +1,182 @@
+package com.github.mikephil.charting.aaa.anima;
+
+import android.animation.ObjectAnimator;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator.AnimatorUpdateListener;
+
+import com.github.mikephil.charting.aaa.model.bar.BarEntrySet;
+import com.github.mikephil.charting.aaa.model.bar.BarEntrySetDiff;
+
+/**
+ * Animated transition of one DataSet to new values, built from a BarEntrySetDiff.
+ * Only the changed and inserted bars are tweened (from their old value, or 0, to
+ * their new value), removed bars shrink to 0 at their old x-value, all other bars
+ * are drawn at their new value right away. The old values are copied, the old
+ * DataSet can be discarded.
+ * <p>
+ * 只对变化的柱子做过渡动画
+ */
+public class BarTransition {
+
+    /**
+     * indices (in the new DataSet) of the tweened bars, ascending
+     */
+    private final int[] mAnimated;
+
+    /**
+     * start value of every tweened bar
+     */
+    private final float[] mFromY;
+
+    private final float[] mRemovedX;
+    private final float[] mRemovedY;
+
+    /**
+     * progress of the transition, 0..1
+     */
+    private float mPhase = 0f;
+
+    /**
+     * incremented whenever the phase changes
+     */
+    private int mGeneration = 0;
+
+    /**
+     * the running animator, null before animate() and after cancel()
+     */
+    private ObjectAnimator mAnimator;
+
+
+    /**
+     * @param diff   result of diff.compute(oldSet, newSet)
+     * @param oldSet
+     */
+    public BarTransition(BarEntrySetDiff diff, BarEntrySet oldSet) {
+        int count = diff.getChangedCount() + diff.getInsertedCount();
+        mAnimated = new int[count];
+        mFromY = new float[count];
+        int k = 0;
+        for (int n = 0; n < diff.getNewCount(); n++) {
+            byte state = diff.getState(n);
+            if (state == BarEntrySetDiff.CHANGED) {
+                mAnimated[k] = n;
+                mFromY[k++] = oldSet.getYForIndex(diff.getOldIndex(n));
+            } else if (state == BarEntrySetDiff.INSERTED) {
+                mAnimated[k] = n;
+                mFromY[k++] = 0f;
+            }
+        }
+        mRemovedX = new float[diff.getRemovedCount()];
+        mRemovedY = new float[diff.getRemovedCount()];
+        for (int r = 0; r < mRemovedX.length; r++) {
+            int o = diff.getRemovedIndex(r);
+            mRemovedX[r] = oldSet.getXForIndex(o);
+            mRemovedY[r] = oldSet.getYForIndex(o);
+        }
+    }
+
+    /**
+     * Starts the transition, the listener is called on every frame (usually it
+     * invalidates the chart).
+     *
+     * @param durationMillis
+     * @param easing         may be null
+     * @param listener       may be null
+     */
+    public void animate(int durationMillis, TimeInterpolator easing, AnimatorUpdateListener listener) {
+        cancel();
+        ObjectAnimator animator = ObjectAnimator.ofFloat(this, "phase", 0f, 1f);
+        if (easing != null) {
+            animator.setInterpolator(easing);
+        }
+        animator.setDuration(durationMillis);
+        if (listener != null) {
+            animator.addUpdateListener(listener);
+        }
+        animator.start();
+        mAnimator = animator;
+    }
+
+    /**
+     * Stops the animator, its listener is not called any more. Used when the
+     * transition is dropped before it finished.
+     */
+    public void cancel() {
+        if (mAnimator != null) {
+            mAnimator.cancel();
+            mAnimator = null;
+        }
+    }
+
+    public float getPhase() {
+        return mPhase;
+    }
+
+    public void setPhase(float phase) {
+        if (mPhase != phase) {
+            mPhase = phase;
+            mGeneration++;
+        }
+    }
+
+    /**
+     * Returns a stamp that changes whenever the phase changes.
+     *
+     * @return
+     */
+    public int getGeneration() {
+        return mGeneration;
+    }
+
+    /**
+     * Returns true once the transition reached its end, the DataSet is then drawn as is.
+     *
+     * @return
+     */
+    public boolean isFinished() {
+        return mPhase >= 1f;
+    }
+
+    public int getAnimatedCount() {
+        return mAnimated.length;
+    }
+
+    /**
+     * Returns the index (in the new DataSet) of the k-th tweened bar.
+     *
+     * @param k
+     * @return
+     */
+    public int getAnimatedIndex(int k) {
+        return mAnimated[k];
+    }
+
+    /**
+     * Returns the current value of the k-th tweened bar.
+     *
+     * @param k
+     * @param toY the new value of the bar
+     * @return
+     */
+    public float getAnimatedY(int k, float toY) {
+        return mFromY[k] + (toY - mFromY[k]) * mPhase;
+    }
+
+    public int getRemovedCount() {
+        return mRemovedX.length;
+    }
+
+    public float getRemovedX(int r) {
+        return mRemovedX[r];
+    }
+
+    /**
+     * Returns the current value of the r-th removed bar, shrinking to 0.
+     *
+     * @param r
+     * @return
+     */
+    public float getRemovedY(int r) {
+        return mRemovedY[r] * (1f - mPhase);
+    }
+}
@@ -35,6 +35,9 @@ public class ChartAnimator {
     /** the phase that is animated and influences the drawn values on the x-axis */
     protected float mPhaseX = 1f;
 
+    /** incremented whenever one of the phases changes */
+    protected int mGeneration = 0;
+
     /**
      * ################ ################ ################ ################
      */
@@ -206,7 +209,10 @@ public class ChartAnimator {
      * @param phase
      */
     public void setPhaseY(float phase) {
-        mPhaseY = phase;
+        if (mPhaseY != phase) {
+            mPhaseY = phase;
+            mGeneration++;
+        }
     }
 
     /**
@@ -224,6 +230,18 @@ public class ChartAnimator {
      * @param phase
      */
     public void setPhaseX(float phase) {
-        mPhaseX = phase;
+        if (mPhaseX != phase) {
+            mPhaseX = phase;
+            mGeneration++;
+        }
+    }
+
+    /**
+     * Returns a stamp that changes whenever phaseX or phaseY changes.
+     *
+     * @return
+     */
+    public int getGeneration() {
+        return mGeneration;
     }
 }
@@ -0,0 +1,121 @@
+package com.github.mikephil.charting.aaa.canvas;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+
+/**
+ * IChartCanvas backed by an android.graphics.Canvas. The adapter is reused, setCanvas()
+ * is called with the canvas of every frame. Every ChartPaint gets its own native
+ * Paint attached on first use, which is only synced again when the ChartPaint changed.
+ * <p>
+ * Android画布适配
+ */
+public class AndroidChartCanvas implements IChartCanvas {
+
+    private Canvas mCanvas;
+
+    public AndroidChartCanvas() {
+    }
+
+    public AndroidChartCanvas(Canvas canvas) {
+        mCanvas = canvas;
+    }
+
+    public void setCanvas(Canvas canvas) {
+        mCanvas = canvas;
+    }
+
+    public Canvas getCanvas() {
+        return mCanvas;
+    }
+
+    /**
+     * Returns the native Paint of the given ChartPaint, synced with its attributes.
+     *
+     * @param paint
+     * @return
+     */
+    public static Paint getPaint(ChartPaint paint) {
+        Paint p = (Paint) paint.mPlatformPaint;
+        if (p == null) {
+            p = new Paint();
+            paint.mPlatformPaint = p;
+            paint.mPlatformVersion = -1;
+        }
+        if (paint.mPlatformVersion != paint.getVersion()) {
+            p.setAntiAlias(paint.isAntiAlias());
+            p.setColor(paint.getColor());
+            p.setStyle(paint.getStyle() == ChartPaint.Style.STROKE ? Paint.Style.STROKE : Paint.Style.FILL);
+            p.setStrokeWidth(paint.getStrokeWidth());
+            p.setStrokeCap(toCap(paint.getStrokeCap()));
+            p.setTextSize(paint.getTextSize());
+            p.setTextAlign(toAlign(paint.getTextAlign()));
+            p.setTypeface((Typeface) paint.getTypeface());
+            paint.mPlatformVersion = paint.getVersion();
+        }
+        return p;
+    }
+
+    private static Paint.Cap toCap(ChartPaint.Cap cap) {
+        switch (cap) {
+            case ROUND:
+                return Paint.Cap.ROUND;
+            case SQUARE:
+                return Paint.Cap.SQUARE;
+            default:
+                return Paint.Cap.BUTT;
+        }
+    }
+
+    private static Paint.Align toAlign(ChartPaint.Align align) {
+        switch (align) {
+            case CENTER:
+                return Paint.Align.CENTER;
+            case RIGHT:
+                return Paint.Align.RIGHT;
+            default:
+                return Paint.Align.LEFT;
+        }
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, ChartPaint paint) {
+        mCanvas.drawRect(left, top, right, bottom, getPaint(paint));
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, ChartPaint paint) {
+        mCanvas.drawLine(startX, startY, stopX, stopY, getPaint(paint));
+    }
+
+    @Override
+    public void drawLines(float[] pts, int offset, int count, ChartPaint paint) {
+        mCanvas.drawLines(pts, offset, count, getPaint(paint));
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, ChartPaint paint) {
+        mCanvas.drawText(text, x, y, getPaint(paint));
+    }
+
+    @Override
+    public void drawText(char[] text, int index, int count, float x, float y, ChartPaint paint) {
+        mCanvas.drawText(text, index, count, x, y, getPaint(paint));
+    }
+
+    @Override
+    public int save() {
+        return mCanvas.save();
+    }
+
+    @Override
+    public boolean clipRect(float left, float top, float right, float bottom) {
+        return mCanvas.clipRect(left, top, right, bottom);
+    }
+
+    @Override
+    public void restoreToCount(int saveCount) {
+        mCanvas.restoreToCount(saveCount);
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.mikephil.charting.aaa.canvas;
+
+import android.graphics.Rect;
+
+/**
+ * ITextMetrics measuring with the native Paint of the ChartPaint. Holds no state, one
+ * instance is shared by all paints and the background preparation measures with it
+ * while the UI thread draws, so the bounds go into a scratch Rect per thread.
+ * <p>
+ * Android文字测量
+ */
+public class AndroidTextMetrics implements ITextMetrics {
+
+    // 每个线程一个Rect
+    private static final ThreadLocal<Rect> sBounds = new ThreadLocal<Rect>() {
+        @Override
+        protected Rect initialValue() {
+            return new Rect();
+        }
+    };
+
+    @Override
+    public float measureText(ChartPaint paint, String text) {
+        return AndroidChartCanvas.getPaint(paint).measureText(text);
+    }
+
+    @Override
+    public int getTextBoundsWidth(ChartPaint paint, String text) {
+        Rect bounds = sBounds.get();
+        AndroidChartCanvas.getPaint(paint).getTextBounds(text, 0, text.length(), bounds);
+        return bounds.width();
+    }
+
+    @Override
+    public int getTextBoundsHeight(ChartPaint paint, String text) {
+        Rect bounds = sBounds.get();
+        AndroidChartCanvas.getPaint(paint).getTextBounds(text, 0, text.length(), bounds);
+        return bounds.height();
+    }
+
+    @Override
+    public float getAscent(ChartPaint paint) {
+        return AndroidChartCanvas.getPaint(paint).ascent();
+    }
+}
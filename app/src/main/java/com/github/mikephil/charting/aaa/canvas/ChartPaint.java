@@ -0,0 +1,266 @@
+package com.github.mikephil.charting.aaa.canvas;
+
+/**
+ * Platform independent paint used by the renderers: color, style, stroke and text
+ * attributes, nothing else. The IChartCanvas backend turns it into whatever its
+ * platform draws with (see AndroidChartCanvas). Text is measured through an
+ * ITextMetrics; ChartView installs the Android one, without it the paints fall back
+ * to MonospaceTextMetrics so the renderers run headless.
+ * <p>
+ * 与平台无关的画笔
+ */
+public class ChartPaint {
+
+    public enum Style {
+        FILL,
+        STROKE,
+    }
+
+    public enum Align {
+        LEFT,
+        CENTER,
+        RIGHT,
+    }
+
+    public enum Cap {
+        BUTT,
+        ROUND,
+        SQUARE,
+    }
+
+    /**
+     * metrics used by paints that were not given their own
+     */
+    private static volatile ITextMetrics sDefaultTextMetrics;
+
+    /**
+     * used while no default was installed
+     */
+    private static final ITextMetrics FALLBACK_TEXT_METRICS = new MonospaceTextMetrics();
+
+    private int mColor = 0xFF000000;
+    private Style mStyle = Style.FILL;
+    private float mStrokeWidth = 0f;
+    private Cap mStrokeCap = Cap.BUTT;
+    private float mTextSize = 12f;
+    private Align mTextAlign = Align.LEFT;
+    private boolean mAntiAlias = false;
+
+    /**
+     * platform typeface, e.g. android.graphics.Typeface, null for the default
+     */
+    private Object mTypeface = null;
+
+    private ITextMetrics mTextMetrics = null;
+
+    /**
+     * incremented by every setter, lets a backend sync its native paint only on change
+     */
+    private int mVersion = 0;
+
+    /**
+     * native paint a backend attached to this paint, and the version it was synced at
+     */
+    Object mPlatformPaint = null;
+    int mPlatformVersion = -1;
+
+
+    public ChartPaint() {
+    }
+
+    /**
+     * @param antiAlias
+     */
+    public ChartPaint(boolean antiAlias) {
+        mAntiAlias = antiAlias;
+    }
+
+    /**
+     * Sets the metrics used by all paints without their own, e.g. new
+     * MonospaceTextMetrics() to run the renderers without Android.
+     *
+     * @param metrics
+     */
+    public static void setDefaultTextMetrics(ITextMetrics metrics) {
+        sDefaultTextMetrics = metrics;
+    }
+
+    /**
+     * Returns true if setDefaultTextMetrics() installed metrics.
+     *
+     * @return
+     */
+    public static boolean hasDefaultTextMetrics() {
+        return sDefaultTextMetrics != null;
+    }
+
+    public static ITextMetrics getDefaultTextMetrics() {
+        ITextMetrics metrics = sDefaultTextMetrics;
+        return metrics != null ? metrics : FALLBACK_TEXT_METRICS;
+    }
+
+    /**
+     * Copies all attributes of the given paint.
+     *
+     * @param paint
+     */
+    public void set(ChartPaint paint) {
+        mColor = paint.mColor;
+        mStyle = paint.mStyle;
+        mStrokeWidth = paint.mStrokeWidth;
+        mStrokeCap = paint.mStrokeCap;
+        mTextSize = paint.mTextSize;
+        mTextAlign = paint.mTextAlign;
+        mAntiAlias = paint.mAntiAlias;
+        mTypeface = paint.mTypeface;
+        mTextMetrics = paint.mTextMetrics;
+        mVersion++;
+    }
+
+    public int getColor() {
+        return mColor;
+    }
+
+    public void setColor(int color) {
+        if (mColor != color) {
+            mColor = color;
+            mVersion++;
+        }
+    }
+
+    public Style getStyle() {
+        return mStyle;
+    }
+
+    public void setStyle(Style style) {
+        mStyle = style;
+        mVersion++;
+    }
+
+    public float getStrokeWidth() {
+        return mStrokeWidth;
+    }
+
+    public void setStrokeWidth(float width) {
+        if (mStrokeWidth != width) {
+            mStrokeWidth = width;
+            mVersion++;
+        }
+    }
+
+    public Cap getStrokeCap() {
+        return mStrokeCap;
+    }
+
+    public void setStrokeCap(Cap cap) {
+        mStrokeCap = cap;
+        mVersion++;
+    }
+
+    public float getTextSize() {
+        return mTextSize;
+    }
+
+    public void setTextSize(float size) {
+        if (mTextSize != size) {
+            mTextSize = size;
+            mVersion++;
+        }
+    }
+
+    public Align getTextAlign() {
+        return mTextAlign;
+    }
+
+    public void setTextAlign(Align align) {
+        if (mTextAlign != align) {
+            mTextAlign = align;
+            mVersion++;
+        }
+    }
+
+    public boolean isAntiAlias() {
+        return mAntiAlias;
+    }
+
+    public void setAntiAlias(boolean antiAlias) {
+        mAntiAlias = antiAlias;
+        mVersion++;
+    }
+
+    public Object getTypeface() {
+        return mTypeface;
+    }
+
+    /**
+     * @param typeface platform typeface, e.g. android.graphics.Typeface, null for the default
+     */
+    public void setTypeface(Object typeface) {
+        mTypeface = typeface;
+        mVersion++;
+    }
+
+    /**
+     * Returns a stamp that changes whenever an attribute changes.
+     *
+     * @return
+     */
+    public int getVersion() {
+        return mVersion;
+    }
+
+    /**
+     * @param metrics null to use the default metrics
+     */
+    public void setTextMetrics(ITextMetrics metrics) {
+        mTextMetrics = metrics;
+    }
+
+    public ITextMetrics getTextMetrics() {
+        return mTextMetrics != null ? mTextMetrics : getDefaultTextMetrics();
+    }
+
+
+    /**
+     * ###### ###### 文字测量 ##### ######
+     */
+
+    /**
+     * Returns the advance width of the text.
+     *
+     * @param text
+     * @return
+     */
+    public float measureText(String text) {
+        return getTextMetrics().measureText(this, text);
+    }
+
+    /**
+     * Returns the width of the bounds of the text.
+     *
+     * @param text
+     * @return
+     */
+    public int getTextBoundsWidth(String text) {
+        return getTextMetrics().getTextBoundsWidth(this, text);
+    }
+
+    /**
+     * Returns the height of the bounds of the text.
+     *
+     * @param text
+     * @return
+     */
+    public int getTextBoundsHeight(String text) {
+        return getTextMetrics().getTextBoundsHeight(this, text);
+    }
+
+    /**
+     * Returns the distance above the baseline of the font, negative.
+     *
+     * @return
+     */
+    public float getAscent() {
+        return getTextMetrics().getAscent(this);
+    }
+}
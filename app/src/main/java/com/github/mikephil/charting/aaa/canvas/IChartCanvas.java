@@ -0,0 +1,40 @@
+package com.github.mikephil.charting.aaa.canvas;
+
+/**
+ * The drawing operations the renderers use. AndroidChartCanvas forwards them to an
+ * android.graphics.Canvas, RecordingChartCanvas captures them into primitive arrays
+ * so the render path can run on a plain JVM.
+ * <p>
+ * 与平台无关的画布
+ */
+public interface IChartCanvas {
+
+    void drawRect(float left, float top, float right, float bottom, ChartPaint paint);
+
+    void drawLine(float startX, float startY, float stopX, float stopY, ChartPaint paint);
+
+    /**
+     * Draws count / 4 lines, each given as x0, y0, x1, y1.
+     *
+     * @param pts
+     * @param offset
+     * @param count  number of floats, a multiple of 4
+     * @param paint
+     */
+    void drawLines(float[] pts, int offset, int count, ChartPaint paint);
+
+    void drawText(String text, float x, float y, ChartPaint paint);
+
+    void drawText(char[] text, int index, int count, float x, float y, ChartPaint paint);
+
+    /**
+     * Saves the clip, see restoreToCount().
+     *
+     * @return
+     */
+    int save();
+
+    boolean clipRect(float left, float top, float right, float bottom);
+
+    void restoreToCount(int saveCount);
+}
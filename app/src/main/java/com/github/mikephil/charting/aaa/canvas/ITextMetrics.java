@@ -0,0 +1,44 @@
+package com.github.mikephil.charting.aaa.canvas;
+
+/**
+ * Measures text drawn with a ChartPaint.
+ * <p>
+ * 文字测量
+ */
+public interface ITextMetrics {
+
+    /**
+     * Returns the advance width of the text.
+     *
+     * @param paint
+     * @param text
+     * @return
+     */
+    float measureText(ChartPaint paint, String text);
+
+    /**
+     * Returns the width of the bounds of the text.
+     *
+     * @param paint
+     * @param text
+     * @return
+     */
+    int getTextBoundsWidth(ChartPaint paint, String text);
+
+    /**
+     * Returns the height of the bounds of the text.
+     *
+     * @param paint
+     * @param text
+     * @return
+     */
+    int getTextBoundsHeight(ChartPaint paint, String text);
+
+    /**
+     * Returns the distance above the baseline of the font, negative.
+     *
+     * @param paint
+     * @return
+     */
+    float getAscent(ChartPaint paint);
+}
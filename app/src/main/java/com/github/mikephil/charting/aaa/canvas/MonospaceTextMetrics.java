@@ -0,0 +1,47 @@
+package com.github.mikephil.charting.aaa.canvas;
+
+/**
+ * ITextMetrics without any platform font: every character is charWidth * textSize
+ * wide, glyphs are capHeight * textSize high. Deterministic, meant for running the
+ * renderers headless together with RecordingChartCanvas.
+ * <p>
+ * 等宽字体的近似测量
+ */
+public class MonospaceTextMetrics implements ITextMetrics {
+
+    private final float mCharWidth;
+    private final float mCapHeight;
+
+    public MonospaceTextMetrics() {
+        this(0.6f, 0.7f);
+    }
+
+    /**
+     * @param charWidth width of a character relative to the text size
+     * @param capHeight height of a glyph relative to the text size
+     */
+    public MonospaceTextMetrics(float charWidth, float capHeight) {
+        mCharWidth = charWidth;
+        mCapHeight = capHeight;
+    }
+
+    @Override
+    public float measureText(ChartPaint paint, String text) {
+        return text.length() * mCharWidth * paint.getTextSize();
+    }
+
+    @Override
+    public int getTextBoundsWidth(ChartPaint paint, String text) {
+        return Math.round(measureText(paint, text));
+    }
+
+    @Override
+    public int getTextBoundsHeight(ChartPaint paint, String text) {
+        return text.length() == 0 ? 0 : Math.round(mCapHeight * paint.getTextSize());
+    }
+
+    @Override
+    public float getAscent(ChartPaint paint) {
+        return -mCapHeight * paint.getTextSize();
+    }
+}
@@ -0,0 +1,298 @@
+package com.github.mikephil.charting.aaa.canvas;
+
+/**
+ * IChartCanvas that draws nothing and records every operation into primitive arrays:
+ * per operation its code, color and stroke width (text size for text), its coordinates
+ * in one shared float[] and its characters in one shared char[]. Needs no Android
+ * classes, together with MonospaceTextMetrics the renderers run on a plain JVM to
+ * count draw calls, compare the output of two runs (firstDifference()) or time the
+ * render path. reset() keeps the arrays, recording the same frame again allocates
+ * nothing.
+ * <p>
+ * 记录绘制操作的画布
+ */
+public class RecordingChartCanvas implements IChartCanvas {
+
+    public static final byte OP_RECT = 0;
+    public static final byte OP_LINE = 1;
+    public static final byte OP_LINES = 2;
+    public static final byte OP_TEXT = 3;
+    public static final byte OP_SAVE = 4;
+    public static final byte OP_CLIP = 5;
+    public static final byte OP_RESTORE = 6;
+
+    // 每个操作一项
+    private byte[] mOps = new byte[64];
+    private int[] mColors = new int[64];
+    private float[] mWidths = new float[64];
+    private int[] mCoordStarts = new int[65];
+    private int[] mTextStarts = new int[65];
+    private int mOpCount = 0;
+
+    // 所有操作共享
+    private float[] mCoords = new float[256];
+    private int mCoordCount = 0;
+    private char[] mChars = new char[256];
+    private int mCharCount = 0;
+
+    private int mSaveCount = 1;
+
+
+    /**
+     * Forgets all recorded operations, the arrays are kept.
+     */
+    public void reset() {
+        mOpCount = 0;
+        mCoordCount = 0;
+        mCharCount = 0;
+        mSaveCount = 1;
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, ChartPaint paint) {
+        begin(OP_RECT, paint.getColor(), paint.getStrokeWidth(), 4);
+        add(left, top, right, bottom);
+        end();
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, ChartPaint paint) {
+        begin(OP_LINE, paint.getColor(), paint.getStrokeWidth(), 4);
+        add(startX, startY, stopX, stopY);
+        end();
+    }
+
+    @Override
+    public void drawLines(float[] pts, int offset, int count, ChartPaint paint) {
+        begin(OP_LINES, paint.getColor(), paint.getStrokeWidth(), count);
+        System.arraycopy(pts, offset, mCoords, mCoordCount, count);
+        mCoordCount += count;
+        end();
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, ChartPaint paint) {
+        begin(OP_TEXT, paint.getColor(), paint.getTextSize(), 2);
+        add(x, y);
+        ensureChars(text.length());
+        text.getChars(0, text.length(), mChars, mCharCount);
+        mCharCount += text.length();
+        end();
+    }
+
+    @Override
+    public void drawText(char[] text, int index, int count, float x, float y, ChartPaint paint) {
+        begin(OP_TEXT, paint.getColor(), paint.getTextSize(), 2);
+        add(x, y);
+        ensureChars(count);
+        System.arraycopy(text, index, mChars, mCharCount, count);
+        mCharCount += count;
+        end();
+    }
+
+    @Override
+    public int save() {
+        begin(OP_SAVE, 0, 0f, 0);
+        end();
+        return mSaveCount++;
+    }
+
+    @Override
+    public boolean clipRect(float left, float top, float right, float bottom) {
+        begin(OP_CLIP, 0, 0f, 4);
+        add(left, top, right, bottom);
+        end();
+        return right > left && bottom > top;
+    }
+
+    @Override
+    public void restoreToCount(int saveCount) {
+        begin(OP_RESTORE, 0, 0f, 1);
+        mCoords[mCoordCount++] = saveCount;
+        end();
+        mSaveCount = saveCount;
+    }
+
+    private void begin(byte op, int color, float width, int coords) {
+        if (mOpCount == mOps.length) {
+            int capacity = mOps.length * 2;
+            byte[] ops = new byte[capacity];
+            int[] colors = new int[capacity];
+            float[] widths = new float[capacity];
+            int[] coordStarts = new int[capacity + 1];
+            int[] textStarts = new int[capacity + 1];
+            System.arraycopy(mOps, 0, ops, 0, mOpCount);
+            System.arraycopy(mColors, 0, colors, 0, mOpCount);
+            System.arraycopy(mWidths, 0, widths, 0, mOpCount);
+            System.arraycopy(mCoordStarts, 0, coordStarts, 0, mOpCount + 1);
+            System.arraycopy(mTextStarts, 0, textStarts, 0, mOpCount + 1);
+            mOps = ops;
+            mColors = colors;
+            mWidths = widths;
+            mCoordStarts = coordStarts;
+            mTextStarts = textStarts;
+        }
+        if (mCoords.length < mCoordCount + coords) {
+            float[] values = new float[Math.max(mCoords.length * 2, mCoordCount + coords)];
+            System.arraycopy(mCoords, 0, values, 0, mCoordCount);
+            mCoords = values;
+        }
+        mOps[mOpCount] = op;
+        mColors[mOpCount] = color;
+        mWidths[mOpCount] = width;
+        mCoordStarts[mOpCount] = mCoordCount;
+        mTextStarts[mOpCount] = mCharCount;
+    }
+
+    private void add(float a, float b) {
+        mCoords[mCoordCount++] = a;
+        mCoords[mCoordCount++] = b;
+    }
+
+    private void add(float a, float b, float c, float d) {
+        mCoords[mCoordCount++] = a;
+        mCoords[mCoordCount++] = b;
+        mCoords[mCoordCount++] = c;
+        mCoords[mCoordCount++] = d;
+    }
+
+    private void ensureChars(int count) {
+        if (mChars.length < mCharCount + count) {
+            char[] chars = new char[Math.max(mChars.length * 2, mCharCount + count)];
+            System.arraycopy(mChars, 0, chars, 0, mCharCount);
+            mChars = chars;
+        }
+    }
+
+    private void end() {
+        mOpCount++;
+        // 下一个操作的起点 也是这个操作的终点
+        mCoordStarts[mOpCount] = mCoordCount;
+        mTextStarts[mOpCount] = mCharCount;
+    }
+
+
+    /**
+     * ###### ###### 读取记录 ##### ######
+     */
+
+    public int getOpCount() {
+        return mOpCount;
+    }
+
+    /**
+     * @param i
+     * @return one of the OP_ constants
+     */
+    public byte getOp(int i) {
+        return mOps[i];
+    }
+
+    public int getColor(int i) {
+        return mColors[i];
+    }
+
+    /**
+     * Returns the stroke width of a shape, the text size of a text operation.
+     *
+     * @param i
+     * @return
+     */
+    public float getWidth(int i) {
+        return mWidths[i];
+    }
+
+    /**
+     * Returns the array holding the coordinates of all operations, see getCoordStart().
+     *
+     * @return
+     */
+    public float[] getCoords() {
+        return mCoords;
+    }
+
+    public int getCoordStart(int i) {
+        return mCoordStarts[i];
+    }
+
+    public int getCoordCount(int i) {
+        return mCoordStarts[i + 1] - mCoordStarts[i];
+    }
+
+    /**
+     * Returns the text of a text operation, empty for all others. Allocates.
+     *
+     * @param i
+     * @return
+     */
+    public String getText(int i) {
+        return new String(mChars, mTextStarts[i], mTextStarts[i + 1] - mTextStarts[i]);
+    }
+
+    /**
+     * Returns the number of recorded operations of the given kind.
+     *
+     * @param op one of the OP_ constants
+     * @return
+     */
+    public int countOps(byte op) {
+        int count = 0;
+        for (int i = 0; i < mOpCount; i++) {
+            if (mOps[i] == op) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of recorded draw calls, save / clip / restore not counted.
+     *
+     * @return
+     */
+    public int getDrawCallCount() {
+        return mOpCount - countOps(OP_SAVE) - countOps(OP_CLIP) - countOps(OP_RESTORE);
+    }
+
+    /**
+     * Compares the recording with another one.
+     *
+     * @param other
+     * @return the index of the first operation that differs, -1 if both are equal
+     */
+    public int firstDifference(RecordingChartCanvas other) {
+        int count = Math.min(mOpCount, other.mOpCount);
+        for (int i = 0; i < count; i++) {
+            if (mOps[i] != other.mOps[i]
+                    || mColors[i] != other.mColors[i]
+                    || Float.compare(mWidths[i], other.mWidths[i]) != 0
+                    || getCoordCount(i) != other.getCoordCount(i)
+                    || !sameText(i, other)) {
+                return i;
+            }
+            int a = mCoordStarts[i];
+            int b = other.mCoordStarts[i];
+            for (int k = getCoordCount(i) - 1; k >= 0; k--) {
+                if (Float.compare(mCoords[a + k], other.mCoords[b + k]) != 0) {
+                    return i;
+                }
+            }
+        }
+        return mOpCount == other.mOpCount ? -1 : count;
+    }
+
+    private boolean sameText(int i, RecordingChartCanvas other) {
+        int length = mTextStarts[i + 1] - mTextStarts[i];
+        if (length != other.mTextStarts[i + 1] - other.mTextStarts[i]) {
+            return false;
+        }
+        int a = mTextStarts[i];
+        int b = other.mTextStarts[i];
+        for (int k = 0; k < length; k++) {
+            if (mChars[a + k] != other.mChars[b + k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.mikephil.charting.aaa.color;
+
+/**
+ * Interface for a function that derives the color of a bar from its value, e.g.
+ * ThresholdColorMapper. Set it with BarEntrySet.setColorMapper(), it takes
+ * precedence over the per-entry colors and the palette.
+ * <p>
+ * 根据数值计算柱子颜色
+ */
+public interface IBarColorMapper {
+
+    /**
+     * Returns the color of the bar with the given values. Called once per drawn bar,
+     * avoid allocations.
+     *
+     * @param x     x-value of the entry
+     * @param y     y-value of the entry
+     * @param index index of the entry in its DataSet
+     * @return
+     */
+    int getColor(float x, float y, int index);
+}
@@ -0,0 +1,80 @@
+package com.github.mikephil.charting.aaa.color;
+
+/**
+ * Maps y-values to colors by ascending thresholds. Values below the first threshold
+ * get the first color, values above the last one the last color. In between, the
+ * color of the lower threshold is used, or, with gradient enabled, the color is
+ * interpolated (per ARGB channel) between the two neighbouring thresholds.
+ * <p>
+ * 阈值颜色 可选渐变
+ */
+public class ThresholdColorMapper implements IBarColorMapper {
+
+    private final float[] mThresholds;
+
+    private final int[] mColors;
+
+    private final boolean mGradient;
+
+
+    /**
+     * @param thresholds ascending y-values
+     * @param colors     one color per threshold
+     * @param gradient   interpolate between the thresholds
+     */
+    public ThresholdColorMapper(float[] thresholds, int[] colors, boolean gradient) {
+        if (thresholds.length == 0 || thresholds.length != colors.length) {
+            throw new IllegalArgumentException("one color per threshold required");
+        }
+        for (int i = 1; i < thresholds.length; i++) {
+            if (thresholds[i] < thresholds[i - 1]) {
+                throw new IllegalArgumentException("thresholds must be ascending");
+            }
+        }
+        mThresholds = thresholds.clone();
+        mColors = colors.clone();
+        mGradient = gradient;
+    }
+
+    @Override
+    public int getColor(float x, float y, int index) {
+        int last = mThresholds.length - 1;
+        if (!(y > mThresholds[0])) {
+            // also NaN
+            return mColors[0];
+        }
+        if (y >= mThresholds[last]) {
+            return mColors[last];
+        }
+        // the last threshold <= y, there are only a few of them
+        int i = 0;
+        while (mThresholds[i + 1] <= y) {
+            i++;
+        }
+        if (!mGradient) {
+            return mColors[i];
+        }
+        float fraction = (y - mThresholds[i]) / (mThresholds[i + 1] - mThresholds[i]);
+        return interpolate(mColors[i], mColors[i + 1], fraction);
+    }
+
+    /**
+     * Interpolates every ARGB channel of the two colors.
+     *
+     * @param from
+     * @param to
+     * @param fraction 0..1
+     * @return
+     */
+    public static int interpolate(int from, int to, float fraction) {
+        int a = channel(from >>> 24, to >>> 24, fraction);
+        int r = channel((from >> 16) & 0xff, (to >> 16) & 0xff, fraction);
+        int g = channel((from >> 8) & 0xff, (to >> 8) & 0xff, fraction);
+        int b = channel(from & 0xff, to & 0xff, fraction);
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    private static int channel(int from, int to, float fraction) {
+        return from + Math.round((to - from) * fraction);
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.mikephil.charting.aaa.formatter;
+
+import com.github.mikephil.charting.aaa.utils.Utils;
+
+/**
+ * Formats values with a fixed number of decimals and an optional suffix, e.g.
+ * "12.50 %". With 0 decimals the values are rounded to integers.
+ * <p>
+ * 固定小数位的格式化
+ */
+public class DecimalValueTextFormatter implements IValueTextFormatter {
+
+    private final int mDecimals;
+
+    private final char[] mSuffix;
+
+    /**
+     * @param decimals 0..9
+     */
+    public DecimalValueTextFormatter(int decimals) {
+        this(decimals, null);
+    }
+
+    /**
+     * @param decimals 0..9
+     * @param suffix   appended to every value, may be null
+     */
+    public DecimalValueTextFormatter(int decimals, String suffix) {
+        if (decimals < 0 || decimals > 9) {
+            throw new IllegalArgumentException("decimals must be 0..9");
+        }
+        mDecimals = decimals;
+        mSuffix = suffix == null ? new char[0] : suffix.toCharArray();
+    }
+
+    @Override
+    public int format(float value, int entryIndex, int dataSetIndex, char[] out) {
+        int length = Utils.formatNumber(value, mDecimals, mDecimals, out, 0);
+        int count = Math.min(mSuffix.length, out.length - length);
+        System.arraycopy(mSuffix, 0, out, length, count);
+        return length + count;
+    }
+}
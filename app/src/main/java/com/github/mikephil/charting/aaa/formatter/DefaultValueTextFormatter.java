@@ -0,0 +1,25 @@
+package com.github.mikephil.charting.aaa.formatter;
+
+import com.github.mikephil.charting.aaa.utils.Utils;
+
+/**
+ * The formatter used when no value formatter is set: the value rounded to the 7
+ * significant digits a float holds, trailing zeros trimmed, at least one decimal
+ * ("12.0", "0.1", "33.3"). Matches Float.toString() except that large and tiny
+ * values are not written in exponent notation.
+ * <p>
+ * 默认的数值格式化
+ */
+public class DefaultValueTextFormatter implements IValueTextFormatter {
+
+    private static final int SIGNIFICANT_DIGITS = 7;
+
+    public static final DefaultValueTextFormatter INSTANCE = new DefaultValueTextFormatter();
+
+    @Override
+    public int format(float value, int entryIndex, int dataSetIndex, char[] out) {
+        int digits = Utils.integerDigits(Math.abs(value));
+        int decimals = Math.max(1, Math.min(9, SIGNIFICANT_DIGITS - digits));
+        return Utils.formatNumber(value, decimals, 1, out, 0);
+    }
+}
@@ -5,6 +5,10 @@ import com.github.mikephil.charting.aaa.model.axis.AxisBase;
 /**
  * Custom formatter interface that allows formatting of
  * axis labels before they are being drawn.
+ * <p>
+ * A chart filled through ChartView.setDataAsync() also formats the labels on its
+ * background thread while the UI thread may still draw with the same formatter, so
+ * formatters used that way must be thread-safe.
  */
 public interface IAxisValueFormatter {
 
@@ -0,0 +1,27 @@
+package com.github.mikephil.charting.aaa.formatter;
+
+/**
+ * Allocation-free alternative to IValueFormatter: the label of a value is written
+ * into a char[] owned by the renderer and drawn with Canvas.drawText(char[], ...),
+ * so drawing the values does not create a String per bar and frame.
+ * <p>
+ * 不创建对象的数值格式化
+ */
+public interface IValueTextFormatter {
+
+    /**
+     * the char[] passed to format() holds at least this many characters
+     */
+    int MAX_LENGTH = 64;
+
+    /**
+     * Writes the label of the given value into out, starting at 0.
+     *
+     * @param value        the value to be formatted
+     * @param entryIndex   index of the entry in its DataSet
+     * @param dataSetIndex index of the DataSet the entry belongs to
+     * @param out          receives the characters, MAX_LENGTH long
+     * @return the number of characters written
+     */
+    int format(float value, int entryIndex, int dataSetIndex, char[] out);
+}
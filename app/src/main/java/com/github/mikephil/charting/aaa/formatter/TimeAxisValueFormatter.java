@@ -0,0 +1,54 @@
+package com.github.mikephil.charting.aaa.formatter;
+
+import com.github.mikephil.charting.aaa.model.axis.AxisBase;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Formats the labels of an x-axis over a TimeSeriesBarEntrySet as dates. The axis
+ * values are relative, the absolute timestamp comes from AxisBase.toAbsoluteValue().
+ * SimpleDateFormat is not thread-safe, every thread formats with its own instance so
+ * the formatter can be shared with the prepare thread of ChartView.setDataAsync().
+ * <p>
+ * 时间坐标轴的格式化
+ */
+public class TimeAxisValueFormatter implements IAxisValueFormatter {
+
+    private final String mPattern;
+
+    private final Locale mLocale;
+
+    // 每个线程各自的format和Date
+    private final ThreadLocal<SimpleDateFormat> mFormat = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            return new SimpleDateFormat(mPattern, mLocale);
+        }
+    };
+
+    private final ThreadLocal<Date> mDate = new ThreadLocal<Date>() {
+        @Override
+        protected Date initialValue() {
+            return new Date();
+        }
+    };
+
+    /**
+     * @param pattern SimpleDateFormat pattern, e.g. "HH:mm"
+     */
+    public TimeAxisValueFormatter(String pattern) {
+        mPattern = pattern;
+        mLocale = Locale.getDefault();
+        // 构造时校验pattern
+        new SimpleDateFormat(pattern, mLocale);
+    }
+
+    @Override
+    public String getFormattedValue(float value, AxisBase axis) {
+        Date date = mDate.get();
+        date.setTime(Math.round(axis.toAbsoluteValue(value)));
+        return mFormat.get().format(date);
+    }
+}
@@ -57,6 +57,10 @@ public abstract class AxisBase {
     // the number of label entries the axis should have, default 6
     private int mLabelCount = 6;
 
+    // the axis values are relative: absolute value = mValueBase + value * mValueUnit
+    protected double mValueBase = 0d;
+    protected double mValueUnit = 1d;
+
 
     // flag that indicates if this axis / legend is enabled or not
     protected boolean mEnabled = true;
@@ -334,6 +338,34 @@ public abstract class AxisBase {
     }
 
 
+    /**
+     * Set a custom maximum value for this axis. If set, this value will not be calculated
+     * automatically depending on the provided data. Use resetAxisMaximum() to undo this.
+     *
+     * @param max
+     */
+    public void setAxisMaximum(float max) {
+        mCustomAxisMax = true;
+        mAxisMaximum = max;
+        this.mAxisRange = Math.abs(max - mAxisMinimum);
+    }
+
+    /**
+     * By calling this method, any custom minimum value that has been previously set is reseted,
+     * and the calculation is done automatically.
+     */
+    public void resetAxisMinimum() {
+        mCustomAxisMin = false;
+    }
+
+    /**
+     * By calling this method, any custom maximum value that has been previously set is reseted,
+     * and the calculation is done automatically.
+     */
+    public void resetAxisMaximum() {
+        mCustomAxisMax = false;
+    }
+
     /**
      * Sets extra spacing for `axisMinimum` to be added to automatically calculated `axisMinimum`
      */
@@ -348,4 +380,93 @@ public abstract class AxisBase {
     public void setSpaceMax(float mSpaceMax) {
         this.mSpaceMax = mSpaceMax;
     }
+
+
+    /**
+     * Sets the base and unit the (float) axis values are relative to, see
+     * BarEntrySet.getXBase(). Formatters get the absolute value via toAbsoluteValue().
+     * <p>
+     * 设置坐标轴数值的基准值
+     *
+     * @param base
+     * @param unit
+     */
+    public void setValueBase(double base, double unit) {
+        mValueBase = base;
+        mValueUnit = unit;
+    }
+
+    public double getValueBase() {
+        return mValueBase;
+    }
+
+    public double getValueUnit() {
+        return mValueUnit;
+    }
+
+    /**
+     * Converts a (relative) axis value into the absolute value, e.g. epoch milliseconds.
+     *
+     * @param value
+     * @return
+     */
+    public double toAbsoluteValue(float value) {
+        return mValueBase + value * mValueUnit;
+    }
+
+
+    /**
+     * Copies the configuration and the computed values of the given axis into this
+     * one. Used to create a shadow axis that is computed off the UI thread. The
+     * entry arrays are not shared.
+     * <p>
+     * 复制坐标轴的配置
+     *
+     * @param axis
+     */
+    public void copyFrom(AxisBase axis) {
+        mAxisLineColor = axis.mAxisLineColor;
+        mAxisLineWidth = axis.mAxisLineWidth;
+        mTextSize = axis.mTextSize;
+        mTextColor = axis.mTextColor;
+        mAxisValueFormatter = axis.mAxisValueFormatter;
+        mXOffset = axis.mXOffset;
+        mYOffset = axis.mYOffset;
+        mSpaceMin = axis.mSpaceMin;
+        mSpaceMax = axis.mSpaceMax;
+        mLabelCount = axis.mLabelCount;
+        mEnabled = axis.mEnabled;
+        mDrawLabels = axis.mDrawLabels;
+        mCenterAxisLabels = axis.mCenterAxisLabels;
+        mCustomAxisMin = axis.mCustomAxisMin;
+        mCustomAxisMax = axis.mCustomAxisMax;
+        mAxisLineDashPathEffect = axis.mAxisLineDashPathEffect;
+        mAxisMinimum = axis.mAxisMinimum;
+        mAxisMaximum = axis.mAxisMaximum;
+        mAxisRange = axis.mAxisRange;
+        mValueBase = axis.mValueBase;
+        mValueUnit = axis.mValueUnit;
+        mEntries = new float[]{};
+        mCenteredEntries = new float[]{};
+        mEntryCount = 0;
+    }
+
+    /**
+     * Takes over the values computed for the given (shadow) axis: range and label
+     * entries. The configuration of this axis is left untouched.
+     * <p>
+     * 使用后台计算的坐标轴数据
+     *
+     * @param axis
+     */
+    public void copyComputedFrom(AxisBase axis) {
+        mAxisMinimum = axis.mAxisMinimum;
+        mAxisMaximum = axis.mAxisMaximum;
+        mAxisRange = axis.mAxisRange;
+        mValueBase = axis.mValueBase;
+        mValueUnit = axis.mValueUnit;
+        mEntries = axis.mEntries;
+        mCenteredEntries = axis.mCenteredEntries;
+        mEntryCount = axis.mEntryCount;
+    }
 }
@@ -28,4 +28,21 @@ public class XAxis extends AxisBase {
         mYOffset = Utils.convertDpToPixel(4.f); // -3
     }
 
+    @Override
+    public void copyFrom(AxisBase axis) {
+        super.copyFrom(axis);
+        if (axis instanceof XAxis) {
+            mLabelWidth = ((XAxis) axis).mLabelWidth;
+            mLabelHeight = ((XAxis) axis).mLabelHeight;
+        }
+    }
+
+    @Override
+    public void copyComputedFrom(AxisBase axis) {
+        super.copyComputedFrom(axis);
+        if (axis instanceof XAxis) {
+            mLabelWidth = ((XAxis) axis).mLabelWidth;
+            mLabelHeight = ((XAxis) axis).mLabelHeight;
+        }
+    }
 }
@@ -1,7 +1,6 @@
 package com.github.mikephil.charting.aaa.model.axis;
 
-import android.graphics.Paint;
-
+import com.github.mikephil.charting.aaa.canvas.ChartPaint;
 import com.github.mikephil.charting.aaa.utils.Utils;
 
 /**
@@ -80,7 +79,7 @@ public class YAxis extends AxisBase {
      * @param p
      * @return
      */
-    public float getRequiredWidthSpace(Paint p) {
+    public float getRequiredWidthSpace(ChartPaint p) {
         // 文字大小
         p.setTextSize(mTextSize);
         //
@@ -176,5 +175,17 @@ public class YAxis extends AxisBase {
             return false;
     }
 
-
+    @Override
+    public void copyFrom(AxisBase axis) {
+        super.copyFrom(axis);
+        if (axis instanceof YAxis) {
+            YAxis y = (YAxis) axis;
+            mDrawBottomYLabelEntry = y.mDrawBottomYLabelEntry;
+            mDrawTopYLabelEntry = y.mDrawTopYLabelEntry;
+            mSpacePercentTop = y.mSpacePercentTop;
+            mSpacePercentBottom = y.mSpacePercentBottom;
+            mMinWidth = y.mMinWidth;
+            mMaxWidth = y.mMaxWidth;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 
 package com.github.mikephil.charting.aaa.model.bar;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -47,6 +48,47 @@ public class BarData {
      */
     private float mBarWidth = 0.85f;
 
+    /**
+     * grouped layout: the bars of all DataSets with the same x-value are drawn side
+     * by side instead of on top of each other
+     */
+    private boolean mGrouped = false;
+
+    /**
+     * space between two groups, in values (not pixels)
+     */
+    private float mGroupSpace = 0f;
+
+    /**
+     * space between two bars of one group, in values (not pixels)
+     */
+    private float mBarSpace = 0f;
+
+    /**
+     * x-offset of every DataSet in grouped layout, see getGroupOffset()
+     */
+    private float[] mGroupOffsets = null;
+
+    /**
+     * bar width the group offsets were computed with
+     */
+    private float mGroupOffsetsBarWidth;
+
+    /**
+     * set by freeze(), the DataSets can no longer be modified
+     */
+    private volatile boolean mFrozen = false;
+
+    /**
+     * nesting depth of beginUpdate() calls
+     */
+    private int mUpdateDepth = 0;
+
+    /**
+     * set when a change inside a batch may have altered the min / max values
+     */
+    private boolean mMinMaxDirty = false;
+
 
     /**
      * 柱状图组数据
@@ -123,6 +165,308 @@ public class BarData {
     }
 
 
+    /**
+     * Call this method to let the BarData know that the underlying data has changed.
+     * Every DataSet is rescanned (entries may have been edited in place) and marked
+     * as changed, then the min / max values are recalculated.
+     */
+    public void notifyDataChanged() {
+        if (mDataSets != null) {
+            for (BarEntrySet set : mDataSets) {
+                set.notifyDataSetChanged();
+            }
+        }
+        calcMinMax();
+    }
+
+    /**
+     * Folds the changed extremes of a single DataSet into the min / max values of this
+     * BarData. Growing extremes are applied in O(1), only a shrinking extreme
+     * requires a pass over the (cached extremes of the) DataSets.
+     * <p>
+     * 合并单个DataSet的最大值、最小值变化
+     *
+     * @param set
+     * @param oldXMin extremes of the DataSet before it was modified
+     * @param oldXMax
+     * @param oldYMin
+     * @param oldYMax
+     */
+    protected void onDataSetChanged(BarEntrySet set, float oldXMin, float oldXMax,
+                                    float oldYMin, float oldYMax) {
+        boolean shrunk = set.getXMin() > oldXMin && oldXMin == mXMin
+                || set.getXMax() < oldXMax && oldXMax == mXMax
+                || set.getYMin() > oldYMin && oldYMin == mYMin
+                || set.getYMax() < oldYMax && oldYMax == mYMax;
+        if (shrunk) {
+            calcMinMax();
+            return;
+        }
+        calcMinMax(set);
+        // YAxis
+        if (set.getYMin() < mYAxisMin)
+            mYAxisMin = set.getYMin();
+        if (set.getYMax() > mYAxisMax)
+            mYAxisMax = set.getYMax();
+    }
+
+    /**
+     * Freezes all DataSets and this BarData, making it an immutable snapshot that can
+     * be handed from a producer thread to the chart (see ChartView.publishData()).
+     * All lazily derived values are resolved before it is published.
+     * <p>
+     * 冻结数据 作为不可变快照发布
+     */
+    public void freeze() {
+        if (mFrozen) {
+            return;
+        }
+        if (mDataSets != null) {
+            for (BarEntrySet set : mDataSets) {
+                set.freeze();
+            }
+        }
+        calcMinMax();
+        mFrozen = true;
+    }
+
+    public boolean isFrozen() {
+        return mFrozen;
+    }
+
+    /**
+     * Resolves the lazily derived state of every DataSet (see BarEntrySet.resolve())
+     * and the min / max values of this BarData, without rescanning anything that is
+     * up to date. Called on the thread that prepares the data for setDataAsync().
+     * <p>
+     * 提前计算延迟计算的状态
+     */
+    public void resolve() {
+        if (mDataSets != null) {
+            for (BarEntrySet set : mDataSets) {
+                set.resolve();
+            }
+        }
+        calcMinMax();
+    }
+
+    /**
+     * Returns a mutable deep copy of this BarData. A producer copies the published
+     * snapshot, modifies the copy off the UI thread and publishes it as the next one.
+     * <p>
+     * 复制数据
+     *
+     * @return
+     */
+    public BarData copy() {
+        List<BarEntrySet> sets = null;
+        if (mDataSets != null) {
+            sets = new ArrayList<BarEntrySet>(mDataSets.size());
+            for (BarEntrySet set : mDataSets) {
+                sets.add(set.copy());
+            }
+        }
+        BarData copy = new BarData(sets);
+        copy.mBarWidth = mBarWidth;
+        copy.mGrouped = mGrouped;
+        copy.mGroupSpace = mGroupSpace;
+        copy.mBarSpace = mBarSpace;
+        return copy;
+    }
+
+    /**
+     * Starts a batch of modifications on this BarData and all its DataSets. Until the
+     * matching endUpdate(), addEntry() / updateEntry() / removeEntry() only modify the
+     * DataSets and mark the min / max values dirty. Calls can be nested.
+     * <p>
+     * 开始批量修改
+     */
+    public void beginUpdate() {
+        if (mUpdateDepth++ == 0) {
+            mMinMaxDirty = false;
+            if (mDataSets != null) {
+                for (BarEntrySet set : mDataSets) {
+                    set.beginUpdate();
+                }
+            }
+        }
+    }
+
+    /**
+     * Ends a batch started with beginUpdate(). The outermost call resolves the min / max
+     * values of every DataSet and of this BarData once.
+     * <p>
+     * 结束批量修改 统一计算一次最大值、最小值
+     *
+     * @return the number of entries added, changed or removed during the batch,
+     * over all DataSets
+     */
+    public int endUpdate() {
+        if (mUpdateDepth == 0) {
+            throw new IllegalStateException("endUpdate() without beginUpdate()");
+        }
+        if (--mUpdateDepth > 0) {
+            return getChangedCount();
+        }
+        int changed = 0;
+        if (mDataSets != null) {
+            for (BarEntrySet set : mDataSets) {
+                if (set.isUpdating()) {
+                    changed += set.endUpdate();
+                }
+            }
+        }
+        if (mMinMaxDirty || changed > 0) {
+            calcMinMax();
+            mMinMaxDirty = false;
+        }
+        return changed;
+    }
+
+    public boolean isUpdating() {
+        return mUpdateDepth > 0;
+    }
+
+    /**
+     * Returns the number of entries added, changed or removed in the current (or last)
+     * batch, over all DataSets.
+     *
+     * @return
+     */
+    public int getChangedCount() {
+        int changed = 0;
+        if (mDataSets != null) {
+            for (BarEntrySet set : mDataSets) {
+                changed += set.getChangedCount();
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Adds an entry to the DataSet at the given index and updates the min / max
+     * values of this BarData, in O(1) unless an evicted entry held an extreme.
+     * <p>
+     * 添加一个数据点
+     *
+     * @param x
+     * @param y
+     * @param dataSetIndex
+     */
+    public void addEntry(float x, float y, int dataSetIndex) {
+        BarEntrySet set = getDataSetByIndex(dataSetIndex);
+        if (set == null) {
+            return;
+        }
+        if (mUpdateDepth > 0) {
+            set.addEntry(x, y);
+            mMinMaxDirty = true;
+            return;
+        }
+        // a full RingBarEntrySet evicts an entry, so even an append can shrink the extremes
+        float xMin = set.getXMin(), xMax = set.getXMax();
+        float yMin = set.getYMin(), yMax = set.getYMax();
+        set.addEntry(x, y);
+        onDataSetChanged(set, xMin, xMax, yMin, yMax);
+    }
+
+    /**
+     * Replaces the y-value of the entry at entryIndex in the DataSet at dataSetIndex.
+     * <p>
+     * 修改一个数据点
+     *
+     * @param entryIndex
+     * @param y
+     * @param dataSetIndex
+     */
+    public void updateEntry(int entryIndex, float y, int dataSetIndex) {
+        BarEntrySet set = getDataSetByIndex(dataSetIndex);
+        if (set == null) {
+            return;
+        }
+        if (mUpdateDepth > 0) {
+            set.updateEntry(entryIndex, y);
+            mMinMaxDirty = true;
+            return;
+        }
+        float xMin = set.getXMin(), xMax = set.getXMax();
+        float yMin = set.getYMin(), yMax = set.getYMax();
+        set.updateEntry(entryIndex, y);
+        onDataSetChanged(set, xMin, xMax, yMin, yMax);
+    }
+
+    /**
+     * Removes the entry at entryIndex from the DataSet at dataSetIndex.
+     * <p>
+     * 删除一个数据点
+     *
+     * @param entryIndex
+     * @param dataSetIndex
+     * @return true if an entry was removed
+     */
+    public boolean removeEntry(int entryIndex, int dataSetIndex) {
+        BarEntrySet set = getDataSetByIndex(dataSetIndex);
+        if (set == null) {
+            return false;
+        }
+        if (mUpdateDepth > 0) {
+            boolean removed = set.removeEntry(entryIndex);
+            mMinMaxDirty |= removed;
+            return removed;
+        }
+        float xMin = set.getXMin(), xMax = set.getXMax();
+        float yMin = set.getYMin(), yMax = set.getYMax();
+        boolean removed = set.removeEntry(entryIndex);
+        if (removed) {
+            onDataSetChanged(set, xMin, xMax, yMin, yMax);
+        }
+        return removed;
+    }
+
+
+    /**
+     * buffer for the visible index range of a DataSet
+     */
+    private final int[] mRangeBuffer = new int[2];
+
+    /**
+     * buffer for the min / max of a DataSet range
+     */
+    private final float[] mMinMaxBuffer = new float[2];
+
+    /**
+     * Calculates the y-axis min / max over the entries whose x-value lies in
+     * [fromX, toX] only. getYMin() / getYMax() return the result until the next call
+     * of notifyDataChanged(). DataSets with sorted x-values and an enabled range
+     * index answer this in O(log n).
+     * <p>
+     * 只计算可见区域内Y的最大值、最小值
+     *
+     * @param fromX
+     * @param toX
+     */
+    public void calcMinMaxY(float fromX, float toX) {
+        if (mDataSets == null) {
+            return;
+        }
+        mYAxisMin = Float.MAX_VALUE;
+        mYAxisMax = -Float.MAX_VALUE;
+        for (BarEntrySet set : mDataSets) {
+            set.getVisibleRange(fromX, toX, mRangeBuffer);
+            set.getYMinMaxInRange(mRangeBuffer[0], mRangeBuffer[1], mMinMaxBuffer);
+            if (mMinMaxBuffer[0] < mYAxisMin)
+                mYAxisMin = mMinMaxBuffer[0];
+            if (mMinMaxBuffer[1] > mYAxisMax)
+                mYAxisMax = mMinMaxBuffer[1];
+        }
+        // nothing visible, keep the range of the whole data
+        if (mYAxisMin > mYAxisMax) {
+            mYAxisMin = mYMin;
+            mYAxisMax = mYMax;
+        }
+    }
+
+
     /**
      * Sets the width each bar should have on the x-axis (in values, not pixels).
      * Default 0.85f
@@ -138,6 +482,132 @@ public class BarData {
     }
 
 
+    /**
+     * ###### ###### 分组柱状图 ##### ######
+     */
+
+    /**
+     * Enables the grouped layout: the bars of all DataSets that share an x-value are
+     * drawn side by side, centered on that x-value, in DataSet order. The entries are
+     * not modified. One group is getGroupWidth() wide, choose the bar width and the
+     * spaces so it fits the distance of two x-values, e.g. for 3 DataSets and a
+     * distance of 1: barWidth 0.25, barSpace 0.05, groupSpace 0.1.
+     * <p>
+     * 设置分组柱状图 组间距与柱间距
+     *
+     * @param groupSpace space between two groups, in values (not pixels)
+     * @param barSpace   space between two bars of a group, in values (not pixels)
+     */
+    public void setGroupSpacing(float groupSpace, float barSpace) {
+        mGrouped = true;
+        mGroupSpace = groupSpace;
+        mBarSpace = barSpace;
+        mGroupOffsets = null;
+    }
+
+    /**
+     * Enables or disables the grouped layout, see setGroupSpacing().
+     *
+     * @param grouped
+     */
+    public void setGrouped(boolean grouped) {
+        mGrouped = grouped;
+    }
+
+    public boolean isGrouped() {
+        return mGrouped;
+    }
+
+    public float getGroupSpace() {
+        return mGroupSpace;
+    }
+
+    public float getBarSpace() {
+        return mBarSpace;
+    }
+
+    /**
+     * Returns the width one group of bars occupies on the x-axis, in values.
+     *
+     * @return
+     */
+    public float getGroupWidth() {
+        return getDataSetCount() * (mBarWidth + mBarSpace) + mGroupSpace;
+    }
+
+    /**
+     * Returns the x-offset (in values) the bars of the given DataSet are drawn with,
+     * 0 if the layout is not grouped. The offsets of all DataSets are computed in one
+     * pass and cached until the bar width, the spacing or the DataSet count changes.
+     * <p>
+     * 返回分组后每组数据的X偏移
+     *
+     * @param dataSetIndex
+     * @return
+     */
+    public float getGroupOffset(int dataSetIndex) {
+        if (!mGrouped) {
+            return 0f;
+        }
+        int count = getDataSetCount();
+        if (mGroupOffsets == null || mGroupOffsets.length != count || mGroupOffsetsBarWidth != mBarWidth) {
+            computeGroupOffsets(count);
+        }
+        return mGroupOffsets[dataSetIndex];
+    }
+
+    private void computeGroupOffsets(int count) {
+        float[] offsets = mGroupOffsets != null && mGroupOffsets.length == count
+                ? mGroupOffsets : new float[count];
+        float step = mBarWidth + mBarSpace;
+        // 第一根柱子的中心, 相对于组的中心
+        float first = -getGroupWidth() / 2f + mGroupSpace / 2f + step / 2f;
+        for (int i = 0; i < count; i++) {
+            offsets[i] = first + i * step;
+        }
+        mGroupOffsets = offsets;
+        mGroupOffsetsBarWidth = mBarWidth;
+    }
+
+
+    /**
+     * Returns the absolute x-value the x-values of the DataSets are relative to, taken
+     * from the first DataSet. All DataSets of one chart should share it.
+     *
+     * @return
+     */
+    public double getXBase() {
+        BarEntrySet set = getDataSetByIndex(0);
+        return set == null ? 0d : set.getXBase();
+    }
+
+    /**
+     * Returns the size of one x-unit in absolute x-values, taken from the first DataSet.
+     *
+     * @return
+     */
+    public double getXUnit() {
+        BarEntrySet set = getDataSetByIndex(0);
+        return set == null ? 1d : set.getXUnit();
+    }
+
+
+    /**
+     * Returns the sum of the generations of all DataSets. Every modification of a
+     * DataSet increments its generation, so the sum changes with any of the values.
+     *
+     * @return
+     */
+    public int getGeneration() {
+        int generation = 0;
+        if (mDataSets != null) {
+            for (int i = 0; i < mDataSets.size(); i++) {
+                generation += mDataSets.get(i).getGeneration();
+            }
+        }
+        return generation;
+    }
+
     /**
      * returns the number of LineDataSets this object contains
      *
@@ -0,0 +1,287 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versioned binary snapshot of a BarData, used to save and restore a chart without
+ * parsing single entries. The reader does not copy the value columns: every DataSet
+ * is restored as a read-only MappedBarEntrySet over the snapshot buffer, so only
+ * what such a set can hold is written: stacked DataSets and color mappers are
+ * rejected with an IllegalArgumentException. Layout, little endian, every section
+ * 4-byte aligned:
+ * <pre>
+ * int   magic, version, dataSetCount
+ * float barWidth, xMin, xMax, yMin, yMax
+ * int   dataFlags, float groupSpace, barSpace (since version 3, see BarData.setGroupSpacing())
+ * per DataSet:
+ *   int   labelLength, byte label[labelLength] (UTF-8, padded to 4 bytes)
+ *   int   flags
+ *   float valueTextSize
+ *   double xBase, xUnit (since version 2, see BarEntrySet.getXBase())
+ *   int   colorCount, int colors[colorCount]
+ *   int   valueColorCount, int valueColors[valueColorCount]
+ *   int   entryColorCount, int entryColors[entryColorCount] (since version 3)
+ *   MappedBarEntrySet block (header, coarse x-index, x column, y column)
+ * </pre>
+ * <p>
+ * 柱状图数据的二进制快照 保存与恢复
+ */
+public class BarDataSnapshot {
+
+    /**
+     * "BDAT"
+     */
+    public static final int MAGIC = 0x42444154;
+
+    public static final int VERSION = 3;
+
+    public static final int FLAG_VISIBLE = 1;
+
+    public static final int FLAG_DRAW_VALUES = 1 << 1;
+
+    /**
+     * BarData flag: grouped layout
+     */
+    public static final int FLAG_GROUPED = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private BarDataSnapshot() {
+    }
+
+    /**
+     * Returns the number of bytes write() needs for the given BarData.
+     *
+     * @param data
+     * @return
+     */
+    public static int getEncodedSize(BarData data) {
+        int size = 11 * 4;
+        for (int i = 0; i < data.getDataSetCount(); i++) {
+            BarEntrySet set = data.getDataSetByIndex(i);
+            checkEncodable(set);
+            size += 4 + align(labelBytes(set).length);
+            size += 4 + 4;
+            size += 8 + 8;
+            size += 4 + set.mColors.length * 4;
+            size += 4 + set.mValueColors.length * 4;
+            size += 4 + (set.mEntryColors == null ? 0 : set.mEntryColors.length * 4);
+            size += MappedBarEntrySet.getEncodedSize(set.getEntryCount());
+        }
+        return size;
+    }
+
+    /**
+     * Writes the given BarData at the current position of the buffer and advances it
+     * by getEncodedSize(data). Throws an IllegalArgumentException before anything is
+     * written if a DataSet cannot be represented (stacked, or with a color mapper).
+     * <p>
+     * 写入快照
+     *
+     * @param data
+     * @param out
+     */
+    public static void write(BarData data, ByteBuffer out) {
+        for (int i = 0; i < data.getDataSetCount(); i++) {
+            checkEncodable(data.getDataSetByIndex(i));
+        }
+        ByteOrder order = out.order();
+        out.order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putInt(data.getDataSetCount());
+        out.putFloat(data.getBarWidth());
+        out.putFloat(data.getXMin());
+        out.putFloat(data.getXMax());
+        out.putFloat(data.getYMin());
+        out.putFloat(data.getYMax());
+        out.putInt(data.isGrouped() ? FLAG_GROUPED : 0);
+        out.putFloat(data.getGroupSpace());
+        out.putFloat(data.getBarSpace());
+
+        for (int i = 0; i < data.getDataSetCount(); i++) {
+            BarEntrySet set = data.getDataSetByIndex(i);
+            byte[] label = labelBytes(set);
+            out.putInt(label.length);
+            out.put(label);
+            for (int p = label.length; p < align(label.length); p++) {
+                out.put((byte) 0);
+            }
+            int flags = 0;
+            if (set.isVisible()) flags |= FLAG_VISIBLE;
+            if (set.isDrawValuesEnabled()) flags |= FLAG_DRAW_VALUES;
+            out.putInt(flags);
+            out.putFloat(set.getValueTextSize());
+            out.putDouble(set.getXBase());
+            out.putDouble(set.getXUnit());
+            putColors(out, set.mColors);
+            putColors(out, set.mValueColors);
+            putColors(out, set.mEntryColors == null ? new int[0] : set.mEntryColors);
+            MappedBarEntrySet.encode(out, set);
+        }
+        out.order(order);
+    }
+
+    /**
+     * Writes the given BarData to a file that read(File) can map.
+     *
+     * @param data
+     * @param file
+     * @throws IOException
+     */
+    public static void write(BarData data, File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            int size = getEncodedSize(data);
+            raf.setLength(size);
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            write(data, buffer);
+            buffer.force();
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Restores a BarData from the snapshot at the current position of the buffer and
+     * advances it past the snapshot. The value columns are not copied, the buffer
+     * must not be modified while the BarData is in use. Copy a DataSet into a
+     * ColumnarBarEntrySet if it has to be edited.
+     * <p>
+     * 读取快照
+     *
+     * @param in
+     * @return
+     */
+    public static BarData read(ByteBuffer in) {
+        ByteOrder order = in.order();
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IllegalArgumentException("not a BarData snapshot");
+            }
+            int version = in.getInt();
+            // version 1 has no x-base, its x-values are absolute; version 2 no group layout and entry colors
+            if (version < 1 || version > VERSION) {
+                throw new IllegalArgumentException("unsupported snapshot version " + version);
+            }
+            int dataSetCount = in.getInt();
+            float barWidth = in.getFloat();
+            // the BarData extremes are derived from the DataSet headers again, which is O(DataSets)
+            in.position(in.position() + 4 * 4);
+            int dataFlags = 0;
+            float groupSpace = 0f;
+            float barSpace = 0f;
+            if (version >= 3) {
+                dataFlags = in.getInt();
+                groupSpace = in.getFloat();
+                barSpace = in.getFloat();
+            }
+
+            List<BarEntrySet> sets = new ArrayList<BarEntrySet>(dataSetCount);
+            for (int i = 0; i < dataSetCount; i++) {
+                byte[] label = new byte[in.getInt()];
+                in.get(label);
+                in.position(in.position() + align(label.length) - label.length);
+                int flags = in.getInt();
+                float valueTextSize = in.getFloat();
+                double xBase = 0d;
+                double xUnit = 1d;
+                if (version >= 2) {
+                    xBase = in.getDouble();
+                    xUnit = in.getDouble();
+                }
+                int[] colors = getColors(in);
+                int[] valueColors = getColors(in);
+                int[] entryColors = version >= 3 ? getColors(in) : null;
+
+                MappedBarEntrySet set = new MappedBarEntrySet(in, new String(label, UTF_8));
+                in.position(in.position() + MappedBarEntrySet.getEncodedSize(set.getEntryCount()));
+
+                set.mVisible = (flags & FLAG_VISIBLE) != 0;
+                set.setDrawValues((flags & FLAG_DRAW_VALUES) != 0);
+                set.setValueTextSize(valueTextSize);
+                set.mColors = colors;
+                set.mValueColors = valueColors;
+                set.mEntryColors = entryColors == null || entryColors.length == 0 ? null : entryColors;
+                set.mXBase = xBase;
+                set.mXUnit = xUnit;
+                sets.add(set);
+            }
+
+            BarData data = new BarData(sets);
+            data.setBarWidth(barWidth);
+            data.setGroupSpacing(groupSpace, barSpace);
+            data.setGrouped((dataFlags & FLAG_GROUPED) != 0);
+            return data;
+        } finally {
+            in.order(order);
+        }
+    }
+
+    /**
+     * Maps the given snapshot file read-only and restores the BarData from it.
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static BarData read(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            raf.close();
+        }
+    }
+
+
+    /**
+     * Throws if the snapshot cannot represent the given DataSet: the restored
+     * MappedBarEntrySet has no stack segments, and a color mapper is code, not data.
+     *
+     * @param set
+     */
+    private static void checkEncodable(BarEntrySet set) {
+        if (set instanceof StackedBarEntrySet) {
+            throw new IllegalArgumentException("DataSet \"" + set.getLabel() + "\" is stacked, snapshots hold one value per entry");
+        }
+        if (set.mColorMapper != null) {
+            throw new IllegalArgumentException("DataSet \"" + set.getLabel() + "\" has a color mapper, which cannot be saved in a snapshot");
+        }
+    }
+
+    private static byte[] labelBytes(BarEntrySet set) {
+        String label = set.getLabel();
+        return label == null ? new byte[0] : label.getBytes(UTF_8);
+    }
+
+    private static int align(int length) {
+        return (length + 3) & ~3;
+    }
+
+    private static void putColors(ByteBuffer out, int[] colors) {
+        out.putInt(colors.length);
+        for (int i = 0; i < colors.length; i++) {
+            out.putInt(colors[i]);
+        }
+    }
+
+    private static int[] getColors(ByteBuffer in) {
+        int[] colors = new int[in.getInt()];
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = in.getInt();
+        }
+        return colors;
+    }
+}
@@ -1,10 +1,13 @@
 
 package com.github.mikephil.charting.aaa.model.bar;
 
-import android.graphics.Color;
 
+import com.github.mikephil.charting.aaa.color.IBarColorMapper;
+import com.github.mikephil.charting.aaa.formatter.DefaultValueTextFormatter;
 import com.github.mikephil.charting.aaa.formatter.IValueFormatter;
+import com.github.mikephil.charting.aaa.formatter.IValueTextFormatter;
 import com.github.mikephil.charting.aaa.utils.MPPointF;
+import com.github.mikephil.charting.aaa.utils.MinMaxSegmentTree;
 import com.github.mikephil.charting.aaa.utils.ViewPort;
 
 import java.util.ArrayList;
@@ -15,6 +18,11 @@ import java.util.List;
  */
 public class BarEntrySet {
 
+    /**
+     * default bar color, rgb(140, 234, 255), written out so the model needs no Android classes
+     */
+    public static final int DEFAULT_COLOR = 0xFF8CEAFF;
+
 
     /**
      * label that describes the DataSet or the data the DataSet represents
@@ -23,18 +31,31 @@ public class BarEntrySet {
 
 
     /**
-     * List representing all colors that are used for this DataSet
+     * palette of the colors that are used for this DataSet, entry i uses
+     * mColors[i % mColors.length]
      * <p>
      * 柱状图的颜色数组
      */
-    protected List<Integer> mColors = null;
+    protected int[] mColors = null;
 
     /**
-     * List representing all colors that are used for drawing the actual values for this DataSet
+     * palette of the colors that are used for drawing the actual values for this DataSet
      * <p>
      * 柱状图上的文字颜色
      */
-    protected List<Integer> mValueColors = null;
+    protected int[] mValueColors = null;
+
+    /**
+     * optional color column, entry i uses mEntryColors[i] instead of the palette
+     * <p>
+     * 每个数据点的颜色
+     */
+    protected int[] mEntryColors = null;
+
+    /**
+     * optional value-to-color function, takes precedence over mEntryColors and mColors
+     */
+    protected IBarColorMapper mColorMapper = null;
 
 
     /**
@@ -44,6 +65,11 @@ public class BarEntrySet {
      */
     protected List<BarEntry> mValues = null;
 
+    /**
+     * flyweight entry returned by getEntryView(), rewritten on every call
+     */
+    private final BarEntry mEntryView = new BarEntry(0f, 0f);
+
     /**
      * 取出坐标点里边最大的值
      * maximum y-value in the value array
@@ -68,6 +94,74 @@ public class BarEntrySet {
      */
     protected float mXMin = Float.MAX_VALUE;
 
+    /**
+     * set when an extreme value was removed or replaced, the min / max values are
+     * then recalculated lazily on the next access
+     * <p>
+     * 最大值、最小值需要重新计算
+     */
+    protected boolean mMinMaxDirty = false;
+
+    /**
+     * true if the x-values are in ascending order, only meaningful while
+     * mSortedXValid is set
+     * <p>
+     * X 是否从小到大排列
+     */
+    protected boolean mSortedX = true;
+
+    /**
+     * false if the sort order of the x-values is unknown and has to be rechecked
+     */
+    protected boolean mSortedXValid = false;
+
+    /**
+     * optional index for min / max queries over an entry index range, null if disabled
+     * <p>
+     * 区间最大值、最小值的索引
+     */
+    protected MinMaxSegmentTree mRangeIndex = null;
+
+    /**
+     * set when the range index no longer matches the values and has to be rebuilt
+     */
+    protected boolean mRangeIndexDirty = false;
+
+    /**
+     * optional level-of-detail pyramid used when zoomed out, null if disabled
+     * <p>
+     * 多分辨率聚合金字塔
+     */
+    protected BarLodPyramid mLodPyramid = null;
+
+    /**
+     * set by freeze(), the values can no longer be modified
+     */
+    protected volatile boolean mFrozen = false;
+
+    /**
+     * incremented on every modification of the values, lets caches detect changes
+     * <p>
+     * 数据的版本号
+     */
+    protected int mGeneration = 0;
+
+    /**
+     * nesting depth of beginUpdate() calls, changes are only recorded while &gt; 0
+     */
+    protected int mUpdateDepth = 0;
+
+    /**
+     * number of entries added, changed or removed since the outermost beginUpdate()
+     */
+    protected int mChangedCount = 0;
+
+    /**
+     * index range [mDirtyFrom, mDirtyTo) touched since the outermost beginUpdate()
+     */
+    protected int mDirtyFrom = Integer.MAX_VALUE;
+    protected int mDirtyTo = 0;
+
 
     /**
      * flag that indicates if the DataSet is visible or not
@@ -93,11 +187,36 @@ public class BarEntrySet {
      */
     protected transient IValueFormatter mValueFormatter;
 
+    /**
+     * String adapter of the default formatter, returned while no formatter was set
+     */
+    private transient IValueFormatter mDefaultValueFormatter;
+
+    /**
+     * allocation-free formatter, used instead of mValueFormatter if set
+     */
+    protected transient IValueTextFormatter mValueTextFormatter;
+
     /**
      * the offset for drawing icons (in dp)
      */
     protected MPPointF mIconsOffset = new MPPointF();
 
+    /**
+     * the stored (float) x-values are relative to this base: the absolute x-value of
+     * entry i is mXBase + getXForIndex(i) * mXUnit. Keeps e.g. epoch timestamps
+     * precise while everything downstream works on small floats.
+     * <p>
+     * X的基准值
+     */
+    protected double mXBase = 0d;
+
+    /**
+     * size of one stored x-unit in absolute x-values, e.g. 1000 for seconds over
+     * epoch milliseconds
+     */
+    protected double mXUnit = 1d;
+
 
     /**
      * Creates a new DataSet object with the given values (entries) it represents. Also, a
@@ -110,6 +229,7 @@ public class BarEntrySet {
     public BarEntrySet(List<BarEntry> values, String label) {
         this();
         this.mLabel = label;
+        checkEntries(values);
         this.mValues = values;
         // 创建数组
         if (mValues == null) {
@@ -123,17 +243,22 @@ public class BarEntrySet {
      * Default constructor.
      */
     public BarEntrySet() {
-        //
-        mColors = new ArrayList<Integer>();
-        mValueColors = new ArrayList<Integer>();
-
         // 柱状图的颜色数组 default color
-        mColors.add(Color.rgb(140, 234, 255));
+        mColors = new int[]{DEFAULT_COLOR};
         // 柱状图上的文字颜色 默认颜色
-        mValueColors.add(Color.BLACK);
+        mValueColors = new int[]{0xFF000000};
     }
 
 
+    /**
+     * Returns the label that describes this DataSet.
+     *
+     * @return
+     */
+    public String getLabel() {
+        return mLabel;
+    }
+
     /**
      * 获取数据点的个数
      *
@@ -162,7 +287,10 @@ public class BarEntrySet {
      * @return
      */
     public void setValues(List<BarEntry> values) {
+        checkEditable();
+        checkEntries(values);
         mValues = values;
+        onValuesReplaced();
         calcMinMax();
     }
 
@@ -172,6 +300,9 @@ public class BarEntrySet {
      * @return
      */
     public float getYMin() {
+        if (mMinMaxDirty) {
+            calcMinMax();
+        }
         return mYMin;
     }
 
@@ -181,6 +312,9 @@ public class BarEntrySet {
      * @return
      */
     public float getYMax() {
+        if (mMinMaxDirty) {
+            calcMinMax();
+        }
         return mYMax;
     }
 
@@ -190,6 +324,9 @@ public class BarEntrySet {
      * @return
      */
     public float getXMin() {
+        if (mMinMaxDirty) {
+            calcMinMax();
+        }
         return mXMin;
     }
 
@@ -199,29 +336,174 @@ public class BarEntrySet {
      * @return
      */
     public float getXMax() {
+        if (mMinMaxDirty) {
+            calcMinMax();
+        }
         return mXMax;
     }
 
+    /**
+     * Returns the absolute x-value the stored x-values are relative to, 0 unless
+     * this is a time series.
+     *
+     * @return
+     */
+    public double getXBase() {
+        return mXBase;
+    }
+
+    /**
+     * Returns the size of one stored x-unit in absolute x-values, 1 unless this is a
+     * time series.
+     *
+     * @return
+     */
+    public double getXUnit() {
+        return mXUnit;
+    }
+
+    /**
+     * Converts a stored (relative) x-value into the absolute x-value.
+     *
+     * @param x
+     * @return
+     */
+    public double toAbsoluteX(float x) {
+        return mXBase + x * mXUnit;
+    }
+
+    /**
+     * Converts an absolute x-value into the stored (relative) x-value.
+     *
+     * @param x
+     * @return
+     */
+    public float toRelativeX(double x) {
+        return (float) ((x - mXBase) / mXUnit);
+    }
+
 
     public BarEntry getEntryForIndex(int index) {
         return mValues.get(index);
     }
 
+    /**
+     * Returns the x-value of the entry at the given index without going through
+     * the BarEntry object. Subclasses with primitive storage override this.
+     *
+     * @param index
+     * @return
+     */
+    public float getXForIndex(int index) {
+        return mValues.get(index).getX();
+    }
 
     /**
-     * 根据数据计算X、Y最大与最小值
+     * Returns the y-value of the entry at the given index without going through
+     * the BarEntry object. Subclasses with primitive storage override this.
+     *
+     * @param index
+     * @return
      */
-    public void calcMinMax() {
+    public float getYForIndex(int index) {
+        return mValues.get(index).getY();
+    }
 
-        if (mValues == null || mValues.isEmpty()) {
-            return;
+    /**
+     * Returns a flyweight view of the entry at the given index, filled from
+     * getXForIndex() / getYForIndex(). The returned object is reused by the next call,
+     * copy it if it needs to be kept. Subclasses with primitive storage return it from
+     * getEntryForIndex().
+     *
+     * @param index
+     * @return
+     */
+    protected BarEntry getEntryView(int index) {
+        mEntryView.setX(getXForIndex(index));
+        mEntryView.setY(getYForIndex(index));
+        return mEntryView;
+    }
+
+    /**
+     * Returns a newly created list with one BarEntry per value, read through
+     * getXForIndex() / getYForIndex(). This allocates, subclasses with primitive
+     * storage return it from getValues().
+     *
+     * @return
+     */
+    protected List<BarEntry> copyValues() {
+        int count = getEntryCount();
+        List<BarEntry> values = new ArrayList<BarEntry>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(new BarEntry(getXForIndex(i), getYForIndex(i)));
+        }
+        return values;
+    }
+
+    /**
+     * Returns the capacity a column grows to when it has to hold at least the given
+     * number of values: by half of the current capacity, which keeps appends
+     * amortized O(1).
+     *
+     * @param current  current capacity
+     * @param capacity required capacity
+     * @return
+     */
+    protected static int grownCapacity(int current, int capacity) {
+        return Math.max(capacity, current + (current >> 1));
+    }
+
+    /**
+     * Returns a column of the given capacity holding the first used values of the
+     * given one, which may be null.
+     * <p>
+     * 数组扩容
+     *
+     * @param column
+     * @param capacity
+     * @param used
+     * @return
+     */
+    protected static float[] growColumn(float[] column, int capacity, int used) {
+        float[] result = new float[capacity];
+        if (column != null) {
+            System.arraycopy(column, 0, result, 0, used);
         }
+        return result;
+    }
+
+    protected static double[] growColumn(double[] column, int capacity, int used) {
+        double[] result = new double[capacity];
+        if (column != null) {
+            System.arraycopy(column, 0, result, 0, used);
+        }
+        return result;
+    }
+
+    protected static int[] growColumn(int[] column, int capacity, int used) {
+        int[] result = new int[capacity];
+        if (column != null) {
+            System.arraycopy(column, 0, result, 0, used);
+        }
+        return result;
+    }
+
+
+    /**
+     * 根据数据计算X、Y最大与最小值
+     */
+    public void calcMinMax() {
         // 最大数是一个无比小的值
         mYMax = -Float.MAX_VALUE;
         mYMin = Float.MAX_VALUE;
         // 最小值是一个无比大的值
         mXMax = -Float.MAX_VALUE;
         mXMin = Float.MAX_VALUE;
+        mMinMaxDirty = false;
+
+        if (mValues == null || mValues.isEmpty()) {
+            return;
+        }
         //
         for (BarEntry e : mValues) {
             calcMinMax(e);
@@ -235,129 +517,1095 @@ public class BarEntrySet {
      * @param e
      */
     protected void calcMinMax(BarEntry e) {
-        if (e != null && !Float.isNaN(e.getY())) {
-
-            //XXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX
-            // 取出坐标点里边最小的值
-            if (e.getX() < mXMin) {
-                mXMin = e.getX();
-            }
-            // 取出坐标点里边最大的值
-            if (e.getX() > mXMax) {
-                mXMax = e.getX();
-            }
-
-            //YYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYY
-            // 取出坐标点里边最小的值
-            if (e.getY() < mYMin) {
-                mYMin = e.getY();
-            }
-            // 取除坐标点里边最大的值
-            if (e.getY() > mYMax) {
-                mYMax = e.getY();
-            }
+        if (e != null) {
+            calcMinMax(e.getX(), e.getY());
         }
     }
 
-
     /**
-     * ###### ###### COLOR GETTING RELATED METHODS ##### ######
+     * 取出坐标点里边最小的值
+     * 取除坐标点里边最大的值
+     *
+     * @param x
+     * @param y
      */
+    protected void calcMinMax(float x, float y) {
+        if (Float.isNaN(y)) {
+            return;
+        }
+        //XXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX
+        // 取出坐标点里边最小的值
+        if (x < mXMin) {
+            mXMin = x;
+        }
+        // 取出坐标点里边最大的值
+        if (x > mXMax) {
+            mXMax = x;
+        }
 
-    public List<Integer> getColors() {
-        return mColors;
+        //YYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYY
+        // 取出坐标点里边最小的值
+        if (y < mYMin) {
+            mYMin = y;
+        }
+        // 取除坐标点里边最大的值
+        if (y > mYMax) {
+            mYMax = y;
+        }
     }
 
 
-    public int getColor() {
-        return mColors.get(0);
+    /**
+     * Call this after BarEntry objects of this DataSet were modified in place, e.g.
+     * getValues().get(i).setY(...): rescans the min / max values and invalidates all
+     * state derived from the values, including the pixels cached by the renderer.
+     * A frozen DataSet can not have changed, its resolved state is kept.
+     */
+    public void notifyDataSetChanged() {
+        if (mFrozen) {
+            return;
+        }
+        checkEntries(mValues);
+        onValuesReplaced();
+        calcMinMax();
     }
 
-    public int getColor(int index) {
-        return mColors.get(index % mColors.size());
+    /**
+     * Throws if the list contains null. The entries are read by index on every
+     * frame, a null entry would fail later while drawing.
+     *
+     * @param values may be null
+     */
+    protected void checkEntries(List<BarEntry> values) {
+        if (values == null) {
+            return;
+        }
+        for (int i = 0, count = values.size(); i < count; i++) {
+            if (values.get(i) == null) {
+                throw new IllegalArgumentException("DataSet \"" + mLabel + "\" contains a null entry at index " + i);
+            }
+        }
     }
 
+    /**
+     * Called after the values were replaced as a whole (setValues(), clear(), ...).
+     * Derived state that cannot be patched incrementally is rebuilt lazily.
+     */
+    protected void onValuesReplaced() {
+        markChanged(0, getEntryCount());
+        markShifted();
+        mSortedXValid = false;
+        mRangeIndexDirty = true;
+        invalidateLodPyramid();
+    }
 
     /**
-     * Sets the one and ONLY color that should be used for this DataSet.
-     * Internally, this recreates the colors array and adds the specified color.
-     * <p>
-     * 设置柱状图的颜色
+     * Called after a value was appended. Extends the min / max values in O(1).
      *
-     * @param color
+     * @param x
+     * @param y
      */
-    public void setColor(int color) {
-        resetColors();
-        mColors.add(color);
+    protected void onValueAdded(float x, float y) {
+        markChanged(getEntryCount() - 1, getEntryCount());
+        updateRangeIndex(getEntryCount() - 1, y);
+        if (mLodPyramid != null) {
+            mLodPyramid.onEntryAppended(x, y);
+        }
+        if (mSortedXValid && mSortedX) {
+            int count = getEntryCount();
+            if (count > 1 && getXForIndex(count - 2) > x) {
+                mSortedX = false;
+            }
+        }
+        if (!mMinMaxDirty) {
+            calcMinMax(x, y);
+        }
     }
 
     /**
-     * Resets all colors of this DataSet and recreates the colors array.
+     * Called after the value at an index was replaced. The min / max values are only
+     * rescanned (lazily) if the old value was an extreme that the new value does not
+     * reach anymore.
+     *
+     * @param index
+     * @param oldX
+     * @param oldY
+     * @param newX
+     * @param newY
      */
-    public void resetColors() {
-        if (mColors == null) {
-            mColors = new ArrayList<Integer>();
+    protected void onValueChanged(int index, float oldX, float oldY, float newX, float newY) {
+        markChanged(index, index + 1);
+        if (oldX != newX) {
+            onXChanged(index, newX);
         }
-        mColors.clear();
+        updateRangeIndex(index, newY);
+        if (mLodPyramid != null) {
+            mLodPyramid.onEntryChanged(index);
+        }
+        if (mMinMaxDirty) {
+            return;
+        }
+        if (!Float.isNaN(oldY)) {
+            if ((oldX == mXMin && !(newX <= oldX))
+                    || (oldX == mXMax && !(newX >= oldX))
+                    || (oldY == mYMin && !(newY <= oldY))
+                    || (oldY == mYMax && !(newY >= oldY))) {
+                mMinMaxDirty = true;
+                return;
+            }
+        }
+        calcMinMax(newX, newY);
     }
 
     /**
-     * ###### ###### 柱状图上的文字颜色 ##### ######
+     * Called after a value was removed. If it was one of the extremes, the min / max
+     * values are rescanned lazily on the next access.
+     *
+     * @param index the index the value had
+     * @param x
+     * @param y
      */
+    protected void onValueRemoved(int index, float x, float y) {
+        // the following indices shifted
+        markChanged(index, index + 1);
+        markShifted();
+        mRangeIndexDirty = true;
+        invalidateLodPyramid();
+        // removing keeps sorted values sorted, unsorted ones may have become sorted
+        if (mSortedXValid && !mSortedX) {
+            mSortedXValid = false;
+        }
+        if (Float.isNaN(y)) {
+            return;
+        }
+        if (x == mXMin || x == mXMax || y == mYMin || y == mYMax) {
+            mMinMaxDirty = true;
+        }
+    }
+
 
     /**
-     * 柱状图上的文字颜色
+     * Keeps the sort order flag up to date after the x-value at index changed,
+     * only the direct neighbours have to be checked.
      *
-     * @param color
+     * @param index
+     * @param x the new x-value
      */
-    public void setValueTextColor(int color) {
-        mValueColors.clear();
-        mValueColors.add(color);
+    protected void onXChanged(int index, float x) {
+        if (!mSortedXValid) {
+            return;
+        }
+        if (!mSortedX) {
+            mSortedXValid = false;
+            return;
+        }
+        if ((index > 0 && getXForIndex(index - 1) > x)
+                || (index < getEntryCount() - 1 && getXForIndex(index + 1) < x)) {
+            mSortedX = false;
+        }
     }
 
-    public int getValueTextColor(int index) {
-        return mValueColors.get(index % mValueColors.size());
-    }
 
     /**
-     * ###### ###### 绘制柱状图的Value ##### ######
+     * ###### ###### X 排序与二分查找 ##### ######
      */
 
     /**
-     * // 绘制柱状图的Value
-     *
-     * @param enabled
+     * Determines how to round a x-value that lies between two entries.
      */
-    public void setDrawValues(boolean enabled) {
-        this.mDrawValues = enabled;
+    public enum Rounding {
+        UP,
+        DOWN,
+        CLOSEST,
     }
 
-    public boolean isDrawValuesEnabled() {
-        return mDrawValues;
+    /**
+     * Returns true if the x-values of this DataSet are in ascending order. Only then
+     * the lookups below use a binary search, otherwise they scan all entries.
+     * The order is tracked on every mutation and only rechecked after bulk changes.
+     *
+     * @return
+     */
+    public boolean isSortedX() {
+        if (!mSortedXValid) {
+            mSortedX = true;
+            int count = getEntryCount();
+            for (int i = 1; i < count; i++) {
+                if (getXForIndex(i - 1) > getXForIndex(i)) {
+                    mSortedX = false;
+                    break;
+                }
+            }
+            mSortedXValid = true;
+        }
+        return mSortedX;
     }
 
-
     /**
-     * ###### ###### setValueFormatter ##### ######
+     * Returns the index of the first entry whose x-value is &gt;= xValue, or
+     * getEntryCount() if there is none. Requires isSortedX().
+     *
+     * @param xValue
+     * @return
      */
+    protected int lowerBoundX(float xValue) {
+        int low = 0;
+        int high = getEntryCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getXForIndex(mid) < xValue) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
 
-    public void setValueFormatter(IValueFormatter f) {
-        if (f != null) {
-            mValueFormatter = f;
+    /**
+     * Returns the index of the first entry whose x-value is &gt; xValue, or
+     * getEntryCount() if there is none. Requires isSortedX().
+     *
+     * @param xValue
+     * @return
+     */
+    protected int upperBoundX(float xValue) {
+        int low = 0;
+        int high = getEntryCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getXForIndex(mid) <= xValue) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
+        return low;
     }
 
-    public IValueFormatter getValueFormatter() {
-        if (needsFormatter()) {
-            mValueFormatter = new IValueFormatter() {
-                @Override
-                public String getFormattedValue(float v, BarEntry entry, int i, ViewPort viewPortHandler) {
-                    return entry.getY() + "";
+    /**
+     * Returns the index of the entry closest to the given x-value, -1 if the DataSet
+     * is empty. With Rounding.UP the first entry at or after xValue is returned, with
+     * Rounding.DOWN the last entry at or before it; both are clamped to the valid
+     * index range. O(log n) for sorted x-values.
+     * <p>
+     * 根据X值查找数据点的下标
+     *
+     * @param xValue
+     * @param rounding
+     * @return
+     */
+    public int getEntryIndexForX(float xValue, Rounding rounding) {
+        int count = getEntryCount();
+        if (count == 0) {
+            return -1;
+        }
+        if (!isSortedX()) {
+            return scanEntryIndexForX(xValue, rounding);
+        }
+        switch (rounding) {
+            case UP:
+                return Math.min(lowerBoundX(xValue), count - 1);
+            case DOWN:
+                return Math.max(upperBoundX(xValue) - 1, 0);
+            default:
+                int i = lowerBoundX(xValue);
+                if (i == count) {
+                    return count - 1;
                 }
-            };
+                if (i > 0 && xValue - getXForIndex(i - 1) <= getXForIndex(i) - xValue) {
+                    return i - 1;
+                }
+                return i;
+        }
+    }
+
+    /**
+     * Linear fallback of getEntryIndexForX() for unsorted x-values.
+     */
+    private int scanEntryIndexForX(float xValue, Rounding rounding) {
+        int closest = 0;
+        int up = -1;
+        int down = -1;
+        for (int i = 0; i < getEntryCount(); i++) {
+            float x = getXForIndex(i);
+            if (Math.abs(x - xValue) < Math.abs(getXForIndex(closest) - xValue)) {
+                closest = i;
+            }
+            if (x >= xValue && (up < 0 || x < getXForIndex(up))) {
+                up = i;
+            }
+            if (x <= xValue && (down < 0 || x > getXForIndex(down))) {
+                down = i;
+            }
+        }
+        if (rounding == Rounding.UP && up >= 0) {
+            return up;
+        }
+        if (rounding == Rounding.DOWN && down >= 0) {
+            return down;
+        }
+        return closest;
+    }
+
+    /**
+     * Looks up the index range of the entries with xMin &lt;= x &lt;= xMax. The result
+     * is written to range as [from, to) so that nothing is allocated per frame. For
+     * unsorted x-values the whole DataSet is returned.
+     * <p>
+     * 可见区域内数据点的下标范围
+     *
+     * @param xMin
+     * @param xMax
+     * @param range int[2], receives from (inclusive) and to (exclusive)
+     */
+    public void getVisibleRange(float xMin, float xMax, int[] range) {
+        if (!isSortedX()) {
+            range[0] = 0;
+            range[1] = getEntryCount();
+            return;
+        }
+        range[0] = lowerBoundX(xMin);
+        range[1] = Math.max(range[0], upperBoundX(xMax));
+    }
+
+
+    /**
+     * ###### ###### 区间最大值、最小值 ##### ######
+     */
+
+    /**
+     * Enables an index (segment tree) that answers min / max queries over an entry
+     * index range in O(log n) and is updated in O(log n) on every point edit.
+     * Without it getYMinMaxInRange() scans the range. Costs two floats per entry
+     * (rounded up to a power of two).
+     *
+     * @param enabled
+     */
+    public void setRangeIndexEnabled(boolean enabled) {
+        if (enabled && mRangeIndex == null) {
+            mRangeIndex = new MinMaxSegmentTree(0);
+            mRangeIndexDirty = true;
+        } else if (!enabled) {
+            mRangeIndex = null;
+        }
+    }
+
+    public boolean isRangeIndexEnabled() {
+        return mRangeIndex != null;
+    }
+
+    /**
+     * Returns the number of positions the range index covers. Storage that is not
+     * addressed by entry index (e.g. a ring buffer) overrides this together with
+     * getRangeIndexValue() and queryRangeIndex().
+     *
+     * @return
+     */
+    protected int getRangeIndexSize() {
+        return getEntryCount();
+    }
+
+    /**
+     * Returns the y-value stored at the given range index position.
+     *
+     * @param position
+     * @return
+     */
+    protected float getRangeIndexValue(int position) {
+        return getYForIndex(position);
+    }
+
+    /**
+     * Folds the min / max of the entries [from, to) into minMax using the range index.
+     *
+     * @param from
+     * @param to
+     * @param minMax
+     */
+    protected void queryRangeIndex(int from, int to, float[] minMax) {
+        mRangeIndex.query(from, to, minMax);
+    }
+
+    /**
+     * Writes a changed y-value into the range index, if there is one. If the index
+     * is too small it is marked for a rebuild with doubled capacity.
+     *
+     * @param position
+     * @param y
+     */
+    protected void updateRangeIndex(int position, float y) {
+        if (mRangeIndex == null || mRangeIndexDirty) {
+            return;
+        }
+        if (!mRangeIndex.update(position, y)) {
+            mRangeIndexDirty = true;
+        }
+    }
+
+    private void buildRangeIndex() {
+        int size = getRangeIndexSize();
+        // leave room to append without an immediate rebuild
+        mRangeIndex.reset(size + 1);
+        for (int i = 0; i < size; i++) {
+            mRangeIndex.setLeaf(i, getRangeIndexValue(i));
+        }
+        mRangeIndex.buildParents();
+        mRangeIndexDirty = false;
+    }
+
+    /**
+     * Calculates the minimum and maximum y-value of the entries [from, to) and writes
+     * them to minMax as {min, max}. NaN values are skipped, an empty range yields
+     * {Float.MAX_VALUE, -Float.MAX_VALUE}.
+     * <p>
+     * 计算下标区间内Y的最大值、最小值
+     *
+     * @param from   first entry index (inclusive)
+     * @param to     last entry index (exclusive)
+     * @param minMax float[2]
+     */
+    public void getYMinMaxInRange(int from, int to, float[] minMax) {
+        minMax[0] = Float.MAX_VALUE;
+        minMax[1] = -Float.MAX_VALUE;
+        from = Math.max(from, 0);
+        to = Math.min(to, getEntryCount());
+        if (from >= to) {
+            return;
+        }
+        if (mRangeIndex != null) {
+            if (mRangeIndexDirty) {
+                buildRangeIndex();
+            }
+            queryRangeIndex(from, to, minMax);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            float y = getYForIndex(i);
+            if (y < minMax[0]) minMax[0] = y;
+            if (y > minMax[1]) minMax[1] = y;
+        }
+    }
+
+
+    /**
+     * ###### ###### 多分辨率聚合金字塔 ##### ######
+     */
+
+    /**
+     * Enables a level-of-detail pyramid for this DataSet. When zoomed out, the renderer
+     * draws the aggregated buckets of the level that matches the current scale instead
+     * of the individual entries. Appends and updates patch the pyramid in O(log n),
+     * removals rebuild it lazily.
+     *
+     * @param enabled
+     * @param factor  reduction per level, 2 or 4
+     */
+    public void setLodEnabled(boolean enabled, int factor) {
+        if (!enabled) {
+            mLodPyramid = null;
+        } else if (mLodPyramid == null || mLodPyramid.getFactor() != factor) {
+            mLodPyramid = new BarLodPyramid(this, factor);
+        }
+    }
+
+    /**
+     * Enables a level-of-detail pyramid that merges 4 buckets per level.
+     *
+     * @param enabled
+     */
+    public void setLodEnabled(boolean enabled) {
+        setLodEnabled(enabled, 4);
+    }
+
+    public boolean isLodEnabled() {
+        return mLodPyramid != null;
+    }
+
+    /**
+     * Returns the level-of-detail pyramid, null if it is not enabled.
+     *
+     * @return
+     */
+    public BarLodPyramid getLodPyramid() {
+        return mLodPyramid;
+    }
+
+    /**
+     * Marks the pyramid for a rebuild after a change it cannot patch.
+     */
+    protected void invalidateLodPyramid() {
+        if (mLodPyramid != null) {
+            mLodPyramid.invalidate();
+        }
+    }
+
+
+    /**
+     * ###### ###### 批量修改 ##### ######
+     */
+
+    /**
+     * Starts a batch of modifications. Until the matching endUpdate() the changed
+     * entries are only recorded (count and index range), the min / max values are
+     * resolved once at the end. Calls can be nested.
+     * <p>
+     * 开始批量修改
+     */
+    public void beginUpdate() {
+        if (mUpdateDepth++ == 0) {
+            mChangedCount = 0;
+            mDirtyFrom = Integer.MAX_VALUE;
+            mDirtyTo = 0;
+        }
+    }
+
+    /**
+     * Ends a batch of modifications started with beginUpdate(). The outermost call
+     * resolves the min / max values once if any change made them stale.
+     * <p>
+     * 结束批量修改
+     *
+     * @return the number of entries added, changed or removed during the batch
+     */
+    public int endUpdate() {
+        if (mUpdateDepth == 0) {
+            throw new IllegalStateException("endUpdate() without beginUpdate()");
+        }
+        if (--mUpdateDepth == 0 && mMinMaxDirty) {
+            calcMinMax();
+        }
+        return mChangedCount;
+    }
+
+    public boolean isUpdating() {
+        return mUpdateDepth > 0;
+    }
+
+    /**
+     * Returns the number of entries added, changed or removed in the current (or last)
+     * batch.
+     *
+     * @return
+     */
+    public int getChangedCount() {
+        return mChangedCount;
+    }
+
+    /**
+     * Returns the first entry index touched in the current (or last) batch, or
+     * Integer.MAX_VALUE if nothing changed.
+     *
+     * @return
+     */
+    public int getDirtyFrom() {
+        return mDirtyFrom;
+    }
+
+    /**
+     * Returns the end (exclusive) of the index range touched in the current (or last)
+     * batch, clamped to the entry count. Removals and bulk replacements extend it to
+     * the end, since all following indices shifted.
+     *
+     * @return
+     */
+    public int getDirtyTo() {
+        return Math.min(mDirtyTo, getEntryCount());
+    }
+
+    /**
+     * Returns the modification generation of the values. It changes whenever an
+     * entry is added, changed or removed, so a cache built for one generation is
+     * valid as long as the generation stays the same.
+     *
+     * @return
+     */
+    public int getGeneration() {
+        return mGeneration;
+    }
+
+    /**
+     * Called by every modification of the values: bumps the generation and, while a
+     * batch is open, records that the entries [from, to) were touched.
+     *
+     * @param from
+     * @param to
+     */
+    protected void markChanged(int from, int to) {
+        mGeneration++;
+        if (mUpdateDepth == 0 || from >= to) {
+            return;
+        }
+        mChangedCount += to - from;
+        if (from < mDirtyFrom) mDirtyFrom = from;
+        if (to > mDirtyTo) mDirtyTo = to;
+    }
+
+    /**
+     * Records that the indices of all entries may have shifted, which extends the
+     * dirty range to the end. Only while a batch is open.
+     */
+    protected void markShifted() {
+        if (mUpdateDepth == 0) {
+            return;
+        }
+        if (mDirtyFrom == Integer.MAX_VALUE) mDirtyFrom = 0;
+        mDirtyTo = Integer.MAX_VALUE;
+    }
+
+
+    /**
+     * ###### ###### 不可变快照 ##### ######
+     */
+
+    /**
+     * Makes the values of this DataSet immutable, every further mutation throws an
+     * IllegalStateException. All lazily derived state is resolved here (see
+     * resolve()), so a DataSet frozen on a worker thread is handed to the UI thread
+     * complete and its first frame builds nothing.
+     * <p>
+     * 冻结数据 之后只读
+     */
+    public void freeze() {
+        resolve();
+        mFrozen = true;
+    }
+
+    /**
+     * Resolves all lazily derived state now: the min / max values, the sort order and,
+     * if enabled, the range index and the level-of-detail pyramid. Otherwise they are
+     * built on first use, which is usually the first onDraw() after the data was set.
+     * <p>
+     * 提前计算延迟计算的状态
+     */
+    public void resolve() {
+        if (mMinMaxDirty) {
+            calcMinMax();
+        }
+        isSortedX();
+        if (mRangeIndex != null && mRangeIndexDirty) {
+            buildRangeIndex();
+        }
+        if (mLodPyramid != null) {
+            mLodPyramid.ensureBuilt();
+        }
+    }
+
+    public boolean isFrozen() {
+        return mFrozen;
+    }
+
+    /**
+     * Throws if the DataSet was frozen, called first by every mutation.
+     */
+    protected void checkMutable() {
+        if (mFrozen) {
+            throw new IllegalStateException("DataSet \"" + mLabel + "\" is frozen, modify a copy()");
+        }
+    }
+
+    /**
+     * Called first by setValues(), addEntry(), updateEntry(), removeEntry() and
+     * clear() of this class. Subclasses whose entries cannot be edited one by one
+     * override it to throw an UnsupportedOperationException instead of overriding
+     * every mutation.
+     */
+    protected void checkEditable() {
+        checkMutable();
+    }
+
+    /**
+     * Returns a mutable deep copy of this DataSet, including its styling.
+     * <p>
+     * 复制数据
+     *
+     * @return
+     */
+    public BarEntrySet copy() {
+        int count = getEntryCount();
+        List<BarEntry> values = new ArrayList<BarEntry>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(new BarEntry(getXForIndex(i), getYForIndex(i)));
+        }
+        BarEntrySet copy = new BarEntrySet(values, mLabel);
+        copyTo(copy);
+        return copy;
+    }
+
+    /**
+     * Copies the styling and the enabled indices of this DataSet to the given one.
+     *
+     * @param set
+     */
+    protected void copyTo(BarEntrySet set) {
+        set.mLabel = mLabel;
+        set.mColors = mColors.clone();
+        set.mValueColors = mValueColors.clone();
+        set.mEntryColors = mEntryColors == null ? null : mEntryColors.clone();
+        set.mColorMapper = mColorMapper;
+        set.mVisible = mVisible;
+        set.mDrawValues = mDrawValues;
+        set.mValueTextSize = mValueTextSize;
+        set.mValueFormatter = mValueFormatter;
+        set.mValueTextFormatter = mValueTextFormatter;
+        set.mIconsOffset = new MPPointF(mIconsOffset.x, mIconsOffset.y);
+        set.mXBase = mXBase;
+        set.mXUnit = mXUnit;
+        set.setRangeIndexEnabled(isRangeIndexEnabled());
+        if (mLodPyramid != null) {
+            set.setLodEnabled(true, mLodPyramid.getFactor());
+        }
+    }
+
+
+    /**
+     * ###### ###### 数据点的增删改 ##### ######
+     */
+
+    /**
+     * Adds an entry to the end of this DataSet and updates the min / max values in O(1).
+     * <p>
+     * 添加一个数据点
+     *
+     * @param e
+     */
+    public void addEntry(BarEntry e) {
+        checkEditable();
+        if (e == null) {
+            return;
+        }
+        if (mValues == null) {
+            mValues = new ArrayList<BarEntry>();
+        }
+        mValues.add(e);
+        onValueAdded(e.getX(), e.getY());
+    }
+
+    /**
+     * Adds a new entry with the given values to the end of this DataSet.
+     *
+     * @param x
+     * @param y
+     */
+    public void addEntry(float x, float y) {
+        addEntry(new BarEntry(x, y));
+    }
+
+    /**
+     * Replaces the y-value of the entry at the given index.
+     * <p>
+     * 修改一个数据点
+     *
+     * @param index
+     * @param y
+     */
+    public void updateEntry(int index, float y) {
+        updateEntry(index, getXForIndex(index), y);
+    }
+
+    /**
+     * Replaces the x- and y-value of the entry at the given index.
+     *
+     * @param index
+     * @param x
+     * @param y
+     */
+    public void updateEntry(int index, float x, float y) {
+        checkEditable();
+        BarEntry e = mValues.get(index);
+        float oldX = e.getX();
+        float oldY = e.getY();
+        e.setX(x);
+        e.setY(y);
+        onValueChanged(index, oldX, oldY, x, y);
+    }
+
+    /**
+     * Removes the entry at the given index.
+     * <p>
+     * 删除一个数据点
+     *
+     * @param index
+     * @return true if an entry was removed
+     */
+    public boolean removeEntry(int index) {
+        checkEditable();
+        if (index < 0 || index >= getEntryCount()) {
+            return false;
+        }
+        BarEntry e = mValues.remove(index);
+        onValueRemoved(index, e.getX(), e.getY());
+        return true;
+    }
+
+    /**
+     * Removes the first entry of this DataSet.
+     *
+     * @return true if an entry was removed
+     */
+    public boolean removeFirst() {
+        return removeEntry(0);
+    }
+
+    /**
+     * Removes the last entry of this DataSet.
+     *
+     * @return true if an entry was removed
+     */
+    public boolean removeLast() {
+        return removeEntry(getEntryCount() - 1);
+    }
+
+    /**
+     * Removes all entries of this DataSet.
+     */
+    public void clear() {
+        checkEditable();
+        markChanged(0, getEntryCount());
+        if (mValues != null) {
+            mValues.clear();
+        }
+        onValuesReplaced();
+        calcMinMax();
+    }
+
+
+    /**
+     * ###### ###### COLOR GETTING RELATED METHODS ##### ######
+     */
+
+    /**
+     * Returns the color palette of this DataSet. Do not modify.
+     *
+     * @return
+     */
+    public int[] getColors() {
+        return mColors;
+    }
+
+
+    public int getColor() {
+        return mColors[0];
+    }
+
+    /**
+     * Returns the palette color for the given index, the palette repeats.
+     *
+     * @param index
+     * @return
+     */
+    public int getColor(int index) {
+        return mColors[index % mColors.length];
+    }
+
+    /**
+     * Returns the color the entry at the given index is drawn with: the color of the
+     * color mapper if set, else the entry's color from the color column, else the
+     * palette color.
+     * <p>
+     * 数据点的颜色
+     *
+     * @param index
+     * @return
+     */
+    public int getEntryColor(int index) {
+        if (mColorMapper != null) {
+            return mColorMapper.getColor(getXForIndex(index), getYForIndex(index), index);
+        }
+        if (mEntryColors != null && index < mEntryColors.length) {
+            return mEntryColors[index];
+        }
+        return mColors[index % mColors.length];
+    }
+
+    /**
+     * Returns true if every entry is drawn with the same color.
+     *
+     * @return
+     */
+    public boolean isSingleColor() {
+        return mColors.length == 1 && mEntryColors == null && mColorMapper == null;
+    }
+
+
+    /**
+     * Sets the one and ONLY color that should be used for this DataSet.
+     * Internally, this recreates the colors array and adds the specified color.
+     * <p>
+     * 设置柱状图的颜色
+     *
+     * @param color
+     */
+    public void setColor(int color) {
+        mColors = new int[]{color};
+    }
+
+    /**
+     * Sets the color palette of this DataSet, entry i uses colors[i % colors.length].
+     * <p>
+     * 设置柱状图的颜色数组
+     *
+     * @param colors
+     */
+    public void setColors(int... colors) {
+        if (colors == null || colors.length == 0) {
+            throw new IllegalArgumentException("at least one color required");
+        }
+        mColors = colors.clone();
+    }
+
+    /**
+     * Resets all colors of this DataSet to the one default color and removes the
+     * color column and the color mapper.
+     */
+    public void resetColors() {
+        mColors = new int[]{DEFAULT_COLOR};
+        mEntryColors = null;
+        mColorMapper = null;
+    }
+
+    /**
+     * Sets a color column: entry i is drawn with colors[i], entries beyond its length
+     * use the palette. The array is used as is, not copied, so it can be updated in
+     * place together with the values. Pass null to remove it.
+     * <p>
+     * 设置每个数据点的颜色
+     *
+     * @param colors
+     */
+    public void setEntryColors(int[] colors) {
+        mEntryColors = colors;
+    }
+
+    public int[] getEntryColors() {
+        return mEntryColors;
+    }
+
+    /**
+     * Sets a function that computes the color of every bar from its value, e.g. a
+     * ThresholdColorMapper. Pass null to remove it.
+     *
+     * @param mapper
+     */
+    public void setColorMapper(IBarColorMapper mapper) {
+        mColorMapper = mapper;
+    }
+
+    public IBarColorMapper getColorMapper() {
+        return mColorMapper;
+    }
+
+    /**
+     * ###### ###### 柱状图上的文字颜色 ##### ######
+     */
+
+    /**
+     * 柱状图上的文字颜色
+     *
+     * @param color
+     */
+    public void setValueTextColor(int color) {
+        mValueColors = new int[]{color};
+    }
+
+    /**
+     * Sets the palette of the value text colors.
+     *
+     * @param colors
+     */
+    public void setValueTextColors(int... colors) {
+        if (colors == null || colors.length == 0) {
+            throw new IllegalArgumentException("at least one color required");
+        }
+        mValueColors = colors.clone();
+    }
+
+    public int[] getValueTextColors() {
+        return mValueColors;
+    }
+
+    public int getValueTextColor(int index) {
+        return mValueColors[index % mValueColors.length];
+    }
+
+    /**
+     * ###### ###### 绘制柱状图的Value ##### ######
+     */
+
+    /**
+     * // 绘制柱状图的Value
+     *
+     * @param enabled
+     */
+    public void setDrawValues(boolean enabled) {
+        this.mDrawValues = enabled;
+    }
+
+    public boolean isDrawValuesEnabled() {
+        return mDrawValues;
+    }
+
+
+    /**
+     * ###### ###### setValueFormatter ##### ######
+     */
+
+    public void setValueFormatter(IValueFormatter f) {
+        if (f != null) {
+            mValueFormatter = f;
+        }
+    }
+
+    /**
+     * Returns the formatter set with setValueFormatter(), else a String adapter of
+     * DefaultValueTextFormatter. The adapter is not stored as the set formatter, so
+     * reading it keeps the values on the allocation-free path.
+     *
+     * @return
+     */
+    public IValueFormatter getValueFormatter() {
+        if (!needsFormatter()) {
             return mValueFormatter;
         }
-        return mValueFormatter;
+        if (mDefaultValueFormatter == null) {
+            mDefaultValueFormatter = new IValueFormatter() {
+                // same output as the char[] default
+                private final char[] mChars = new char[IValueTextFormatter.MAX_LENGTH];
+
+                @Override
+                public String getFormattedValue(float v, BarEntry entry, int i, ViewPort viewPortHandler) {
+                    int length = DefaultValueTextFormatter.INSTANCE.format(entry.getY(), -1, i, mChars);
+                    return new String(mChars, 0, length);
+                }
+            };
+        }
+        return mDefaultValueFormatter;
+    }
+
+    /**
+     * Sets an allocation-free formatter for the drawn values, it takes precedence over
+     * the IValueFormatter. Pass null to remove it.
+     * <p>
+     * 设置不创建对象的数值格式化
+     *
+     * @param f
+     */
+    public void setValueTextFormatter(IValueTextFormatter f) {
+        mValueTextFormatter = f;
+    }
+
+    /**
+     * Returns the allocation-free formatter the values are drawn with: the one set,
+     * else DefaultValueTextFormatter as long as no IValueFormatter was set. Returns
+     * null if the values have to be formatted by getValueFormatter().
+     *
+     * @return
+     */
+    public IValueTextFormatter getValueTextFormatter() {
+        if (mValueTextFormatter != null) {
+            return mValueTextFormatter;
+        }
+        return needsFormatter() ? DefaultValueTextFormatter.INSTANCE : null;
     }
 
     public boolean needsFormatter() {
@@ -0,0 +1,177 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+/**
+ * Compares an old and a new BarEntrySet by x-value (the key of a bar) and classifies
+ * every bar: each entry of the new DataSet is UNCHANGED, MOVED (same value at another
+ * index), CHANGED (value differs) or INSERTED, each unmatched entry of the old one is
+ * removed. Both DataSets are walked once in x-order, O(n + m), the results are kept
+ * in primitive arrays that are reused by the next compute().
+ * <p>
+ * DataSets whose x-values are not sorted can not be matched by a merge, for them every
+ * new entry counts as inserted and every old one as removed.
+ * <p>
+ * 新旧数据的差异
+ */
+public class BarEntrySetDiff {
+
+    public static final byte UNCHANGED = 0;
+    public static final byte MOVED = 1;
+    public static final byte CHANGED = 2;
+    public static final byte INSERTED = 3;
+
+    /**
+     * per new entry: UNCHANGED, MOVED, CHANGED or INSERTED
+     */
+    private byte[] mStates = new byte[0];
+
+    /**
+     * per new entry: index of the matching old entry, -1 if inserted
+     */
+    private int[] mOldIndices = new int[0];
+
+    /**
+     * indices of the old entries without a match, ascending
+     */
+    private int[] mRemoved = new int[0];
+
+    private int mNewCount = 0;
+    private int mRemovedCount = 0;
+    private int mMovedCount = 0;
+    private int mChangedCount = 0;
+    private int mInsertedCount = 0;
+
+
+    /**
+     * Compares the two DataSets, old may be null (everything inserted).
+     * <p>
+     * 计算差异
+     *
+     * @param oldSet
+     * @param newSet
+     * @return this
+     */
+    public BarEntrySetDiff compute(BarEntrySet oldSet, BarEntrySet newSet) {
+        int oldCount = oldSet == null ? 0 : oldSet.getEntryCount();
+        int newCount = newSet.getEntryCount();
+        if (mStates.length < newCount) {
+            mStates = new byte[newCount];
+            mOldIndices = new int[newCount];
+        }
+        if (mRemoved.length < oldCount) {
+            mRemoved = new int[oldCount];
+        }
+        mNewCount = newCount;
+        mRemovedCount = 0;
+        mMovedCount = 0;
+        mChangedCount = 0;
+        mInsertedCount = 0;
+
+        if (oldCount == 0 || !oldSet.isSortedX() || !newSet.isSortedX()) {
+            for (int n = 0; n < newCount; n++) {
+                insert(n);
+            }
+            for (int o = 0; o < oldCount; o++) {
+                mRemoved[mRemovedCount++] = o;
+            }
+            return this;
+        }
+
+        // 按X合并两个有序数组
+        int o = 0;
+        int n = 0;
+        while (o < oldCount && n < newCount) {
+            float oldX = oldSet.getXForIndex(o);
+            float newX = newSet.getXForIndex(n);
+            if (oldX < newX) {
+                mRemoved[mRemovedCount++] = o++;
+            } else if (newX < oldX) {
+                insert(n++);
+            } else {
+                mOldIndices[n] = o;
+                if (Float.compare(oldSet.getYForIndex(o), newSet.getYForIndex(n)) != 0) {
+                    mStates[n] = CHANGED;
+                    mChangedCount++;
+                } else if (o != n) {
+                    mStates[n] = MOVED;
+                    mMovedCount++;
+                } else {
+                    mStates[n] = UNCHANGED;
+                }
+                o++;
+                n++;
+            }
+        }
+        while (o < oldCount) {
+            mRemoved[mRemovedCount++] = o++;
+        }
+        while (n < newCount) {
+            insert(n++);
+        }
+        return this;
+    }
+
+    private void insert(int n) {
+        mStates[n] = INSERTED;
+        mOldIndices[n] = -1;
+        mInsertedCount++;
+    }
+
+    /**
+     * Returns the state of the entry of the new DataSet at the given index.
+     *
+     * @param newIndex
+     * @return UNCHANGED, MOVED, CHANGED or INSERTED
+     */
+    public byte getState(int newIndex) {
+        return mStates[newIndex];
+    }
+
+    /**
+     * Returns the index of the old entry with the same x-value, -1 if inserted.
+     *
+     * @param newIndex
+     * @return
+     */
+    public int getOldIndex(int newIndex) {
+        return mOldIndices[newIndex];
+    }
+
+    /**
+     * Returns the index of the i-th removed old entry.
+     *
+     * @param i 0 .. getRemovedCount() - 1
+     * @return
+     */
+    public int getRemovedIndex(int i) {
+        return mRemoved[i];
+    }
+
+    public int getNewCount() {
+        return mNewCount;
+    }
+
+    public int getRemovedCount() {
+        return mRemovedCount;
+    }
+
+    public int getMovedCount() {
+        return mMovedCount;
+    }
+
+    public int getChangedCount() {
+        return mChangedCount;
+    }
+
+    public int getInsertedCount() {
+        return mInsertedCount;
+    }
+
+    /**
+     * Returns true if both DataSets hold the same bars at the same indices.
+     *
+     * @return
+     */
+    public boolean isEmpty() {
+        return mRemovedCount == 0 && mMovedCount == 0 && mChangedCount == 0 && mInsertedCount == 0;
+    }
+}
@@ -0,0 +1,367 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+/**
+ * Level-of-detail pyramid (mipmaps) of a BarEntrySet. Level 0 is the DataSet itself,
+ * every further level merges getFactor() buckets of the level below and stores
+ * the x-range, min, max, sum and count of each bucket in primitive columns.
+ * The pyramid is built once and patched in O(levels) when an entry is appended or
+ * changed.
+ * <p>
+ * 多分辨率聚合金字塔 缩放时选择合适的层级
+ */
+public class BarLodPyramid {
+
+    /**
+     * levels whose bucket width lies within this many levels of the ideal one are kept,
+     * so the renderer does not flicker between two levels at their boundary
+     */
+    private static final float HYSTERESIS = 0.75f;
+
+    /**
+     * a level is only added while the level below has more buckets than this
+     */
+    private static final int MIN_BUCKETS = 2;
+
+    private final BarEntrySet mDataSet;
+
+    /**
+     * number of buckets of the level below merged into one bucket
+     */
+    private final int mFactor;
+
+    /**
+     * levels 1..n, mLevels[0] is level 1
+     */
+    private Level[] mLevels = new Level[0];
+
+    private int mLevelCount = 0;
+
+    /**
+     * number of DataSet entries the pyramid currently covers
+     */
+    private int mEntryCount = 0;
+
+    private boolean mDirty = true;
+
+    /**
+     * level picked by the last selectLevel() call
+     */
+    private int mCurrentLevel = 0;
+
+
+    /**
+     * @param set    the DataSet this pyramid aggregates
+     * @param factor reduction per level, 2 or 4
+     */
+    public BarLodPyramid(BarEntrySet set, int factor) {
+        if (factor < 2) {
+            throw new IllegalArgumentException("factor must be >= 2");
+        }
+        mDataSet = set;
+        mFactor = factor;
+    }
+
+    public int getFactor() {
+        return mFactor;
+    }
+
+    /**
+     * Marks the pyramid for a rebuild, called when entries were changed or removed.
+     */
+    public void invalidate() {
+        mDirty = true;
+    }
+
+    /**
+     * Returns the number of levels including level 0 (the raw DataSet).
+     *
+     * @return
+     */
+    public int getLevelCount() {
+        ensureBuilt();
+        return mLevelCount + 1;
+    }
+
+    /**
+     * Returns the number of DataSet entries merged into one bucket of the given level.
+     *
+     * @param level
+     * @return
+     */
+    public int getEntriesPerBucket(int level) {
+        int n = 1;
+        for (int i = 0; i < level; i++) {
+            n *= mFactor;
+        }
+        return n;
+    }
+
+    /**
+     * Returns the number of buckets of the given level (&gt; 0).
+     *
+     * @param level
+     * @return
+     */
+    public int getBucketCount(int level) {
+        ensureBuilt();
+        return mLevels[level - 1].size;
+    }
+
+    public float getBucketXMin(int level, int bucket) {
+        return mLevels[level - 1].xMin[bucket];
+    }
+
+    public float getBucketXMax(int level, int bucket) {
+        return mLevels[level - 1].xMax[bucket];
+    }
+
+    public float getBucketMin(int level, int bucket) {
+        return mLevels[level - 1].min[bucket];
+    }
+
+    public float getBucketMax(int level, int bucket) {
+        return mLevels[level - 1].max[bucket];
+    }
+
+    public float getBucketSum(int level, int bucket) {
+        return mLevels[level - 1].sum[bucket];
+    }
+
+    public int getBucketCount(int level, int bucket) {
+        return mLevels[level - 1].count[bucket];
+    }
+
+    /**
+     * Picks the level whose bucket width is closest to targetPixels on screen.
+     * The previous choice is kept as long as it stays within the hysteresis band.
+     * <p>
+     * 根据每个值对应的像素选择层级
+     *
+     * @param pixelsPerValue x-axis scale of the Transformer (pixels per x-value)
+     * @param targetPixels   desired width of one bucket in pixels
+     * @return the level, 0 means the raw DataSet
+     */
+    public int selectLevel(float pixelsPerValue, float targetPixels) {
+        ensureBuilt();
+        int count = mDataSet.getEntryCount();
+        if (mLevelCount == 0 || count < 2 || pixelsPerValue <= 0f) {
+            mCurrentLevel = 0;
+            return 0;
+        }
+        // average distance of two entries, in pixels
+        float spacing = (mDataSet.getXForIndex(count - 1) - mDataSet.getXForIndex(0)) / (count - 1);
+        float entryPixels = spacing * pixelsPerValue;
+        if (entryPixels <= 0f) {
+            mCurrentLevel = 0;
+            return 0;
+        }
+        // ideal (fractional) level: factor^level * entryPixels == targetPixels
+        float ideal = (float) (Math.log(targetPixels / entryPixels) / Math.log(mFactor));
+        ideal = Math.max(0f, Math.min(ideal, mLevelCount));
+
+        if (mCurrentLevel > mLevelCount || Math.abs(ideal - mCurrentLevel) > HYSTERESIS) {
+            mCurrentLevel = Math.round(ideal);
+        }
+        return mCurrentLevel;
+    }
+
+    /**
+     * Adds the newest DataSet entry to the last bucket of every level, or starts a
+     * new bucket. O(levels).
+     *
+     * @param x
+     * @param y
+     */
+    public void onEntryAppended(float x, float y) {
+        if (mDirty) {
+            return;
+        }
+        int index = mEntryCount++;
+        for (int l = 0; l < mLevelCount; l++) {
+            index /= mFactor;
+            mLevels[l].add(index, x, y);
+        }
+        // the top level outgrew MIN_BUCKETS, stack another level on it
+        while (getTopSize() > MIN_BUCKETS) {
+            addLevel();
+        }
+    }
+
+    /**
+     * Returns the number of buckets of the top level, the entry count without levels.
+     */
+    /**
+     * Recomputes the buckets holding the entry at the given index after its value
+     * changed: level 1 from its entries, every further level from its buckets below.
+     * A bucket whose maximum was lowered can not be patched by folding in the new
+     * value, so it is recomputed. O(factor * levels).
+     *
+     * @param index
+     */
+    public void onEntryChanged(int index) {
+        if (mDirty) {
+            return;
+        }
+        if (index < 0 || index >= mEntryCount) {
+            mDirty = true;
+            return;
+        }
+        int bucket = index / mFactor;
+        for (int l = 0; l < mLevelCount; l++) {
+            Level level = mLevels[l];
+            int from = bucket * mFactor;
+            if (l == 0) {
+                int to = Math.min(from + mFactor, mEntryCount);
+                level.reset(bucket, mDataSet.getXForIndex(from));
+                for (int i = from; i < to; i++) {
+                    level.add(bucket, mDataSet.getXForIndex(i), mDataSet.getYForIndex(i));
+                }
+            } else {
+                Level below = mLevels[l - 1];
+                int to = Math.min(from + mFactor, below.size);
+                level.reset(bucket, below.xMin[from]);
+                for (int b = from; b < to; b++) {
+                    level.merge(bucket, below, b);
+                }
+            }
+            bucket /= mFactor;
+        }
+    }
+
+    private int getTopSize() {
+        return mLevelCount == 0 ? mEntryCount : mLevels[mLevelCount - 1].size;
+    }
+
+    /**
+     * Builds the pyramid now if it is dirty, e.g. on the thread that freezes the DataSet.
+     */
+    void ensureBuilt() {
+        if (mDirty) {
+            build();
+        }
+    }
+
+    /**
+     * Builds all levels from the DataSet, level 1 from the entries and every further
+     * level from the one below it.
+     */
+    private void build() {
+        mEntryCount = mDataSet.getEntryCount();
+        mLevelCount = 0;
+        while (getTopSize() > MIN_BUCKETS) {
+            addLevel();
+        }
+        mDirty = false;
+    }
+
+    /**
+     * Stacks a new top level on the current one by merging its buckets, level 1 is
+     * built from the entries. Called with a top level of MIN_BUCKETS + 1 buckets while
+     * appending, so this stays O(factor).
+     */
+    private void addLevel() {
+        if (mLevelCount == mLevels.length) {
+            Level[] levels = new Level[mLevelCount + 1];
+            System.arraycopy(mLevels, 0, levels, 0, mLevelCount);
+            mLevels = levels;
+        }
+        if (mLevels[mLevelCount] == null) {
+            mLevels[mLevelCount] = new Level();
+        }
+        Level level = mLevels[mLevelCount];
+        level.clear();
+        if (mLevelCount == 0) {
+            for (int i = 0; i < mEntryCount; i++) {
+                level.add(i / mFactor, mDataSet.getXForIndex(i), mDataSet.getYForIndex(i));
+            }
+        } else {
+            Level below = mLevels[mLevelCount - 1];
+            for (int b = 0; b < below.size; b++) {
+                level.merge(b / mFactor, below, b);
+            }
+        }
+        mLevelCount++;
+    }
+
+
+    /**
+     * The buckets of one level, stored as columns.
+     */
+    private static final class Level {
+
+        int size = 0;
+        float[] xMin = new float[16];
+        float[] xMax = new float[16];
+        float[] min = new float[16];
+        float[] max = new float[16];
+        float[] sum = new float[16];
+        int[] count = new int[16];
+
+        void clear() {
+            size = 0;
+        }
+
+        /**
+         * Makes sure bucket exists, buckets are only ever appended.
+         */
+        private void open(int bucket, float x) {
+            if (bucket < size) {
+                return;
+            }
+            if (bucket >= xMin.length) {
+                int capacity = Math.max(bucket + 1, xMin.length * 2);
+                xMin = grow(xMin, capacity);
+                xMax = grow(xMax, capacity);
+                min = grow(min, capacity);
+                max = grow(max, capacity);
+                sum = grow(sum, capacity);
+                int[] c = new int[capacity];
+                System.arraycopy(count, 0, c, 0, size);
+                count = c;
+            }
+            size = bucket + 1;
+            reset(bucket, x);
+        }
+
+        /**
+         * Empties an existing bucket.
+         */
+        void reset(int bucket, float x) {
+            xMin[bucket] = x;
+            xMax[bucket] = x;
+            min[bucket] = Float.MAX_VALUE;
+            max[bucket] = -Float.MAX_VALUE;
+            sum[bucket] = 0f;
+            count[bucket] = 0;
+        }
+
+        void add(int bucket, float x, float y) {
+            open(bucket, x);
+            if (x < xMin[bucket]) xMin[bucket] = x;
+            if (x > xMax[bucket]) xMax[bucket] = x;
+            if (Float.isNaN(y)) {
+                return;
+            }
+            if (y < min[bucket]) min[bucket] = y;
+            if (y > max[bucket]) max[bucket] = y;
+            sum[bucket] += y;
+            count[bucket]++;
+        }
+
+        void merge(int bucket, Level below, int b) {
+            open(bucket, below.xMin[b]);
+            if (below.xMin[b] < xMin[bucket]) xMin[bucket] = below.xMin[b];
+            if (below.xMax[b] > xMax[bucket]) xMax[bucket] = below.xMax[b];
+            if (below.min[b] < min[bucket]) min[bucket] = below.min[b];
+            if (below.max[b] > max[bucket]) max[bucket] = below.max[b];
+            sum[bucket] += below.sum[b];
+            count[bucket] += below.count[b];
+        }
+
+        private static float[] grow(float[] array, int capacity) {
+            float[] result = new float[capacity];
+            System.arraycopy(array, 0, result, 0, array.length);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+import java.util.List;
+
+/**
+ * BarEntrySet that keeps its data as two primitive columns (struct-of-arrays)
+ * instead of a List of BarEntry objects. Large data sets do not create one
+ * heap object per bar, and the renderer reads the columns directly.
+ * <p>
+ * 列式存储的柱状图数据 x[] y[]
+ */
+public class ColumnarBarEntrySet extends BarEntrySet {
+
+    /**
+     * the x-values of all entries, only the first mEntryCount are valid
+     */
+    protected float[] mXVals;
+
+    /**
+     * the y-values of all entries, only the first mEntryCount are valid
+     */
+    protected float[] mYVals;
+
+    /**
+     * number of valid entries in the columns
+     * <p>
+     * 数据点的个数
+     */
+    protected int mEntryCount = 0;
+
+
+    /**
+     * Creates an empty columnar DataSet.
+     *
+     * @param label
+     */
+    public ColumnarBarEntrySet(String label) {
+        this(new float[0], new float[0], label);
+    }
+
+    /**
+     * Creates a columnar DataSet holding a copy of the given x and y columns.
+     *
+     * @param xVals X 轴的数据
+     * @param yVals Y 轴的数据
+     * @param label
+     */
+    public ColumnarBarEntrySet(float[] xVals, float[] yVals, String label) {
+        super(null, label);
+        setValues(xVals, yVals);
+    }
+
+    /**
+     * Creates a columnar DataSet holding a copy of the first count values of the
+     * given x and y columns.
+     *
+     * @param xVals
+     * @param yVals
+     * @param count
+     * @param label
+     */
+    public ColumnarBarEntrySet(float[] xVals, float[] yVals, int count, String label) {
+        super(null, label);
+        setValues(xVals, yVals, count);
+    }
+
+
+    @Override
+    public int getEntryCount() {
+        return mEntryCount;
+    }
+
+    /**
+     * Returns a flyweight view of the entry at the given index. The returned object
+     * is reused by the next call, copy it if it needs to be kept.
+     *
+     * @param index
+     * @return
+     */
+    @Override
+    public BarEntry getEntryForIndex(int index) {
+        return getEntryView(index);
+    }
+
+    @Override
+    public float getXForIndex(int index) {
+        return mXVals[index];
+    }
+
+    @Override
+    public float getYForIndex(int index) {
+        return mYVals[index];
+    }
+
+    /**
+     * Returns a newly created list with one BarEntry per value. This allocates,
+     * prefer getXForIndex() / getYForIndex() on hot paths.
+     *
+     * @return
+     */
+    @Override
+    public List<BarEntry> getValues() {
+        return copyValues();
+    }
+
+    /**
+     * Replaces all values with the given entries, copying them into the columns.
+     *
+     * @param values
+     */
+    @Override
+    public void setValues(List<BarEntry> values) {
+        checkMutable();
+        checkEntries(values);
+        int count = values == null ? 0 : values.size();
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            BarEntry e = values.get(i);
+            mXVals[i] = e.getX();
+            mYVals[i] = e.getY();
+        }
+        mEntryCount = count;
+        onValuesReplaced();
+        calcMinMax();
+    }
+
+    /**
+     * Replaces all values with a copy of the given x and y columns.
+     *
+     * @param xVals
+     * @param yVals
+     */
+    public void setValues(float[] xVals, float[] yVals) {
+        if (xVals.length != yVals.length) {
+            throw new IllegalArgumentException("x and y columns must have the same length");
+        }
+        setValues(xVals, yVals, xVals.length);
+    }
+
+    /**
+     * Replaces all values with a copy of the first count values of the given columns.
+     * <p>
+     * 批量设置数据点
+     *
+     * @param xVals
+     * @param yVals
+     * @param count
+     */
+    public void setValues(float[] xVals, float[] yVals, int count) {
+        checkMutable();
+        if (count > xVals.length || count > yVals.length) {
+            throw new IllegalArgumentException("count exceeds the column length");
+        }
+        ensureCapacity(count);
+        System.arraycopy(xVals, 0, mXVals, 0, count);
+        System.arraycopy(yVals, 0, mYVals, 0, count);
+        mEntryCount = count;
+        onValuesReplaced();
+        calcMinMax();
+    }
+
+    /**
+     * Replaces all y-values, the x-values become 0, 1, 2, ...
+     *
+     * @param yVals
+     */
+    public void setYValues(float[] yVals) {
+        checkMutable();
+        int count = yVals.length;
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            mXVals[i] = i;
+        }
+        System.arraycopy(yVals, 0, mYVals, 0, count);
+        mEntryCount = count;
+        onValuesReplaced();
+        // 0, 1, 2, ... is sorted by construction
+        mSortedX = true;
+        mSortedXValid = true;
+        calcMinMax();
+    }
+
+    /**
+     * Makes sure both columns can hold at least the given number of values.
+     * Grows by half of the current capacity to keep appends amortized O(1).
+     *
+     * @param capacity
+     */
+    public void ensureCapacity(int capacity) {
+        if (mXVals != null && mXVals.length >= capacity) {
+            return;
+        }
+        int newCapacity = grownCapacity(mXVals == null ? 0 : mXVals.length, capacity);
+        mXVals = growColumn(mXVals, newCapacity, mEntryCount);
+        mYVals = growColumn(mYVals, newCapacity, mEntryCount);
+    }
+
+    @Override
+    public void addEntry(BarEntry e) {
+        if (e != null) {
+            addEntry(e.getX(), e.getY());
+        }
+    }
+
+    @Override
+    public void addEntry(float x, float y) {
+        checkMutable();
+        ensureCapacity(mEntryCount + 1);
+        mXVals[mEntryCount] = x;
+        mYVals[mEntryCount] = y;
+        mEntryCount++;
+        onValueAdded(x, y);
+    }
+
+    /**
+     * Appends the first count values of the given columns.
+     * <p>
+     * 批量添加数据点
+     *
+     * @param xVals
+     * @param yVals
+     * @param count
+     */
+    public void addEntries(float[] xVals, float[] yVals, int count) {
+        checkMutable();
+        if (count > xVals.length || count > yVals.length) {
+            throw new IllegalArgumentException("count exceeds the column length");
+        }
+        ensureCapacity(mEntryCount + count);
+        System.arraycopy(xVals, 0, mXVals, mEntryCount, count);
+        System.arraycopy(yVals, 0, mYVals, mEntryCount, count);
+        for (int i = 0; i < count; i++) {
+            mEntryCount++;
+            onValueAdded(xVals[i], yVals[i]);
+        }
+    }
+
+    @Override
+    public void updateEntry(int index, float x, float y) {
+        checkMutable();
+        if (index < 0 || index >= mEntryCount) {
+            throw new IndexOutOfBoundsException("index " + index + ", count " + mEntryCount);
+        }
+        float oldX = mXVals[index];
+        float oldY = mYVals[index];
+        mXVals[index] = x;
+        mYVals[index] = y;
+        onValueChanged(index, oldX, oldY, x, y);
+    }
+
+    @Override
+    public boolean removeEntry(int index) {
+        checkMutable();
+        if (index < 0 || index >= mEntryCount) {
+            return false;
+        }
+        float x = mXVals[index];
+        float y = mYVals[index];
+        int moved = mEntryCount - index - 1;
+        if (moved > 0) {
+            System.arraycopy(mXVals, index + 1, mXVals, index, moved);
+            System.arraycopy(mYVals, index + 1, mYVals, index, moved);
+        }
+        mEntryCount--;
+        onValueRemoved(index, x, y);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        checkMutable();
+        markChanged(0, mEntryCount);
+        mEntryCount = 0;
+        onValuesReplaced();
+        calcMinMax();
+    }
+
+    @Override
+    public BarEntrySet copy() {
+        ColumnarBarEntrySet copy = new ColumnarBarEntrySet(mXVals, mYVals, mEntryCount, getLabel());
+        copyTo(copy);
+        return copy;
+    }
+
+    @Override
+    public void calcMinMax() {
+        mYMax = -Float.MAX_VALUE;
+        mYMin = Float.MAX_VALUE;
+        mXMax = -Float.MAX_VALUE;
+        mXMin = Float.MAX_VALUE;
+        mMinMaxDirty = false;
+        //
+        for (int i = 0; i < mEntryCount; i++) {
+            calcMinMax(mXVals[i], mYVals[i]);
+        }
+    }
+}
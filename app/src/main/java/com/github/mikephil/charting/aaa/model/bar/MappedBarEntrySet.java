@@ -0,0 +1,400 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+/**
+ * Read-only BarEntrySet whose x / y columns live in a ByteBuffer, usually a file
+ * mapped with open(). Values are read through FloatBuffer views, so data sets
+ * larger than the heap can be drawn and only the pages of the visible entries
+ * are touched.
+ * <p>
+ * The block starts with a small header holding the entry count, the min / max
+ * values, a sorted-x flag and a coarse x-index (the x-value of every
+ * INDEX_STRIDE-th entry). Neither construction nor the visible-range lookup
+ * scans the columns. Layout, little endian:
+ * <pre>
+ * int   magic, version, entryCount, flags, indexStride, indexCount
+ * float xMin, xMax, yMin, yMax
+ * float index[indexCount]
+ * float x[entryCount]
+ * float y[entryCount]
+ * </pre>
+ * <p>
+ * 内存映射文件的柱状图数据 数据量超过堆内存时使用
+ */
+public class MappedBarEntrySet extends BarEntrySet {
+
+    /**
+     * "BARS"
+     */
+    public static final int MAGIC = 0x42415253;
+
+    public static final int VERSION = 1;
+
+    /**
+     * x-values are in ascending order
+     */
+    public static final int FLAG_SORTED_X = 1;
+
+    /**
+     * number of entries per coarse index slot, one 4KB page of floats
+     */
+    public static final int INDEX_STRIDE = 1024;
+
+    /**
+     * size of the fixed part of the header in bytes
+     */
+    public static final int HEADER_SIZE = 10 * 4;
+
+    private final int mEntryCount;
+
+    private final FloatBuffer mXBuffer;
+    private final FloatBuffer mYBuffer;
+
+    /**
+     * coarse x-index, small enough to be kept on the heap
+     */
+    private final float[] mXIndex;
+
+    private final int mIndexStride;
+
+
+    /**
+     * Wraps the block that starts at the current position of the given buffer.
+     * The columns are not copied.
+     *
+     * @param buffer
+     * @param label
+     */
+    public MappedBarEntrySet(ByteBuffer buffer, String label) {
+        super(null, label);
+        ByteBuffer b = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int start = b.position();
+        if (b.getInt() != MAGIC) {
+            throw new IllegalArgumentException("not a bar entry block");
+        }
+        int version = b.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unsupported version " + version);
+        }
+        mEntryCount = b.getInt();
+        int flags = b.getInt();
+        mIndexStride = b.getInt();
+        int indexCount = b.getInt();
+        mXMin = b.getFloat();
+        mXMax = b.getFloat();
+        mYMin = b.getFloat();
+        mYMax = b.getFloat();
+        mMinMaxDirty = false;
+
+        mXIndex = new float[indexCount];
+        b.asFloatBuffer().get(mXIndex);
+
+        int xOffset = start + HEADER_SIZE + indexCount * 4;
+        mXBuffer = column(b, xOffset, mEntryCount);
+        mYBuffer = column(b, xOffset + mEntryCount * 4, mEntryCount);
+
+        mSortedX = (flags & FLAG_SORTED_X) != 0;
+        mSortedXValid = true;
+    }
+
+    private static FloatBuffer column(ByteBuffer b, int offset, int count) {
+        ByteBuffer view = b.duplicate();
+        view.limit(offset + count * 4);
+        view.position(offset);
+        // slice() resets the byte order
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+    }
+
+    /**
+     * Maps the given file read-only. The mapping stays valid after the file is closed.
+     * <p>
+     * 打开内存映射文件
+     *
+     * @param file
+     * @param label
+     * @return
+     * @throws IOException
+     */
+    public static MappedBarEntrySet open(File file, String label) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedBarEntrySet(buffer, label);
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Writes the first count values of the given columns to a file that open() can map.
+     * <p>
+     * 写入内存映射文件
+     *
+     * @param file
+     * @param xVals
+     * @param yVals
+     * @param count
+     * @throws IOException
+     */
+    public static void write(File file, float[] xVals, float[] yVals, int count) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            FileChannel channel = raf.getChannel();
+            int size = getEncodedSize(count);
+            raf.setLength(size);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            encode(buffer, xVals, yVals, count);
+            buffer.force();
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Returns the number of bytes encode() writes for the given number of entries.
+     *
+     * @param count
+     * @return
+     */
+    public static int getEncodedSize(int count) {
+        return HEADER_SIZE + getIndexCount(count) * 4 + count * 8;
+    }
+
+    private static int getIndexCount(int count) {
+        return (count + INDEX_STRIDE - 1) / INDEX_STRIDE;
+    }
+
+    /**
+     * Writes the header and the first count values of the given columns at the current
+     * position of the buffer and advances it by getEncodedSize(count).
+     *
+     * @param out
+     * @param xVals
+     * @param yVals
+     * @param count
+     */
+    public static void encode(ByteBuffer out, float[] xVals, float[] yVals, int count) {
+        if (count > xVals.length || count > yVals.length) {
+            throw new IllegalArgumentException("count exceeds the column length");
+        }
+        float xMin = Float.MAX_VALUE;
+        float xMax = -Float.MAX_VALUE;
+        float yMin = Float.MAX_VALUE;
+        float yMax = -Float.MAX_VALUE;
+        boolean sorted = true;
+        for (int i = 0; i < count; i++) {
+            float x = xVals[i];
+            float y = yVals[i];
+            if (i > 0 && xVals[i - 1] > x) {
+                sorted = false;
+            }
+            // same rules as BarEntrySet.calcMinMax(x, y)
+            if (Float.isNaN(y)) {
+                continue;
+            }
+            if (x < xMin) xMin = x;
+            if (x > xMax) xMax = x;
+            if (y < yMin) yMin = y;
+            if (y > yMax) yMax = y;
+        }
+
+        ByteOrder order = out.order();
+        out.order(ByteOrder.LITTLE_ENDIAN);
+        putHeader(out, count, sorted, xMin, xMax, yMin, yMax);
+        for (int k = 0; k < getIndexCount(count); k++) {
+            out.putFloat(xVals[k * INDEX_STRIDE]);
+        }
+        for (int i = 0; i < count; i++) {
+            out.putFloat(xVals[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            out.putFloat(yVals[i]);
+        }
+        out.order(order);
+    }
+
+    /**
+     * Writes the values of the given DataSet at the current position of the buffer and
+     * advances it by getEncodedSize(set.getEntryCount()). The min / max values and the
+     * sort order are taken from the DataSet, the entries are only read once. Only the
+     * x- and y-values are written, stacked DataSets are rejected since their segments
+     * would be lost.
+     *
+     * @param out
+     * @param set
+     */
+    public static void encode(ByteBuffer out, BarEntrySet set) {
+        if (set instanceof StackedBarEntrySet) {
+            throw new IllegalArgumentException("stacked DataSet \"" + set.getLabel() + "\" cannot be encoded");
+        }
+        int count = set.getEntryCount();
+        ByteOrder order = out.order();
+        out.order(ByteOrder.LITTLE_ENDIAN);
+        putHeader(out, count, set.isSortedX(), set.getXMin(), set.getXMax(), set.getYMin(), set.getYMax());
+        for (int k = 0; k < getIndexCount(count); k++) {
+            out.putFloat(set.getXForIndex(k * INDEX_STRIDE));
+        }
+        for (int i = 0; i < count; i++) {
+            out.putFloat(set.getXForIndex(i));
+        }
+        for (int i = 0; i < count; i++) {
+            out.putFloat(set.getYForIndex(i));
+        }
+        out.order(order);
+    }
+
+    private static void putHeader(ByteBuffer out, int count, boolean sorted,
+                                  float xMin, float xMax, float yMin, float yMax) {
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putInt(count);
+        out.putInt(sorted ? FLAG_SORTED_X : 0);
+        out.putInt(INDEX_STRIDE);
+        out.putInt(getIndexCount(count));
+        out.putFloat(xMin);
+        out.putFloat(xMax);
+        out.putFloat(yMin);
+        out.putFloat(yMax);
+    }
+
+
+    @Override
+    public int getEntryCount() {
+        return mEntryCount;
+    }
+
+    @Override
+    public BarEntry getEntryForIndex(int index) {
+        return getEntryView(index);
+    }
+
+    @Override
+    public float getXForIndex(int index) {
+        return mXBuffer.get(index);
+    }
+
+    @Override
+    public float getYForIndex(int index) {
+        return mYBuffer.get(index);
+    }
+
+    /**
+     * Returns a newly created list with one BarEntry per value. This reads the whole
+     * file into the heap, which defeats the purpose of this class for large files.
+     *
+     * @return
+     */
+    @Override
+    public List<BarEntry> getValues() {
+        return copyValues();
+    }
+
+    /**
+     * Returns a mutable ColumnarBarEntrySet holding all values, read into the heap.
+     *
+     * @return
+     */
+    @Override
+    public BarEntrySet copy() {
+        float[] xVals = new float[mEntryCount];
+        float[] yVals = new float[mEntryCount];
+        mXBuffer.duplicate().get(xVals);
+        mYBuffer.duplicate().get(yVals);
+        ColumnarBarEntrySet copy = new ColumnarBarEntrySet(xVals, yVals, getLabel());
+        copyTo(copy);
+        return copy;
+    }
+
+    /**
+     * Nothing to rescan, the values are read-only and the header holds their min / max
+     * values and sort order. Resetting them would scan the whole mapped x column.
+     */
+    @Override
+    public void notifyDataSetChanged() {
+    }
+
+    /**
+     * The min / max values come from the header, nothing is scanned.
+     */
+    @Override
+    public void calcMinMax() {
+        // called by the super constructor before the header is read
+        mMinMaxDirty = false;
+    }
+
+    /**
+     * Narrows the binary search to one index stride using the coarse x-index, so only
+     * the page holding the result is read from the x column.
+     */
+    @Override
+    protected int lowerBoundX(float xValue) {
+        // last stride whose first x-value is < xValue
+        int low = 0;
+        int high = mXIndex.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mXIndex[mid] < xValue) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return searchStride(xValue, low - 1, false);
+    }
+
+    @Override
+    protected int upperBoundX(float xValue) {
+        // last stride whose first x-value is <= xValue
+        int low = 0;
+        int high = mXIndex.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mXIndex[mid] <= xValue) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return searchStride(xValue, low - 1, true);
+    }
+
+    /**
+     * Binary search inside one stride of the x column.
+     */
+    private int searchStride(float xValue, int stride, boolean upper) {
+        if (stride < 0) {
+            return 0;
+        }
+        int low = stride * mIndexStride;
+        int high = Math.min(low + mIndexStride, mEntryCount);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            float x = mXBuffer.get(mid);
+            if (upper ? x <= xValue : x < xValue) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+
+    /**
+     * The columns live in the mapped buffer, none of the mutations is supported.
+     */
+    @Override
+    protected void checkEditable() {
+        throw new UnsupportedOperationException("MappedBarEntrySet is read-only");
+    }
+}
@@ -0,0 +1,495 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+import java.util.List;
+
+/**
+ * Fixed-capacity BarEntrySet for real-time streaming. Values are kept in a circular
+ * buffer: appending to a full set evicts the oldest entry in O(1). The min / max
+ * values of the current window are maintained with monotonic deques, so neither
+ * appends nor evictions rescan the window.
+ * <p>
+ * 环形缓冲区 只保留最新的N个数据点
+ */
+public class RingBarEntrySet extends BarEntrySet {
+
+    /**
+     * the x-values, indexed by physical slot
+     */
+    protected final float[] mXVals;
+
+    /**
+     * the y-values, indexed by physical slot
+     */
+    protected final float[] mYVals;
+
+    /**
+     * physical slot of the oldest entry
+     */
+    protected int mHead = 0;
+
+    /**
+     * number of entries currently in the window
+     */
+    protected int mEntryCount = 0;
+
+    /**
+     * sequence number the next appended entry gets, the oldest entry has
+     * sequence number mNextSeq - mEntryCount
+     */
+    protected long mNextSeq = 0;
+
+    // 窗口的最大值、最小值
+    private final MonotonicDeque mXMinDeque;
+    private final MonotonicDeque mXMaxDeque;
+    private final MonotonicDeque mYMinDeque;
+    private final MonotonicDeque mYMaxDeque;
+
+
+    /**
+     * @param capacity the maximum number of entries kept, older entries are evicted
+     * @param label
+     */
+    public RingBarEntrySet(int capacity, String label) {
+        super(null, label);
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        mXVals = new float[capacity];
+        mYVals = new float[capacity];
+        mXMinDeque = new MonotonicDeque(mXVals, capacity, false);
+        mXMaxDeque = new MonotonicDeque(mXVals, capacity, true);
+        mYMinDeque = new MonotonicDeque(mYVals, capacity, false);
+        mYMaxDeque = new MonotonicDeque(mYVals, capacity, true);
+    }
+
+
+    /**
+     * Returns the maximum number of entries this set keeps.
+     *
+     * @return
+     */
+    public int getCapacity() {
+        return mXVals.length;
+    }
+
+    @Override
+    public int getEntryCount() {
+        return mEntryCount;
+    }
+
+    /**
+     * Maps a logical index (0 = oldest entry) to the physical slot in the columns.
+     *
+     * @param index
+     * @return
+     */
+    protected int toSlot(int index) {
+        if (index < 0 || index >= mEntryCount) {
+            throw new IndexOutOfBoundsException("index " + index + ", count " + mEntryCount);
+        }
+        int slot = mHead + index;
+        return slot >= mXVals.length ? slot - mXVals.length : slot;
+    }
+
+    /**
+     * Returns a flyweight view of the entry at the given index (0 = oldest). The
+     * returned object is reused by the next call, copy it if it needs to be kept.
+     *
+     * @param index
+     * @return
+     */
+    @Override
+    public BarEntry getEntryForIndex(int index) {
+        return getEntryView(index);
+    }
+
+    @Override
+    public float getXForIndex(int index) {
+        return mXVals[toSlot(index)];
+    }
+
+    @Override
+    public float getYForIndex(int index) {
+        return mYVals[toSlot(index)];
+    }
+
+    /**
+     * Returns a newly created list with the entries of the current window, oldest first.
+     *
+     * @return
+     */
+    @Override
+    public List<BarEntry> getValues() {
+        return copyValues();
+    }
+
+    /**
+     * Replaces the window with the newest getCapacity() entries of the given list.
+     *
+     * @param values
+     */
+    @Override
+    public void setValues(List<BarEntry> values) {
+        checkMutable();
+        checkEntries(values);
+        mHead = 0;
+        mEntryCount = 0;
+        mNextSeq = 0;
+        onValuesReplaced();
+        clearDeques();
+        if (values != null) {
+            for (BarEntry e : values) {
+                addEntry(e.getX(), e.getY());
+            }
+        }
+        calcMinMax();
+    }
+
+    @Override
+    public void addEntry(BarEntry e) {
+        if (e != null) {
+            addEntry(e.getX(), e.getY());
+        }
+    }
+
+    /**
+     * Appends an entry, evicting the oldest one if the set is full. O(1) amortized,
+     * including the min / max update.
+     * <p>
+     * 添加一个数据点，满了之后移除最早的数据点
+     *
+     * @param x
+     * @param y
+     */
+    @Override
+    public void addEntry(float x, float y) {
+        checkMutable();
+        if (mEntryCount == mXVals.length) {
+            evictOldest();
+        }
+        int slot = mHead + mEntryCount;
+        if (slot >= mXVals.length) {
+            slot -= mXVals.length;
+        }
+        mXVals[slot] = x;
+        mYVals[slot] = y;
+        mEntryCount++;
+        markChanged(mEntryCount - 1, mEntryCount);
+        if (mSortedXValid && mSortedX && mEntryCount > 1 && getXForIndex(mEntryCount - 2) > x) {
+            mSortedX = false;
+        }
+        updateRangeIndex(slot, y);
+        long seq = mNextSeq++;
+        if (!mMinMaxDirty && !Float.isNaN(y)) {
+            mXMinDeque.push(seq);
+            mXMaxDeque.push(seq);
+            mYMinDeque.push(seq);
+            mYMaxDeque.push(seq);
+        }
+        updateMinMaxFromDeques();
+    }
+
+    /**
+     * Replaces the value at the given index. This breaks the ordering of the deques,
+     * so the window extremes are rebuilt lazily on the next access.
+     *
+     * @param index
+     * @param x
+     * @param y
+     */
+    @Override
+    public void updateEntry(int index, float x, float y) {
+        checkMutable();
+        int slot = toSlot(index);
+        float oldX = mXVals[slot];
+        mXVals[slot] = x;
+        mYVals[slot] = y;
+        markChanged(index, index + 1);
+        if (oldX != x) {
+            onXChanged(index, x);
+        }
+        updateRangeIndex(slot, y);
+        mMinMaxDirty = true;
+    }
+
+    /**
+     * Removes the entry at the given index. Removing the oldest is O(1), removing the
+     * newest rebuilds the window extremes lazily. Any other index closes the gap by
+     * moving the shorter side of the window, O(n), see removeMiddle().
+     *
+     * @param index
+     * @return
+     */
+    @Override
+    public boolean removeEntry(int index) {
+        checkMutable();
+        if (index < 0 || index >= mEntryCount) {
+            return false;
+        }
+        if (index == 0) {
+            evictOldest();
+        } else if (index == mEntryCount - 1) {
+            // the newest entry may have pushed older candidates out of the deques,
+            // so they cannot simply be popped at the back
+            if (!Float.isNaN(getYForIndex(index))) {
+                mMinMaxDirty = true;
+            }
+            if (mSortedXValid && !mSortedX) {
+                mSortedXValid = false;
+            }
+            markChanged(index, index + 1);
+            mEntryCount--;
+            mNextSeq--;
+        } else {
+            removeMiddle(index);
+        }
+        updateMinMaxFromDeques();
+        return true;
+    }
+
+    /**
+     * Removes an entry from the middle of the window by moving the entries on the
+     * shorter side of it one slot towards the gap, which keeps the slot of every entry
+     * at its sequence number modulo the capacity. The deques and the range index no
+     * longer match the slots, they are rebuilt lazily like after updateEntry().
+     * <p>
+     * 移除中间的数据点 移动较短的一侧
+     *
+     * @param index
+     */
+    protected void removeMiddle(int index) {
+        // removing an entry may make unsorted x-values sorted
+        if (mSortedXValid && !mSortedX) {
+            mSortedXValid = false;
+        }
+        markChanged(index, mEntryCount);
+        markShifted();
+        if (index < mEntryCount - 1 - index) {
+            // 较旧的一侧向新的方向移动一格
+            for (int i = index; i > 0; i--) {
+                int to = toSlot(i);
+                int from = toSlot(i - 1);
+                mXVals[to] = mXVals[from];
+                mYVals[to] = mYVals[from];
+            }
+            mHead++;
+            if (mHead == mXVals.length) {
+                mHead = 0;
+            }
+        } else {
+            // 较新的一侧向旧的方向移动一格
+            for (int i = index; i < mEntryCount - 1; i++) {
+                int to = toSlot(i);
+                int from = toSlot(i + 1);
+                mXVals[to] = mXVals[from];
+                mYVals[to] = mYVals[from];
+            }
+            mNextSeq--;
+        }
+        mEntryCount--;
+        mMinMaxDirty = true;
+        mRangeIndexDirty = true;
+    }
+
+    @Override
+    public void clear() {
+        checkMutable();
+        markChanged(0, mEntryCount);
+        mHead = 0;
+        mEntryCount = 0;
+        mNextSeq = 0;
+        onValuesReplaced();
+        calcMinMax();
+    }
+
+    /**
+     * Returns a mutable copy with the same capacity holding the current window.
+     *
+     * @return
+     */
+    @Override
+    public BarEntrySet copy() {
+        RingBarEntrySet copy = new RingBarEntrySet(getCapacity(), getLabel());
+        for (int i = 0; i < mEntryCount; i++) {
+            int slot = toSlot(i);
+            copy.addEntry(mXVals[slot], mYVals[slot]);
+        }
+        copyTo(copy);
+        return copy;
+    }
+
+    /**
+     * Not supported: the pyramid buckets the entries by index and every eviction
+     * shifts all indices by one, so a full window would rebuild it on every append.
+     * Thin out a large window with a sampler (BarChartRenderer.setSampler()) instead.
+     *
+     * @param enabled must be false
+     * @param factor
+     */
+    @Override
+    public void setLodEnabled(boolean enabled, int factor) {
+        if (enabled) {
+            throw new UnsupportedOperationException("RingBarEntrySet does not support a level-of-detail pyramid");
+        }
+        super.setLodEnabled(false, factor);
+    }
+
+    /**
+     * The range index of a ring buffer covers the physical slots, so appending and
+     * evicting never shifts it.
+     *
+     * @return
+     */
+    @Override
+    protected int getRangeIndexSize() {
+        return mXVals.length;
+    }
+
+    @Override
+    protected float getRangeIndexValue(int position) {
+        return mYVals[position];
+    }
+
+    /**
+     * Splits the logical range into at most two physical slot ranges.
+     */
+    @Override
+    protected void queryRangeIndex(int from, int to, float[] minMax) {
+        int start = toSlot(from);
+        int end = start + (to - from);
+        if (end <= mXVals.length) {
+            mRangeIndex.query(start, end, minMax);
+        } else {
+            mRangeIndex.query(start, mXVals.length, minMax);
+            mRangeIndex.query(0, end - mXVals.length, minMax);
+        }
+    }
+
+    /**
+     * Removes the oldest entry of the window.
+     */
+    protected void evictOldest() {
+        // dropping the oldest entry may make unsorted x-values sorted
+        if (mSortedXValid && !mSortedX) {
+            mSortedXValid = false;
+        }
+        // every remaining entry moves one index down
+        markChanged(0, 1);
+        markShifted();
+        long seq = mNextSeq - mEntryCount;
+        mXMinDeque.popFrontIf(seq);
+        mXMaxDeque.popFrontIf(seq);
+        mYMinDeque.popFrontIf(seq);
+        mYMaxDeque.popFrontIf(seq);
+        mHead++;
+        if (mHead == mXVals.length) {
+            mHead = 0;
+        }
+        mEntryCount--;
+    }
+
+    /**
+     * Rebuilds the deques from the current window.
+     */
+    @Override
+    public void calcMinMax() {
+        clearDeques();
+        mMinMaxDirty = false;
+        long firstSeq = mNextSeq - mEntryCount;
+        for (int i = 0; i < mEntryCount; i++) {
+            if (!Float.isNaN(mYVals[toSlot(i)])) {
+                long seq = firstSeq + i;
+                mXMinDeque.push(seq);
+                mXMaxDeque.push(seq);
+                mYMinDeque.push(seq);
+                mYMaxDeque.push(seq);
+            }
+        }
+        updateMinMaxFromDeques();
+    }
+
+    private void clearDeques() {
+        // the deques are created after the super constructor called calcMinMax()
+        if (mXMinDeque == null) {
+            return;
+        }
+        mXMinDeque.clear();
+        mXMaxDeque.clear();
+        mYMinDeque.clear();
+        mYMaxDeque.clear();
+    }
+
+    private void updateMinMaxFromDeques() {
+        if (mMinMaxDirty || mXMinDeque == null) {
+            return;
+        }
+        mXMin = mXMinDeque.isEmpty() ? Float.MAX_VALUE : mXMinDeque.frontValue();
+        mXMax = mXMaxDeque.isEmpty() ? -Float.MAX_VALUE : mXMaxDeque.frontValue();
+        mYMin = mYMinDeque.isEmpty() ? Float.MAX_VALUE : mYMinDeque.frontValue();
+        mYMax = mYMaxDeque.isEmpty() ? -Float.MAX_VALUE : mYMaxDeque.frontValue();
+    }
+
+
+    /**
+     * Deque of entry sequence numbers whose values are monotonic from front to back
+     * (decreasing for a max-deque, increasing for a min-deque). The front always
+     * holds the extreme of the window.
+     */
+    private static final class MonotonicDeque {
+
+        private final float[] mValues;
+        private final long[] mSeqs;
+        private final boolean mMax;
+        private int mFront = 0;
+        private int mSize = 0;
+
+        MonotonicDeque(float[] values, int capacity, boolean max) {
+            mValues = values;
+            mSeqs = new long[capacity];
+            mMax = max;
+        }
+
+        private float valueOf(long seq) {
+            return mValues[(int) (seq % mValues.length)];
+        }
+
+        private int slot(int i) {
+            int s = mFront + i;
+            return s >= mSeqs.length ? s - mSeqs.length : s;
+        }
+
+        void push(long seq) {
+            float value = valueOf(seq);
+            while (mSize > 0) {
+                float back = valueOf(mSeqs[slot(mSize - 1)]);
+                if (mMax ? back <= value : back >= value) {
+                    mSize--;
+                } else {
+                    break;
+                }
+            }
+            mSeqs[slot(mSize)] = seq;
+            mSize++;
+        }
+
+        void popFrontIf(long seq) {
+            if (mSize > 0 && mSeqs[mFront] == seq) {
+                mFront = slot(1);
+                mSize--;
+            }
+        }
+
+        boolean isEmpty() {
+            return mSize == 0;
+        }
+
+        float frontValue() {
+            return valueOf(mSeqs[mFront]);
+        }
+
+        void clear() {
+            mFront = 0;
+            mSize = 0;
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+import java.util.List;
+
+/**
+ * BarEntrySet for stacked bars. Every entry has a fixed number of stack values
+ * (segments), stored packed in one float[]: the values of entry i are at
+ * [i * getStackSize(), (i + 1) * getStackSize()). Positive values are stacked
+ * upwards from 0, negative values downwards. The top of every segment (the prefix
+ * sum of the values with the same sign) is cached, so the renderer builds the
+ * segment rectangles without summing. getYForIndex() returns the sum of the stack,
+ * the min / max values use the positive and negative stack totals.
+ * <p>
+ * 堆叠柱状图数据
+ */
+public class StackedBarEntrySet extends BarEntrySet {
+
+    /**
+     * number of segments per entry
+     */
+    protected final int mStackSize;
+
+    protected float[] mXVals;
+
+    /**
+     * the segment values, packed, mStackSize per entry
+     */
+    protected float[] mStackVals;
+
+    /**
+     * cached top of every segment: positive prefix sum for values &gt;= 0,
+     * negative prefix sum for values &lt; 0. The bottom is top - value.
+     */
+    protected float[] mSegmentTops;
+
+    /**
+     * per entry: sum of the stack, sum of its positive and of its negative values
+     */
+    protected float[] mSums;
+    protected float[] mPositiveSums;
+    protected float[] mNegativeSums;
+
+    protected int mEntryCount = 0;
+
+
+    /**
+     * @param stackSize number of segments per entry
+     * @param label
+     */
+    public StackedBarEntrySet(int stackSize, String label) {
+        super(null, label);
+        if (stackSize <= 0) {
+            throw new IllegalArgumentException("stackSize must be > 0");
+        }
+        mStackSize = stackSize;
+        ensureCapacity(16);
+    }
+
+
+    public int getStackSize() {
+        return mStackSize;
+    }
+
+    @Override
+    public int getEntryCount() {
+        return mEntryCount;
+    }
+
+    /**
+     * Returns a flyweight view of the entry at the given index, y is the stack sum.
+     * The returned object is reused by the next call.
+     *
+     * @param index
+     * @return
+     */
+    @Override
+    public BarEntry getEntryForIndex(int index) {
+        return getEntryView(index);
+    }
+
+    @Override
+    public float getXForIndex(int index) {
+        return mXVals[index];
+    }
+
+    /**
+     * Returns the sum of the stack of the entry at the given index.
+     *
+     * @param index
+     * @return
+     */
+    @Override
+    public float getYForIndex(int index) {
+        return mSums[index];
+    }
+
+    public float getStackValue(int index, int segment) {
+        return mStackVals[index * mStackSize + segment];
+    }
+
+    /**
+     * Returns the upper end (for positive values) or lower end (for negative values)
+     * of the given segment.
+     *
+     * @param index
+     * @param segment
+     * @return
+     */
+    public float getSegmentTop(int index, int segment) {
+        return mSegmentTops[index * mStackSize + segment];
+    }
+
+    /**
+     * Returns the end of the given segment that touches the segment below it (or 0).
+     *
+     * @param index
+     * @param segment
+     * @return
+     */
+    public float getSegmentBottom(int index, int segment) {
+        int i = index * mStackSize + segment;
+        return mSegmentTops[i] - mStackVals[i];
+    }
+
+    public float getPositiveSum(int index) {
+        return mPositiveSums[index];
+    }
+
+    public float getNegativeSum(int index) {
+        return mNegativeSums[index];
+    }
+
+    /**
+     * Returns the packed segment values, only the first getEntryCount() * getStackSize()
+     * are valid. Do not modify.
+     *
+     * @return
+     */
+    public float[] getStackValues() {
+        return mStackVals;
+    }
+
+    /**
+     * Returns a newly created list with one BarEntry (x, stack sum) per entry.
+     *
+     * @return
+     */
+    @Override
+    public List<BarEntry> getValues() {
+        return copyValues();
+    }
+
+    /**
+     * Makes sure all columns can hold at least the given number of entries.
+     *
+     * @param capacity
+     */
+    public void ensureCapacity(int capacity) {
+        if (mXVals != null && mXVals.length >= capacity) {
+            return;
+        }
+        int newCapacity = grownCapacity(mXVals == null ? 0 : mXVals.length, capacity);
+        mXVals = growColumn(mXVals, newCapacity, mEntryCount);
+        mSums = growColumn(mSums, newCapacity, mEntryCount);
+        mPositiveSums = growColumn(mPositiveSums, newCapacity, mEntryCount);
+        mNegativeSums = growColumn(mNegativeSums, newCapacity, mEntryCount);
+        mStackVals = growColumn(mStackVals, newCapacity * mStackSize, mEntryCount * mStackSize);
+        mSegmentTops = growColumn(mSegmentTops, newCapacity * mStackSize, mEntryCount * mStackSize);
+    }
+
+    /**
+     * Recomputes the cached prefix sums of one entry in O(stackSize).
+     *
+     * @param index
+     */
+    protected void computeStack(int index) {
+        float positive = 0f;
+        float negative = 0f;
+        int offset = index * mStackSize;
+        for (int s = offset; s < offset + mStackSize; s++) {
+            float value = mStackVals[s];
+            if (value >= 0f) {
+                positive += value;
+                mSegmentTops[s] = positive;
+            } else {
+                negative += value;
+                mSegmentTops[s] = negative;
+            }
+        }
+        mPositiveSums[index] = positive;
+        mNegativeSums[index] = negative;
+        mSums[index] = positive + negative;
+    }
+
+    private void putStack(int index, float x, float[] stack, int stackOffset) {
+        mXVals[index] = x;
+        System.arraycopy(stack, stackOffset, mStackVals, index * mStackSize, mStackSize);
+        computeStack(index);
+    }
+
+    private void putSingle(int index, float x, float y) {
+        mXVals[index] = x;
+        int offset = index * mStackSize;
+        mStackVals[offset] = y;
+        for (int s = offset + 1; s < offset + mStackSize; s++) {
+            mStackVals[s] = 0f;
+        }
+        computeStack(index);
+    }
+
+
+    /**
+     * ###### ###### 数据点的增删改 ##### ######
+     */
+
+    /**
+     * Replaces all values. stacks holds count * getStackSize() packed segment values.
+     * <p>
+     * 批量设置堆叠数据
+     *
+     * @param xVals
+     * @param stacks
+     * @param count
+     */
+    public void setValues(float[] xVals, float[] stacks, int count) {
+        checkMutable();
+        if (count > xVals.length || count * mStackSize > stacks.length) {
+            throw new IllegalArgumentException("count exceeds the column length");
+        }
+        ensureCapacity(count);
+        mEntryCount = count;
+        for (int i = 0; i < count; i++) {
+            putStack(i, xVals[i], stacks, i * mStackSize);
+        }
+        onValuesReplaced();
+        calcMinMax();
+    }
+
+    /**
+     * Replaces all values with single-segment stacks.
+     *
+     * @param values
+     */
+    @Override
+    public void setValues(List<BarEntry> values) {
+        checkMutable();
+        checkEntries(values);
+        int count = values == null ? 0 : values.size();
+        ensureCapacity(count);
+        mEntryCount = count;
+        for (int i = 0; i < count; i++) {
+            BarEntry e = values.get(i);
+            putSingle(i, e.getX(), e.getY());
+        }
+        onValuesReplaced();
+        calcMinMax();
+    }
+
+    /**
+     * Appends an entry with the stack values stack[stackOffset ... + getStackSize()).
+     * <p>
+     * 添加一个堆叠数据点
+     *
+     * @param x
+     * @param stack
+     * @param stackOffset
+     */
+    public void addEntry(float x, float[] stack, int stackOffset) {
+        checkMutable();
+        ensureCapacity(mEntryCount + 1);
+        int index = mEntryCount++;
+        putStack(index, x, stack, stackOffset);
+        onStackAdded(index);
+    }
+
+    public void addEntry(float x, float[] stack) {
+        addEntry(x, stack, 0);
+    }
+
+    @Override
+    public void addEntry(BarEntry e) {
+        if (e != null) {
+            addEntry(e.getX(), e.getY());
+        }
+    }
+
+    /**
+     * Appends an entry whose first segment is y, all others 0.
+     *
+     * @param x
+     * @param y
+     */
+    @Override
+    public void addEntry(float x, float y) {
+        checkMutable();
+        ensureCapacity(mEntryCount + 1);
+        int index = mEntryCount++;
+        putSingle(index, x, y);
+        onStackAdded(index);
+    }
+
+    private void onStackAdded(int index) {
+        onValueAdded(mXVals[index], mSums[index]);
+        if (!mMinMaxDirty) {
+            calcMinMax(mXVals[index], mNegativeSums[index]);
+            calcMinMax(mXVals[index], mPositiveSums[index]);
+        }
+    }
+
+    /**
+     * Replaces one segment value of the entry at the given index.
+     * <p>
+     * 修改一个堆叠数据
+     *
+     * @param index
+     * @param segment
+     * @param value
+     */
+    public void updateStackValue(int index, int segment, float value) {
+        checkMutable();
+        if (index < 0 || index >= mEntryCount) {
+            throw new IndexOutOfBoundsException("index " + index + ", count " + mEntryCount);
+        }
+        if (segment < 0 || segment >= mStackSize) {
+            throw new IndexOutOfBoundsException("segment " + segment + ", stack size " + mStackSize);
+        }
+        float oldSum = mSums[index];
+        float oldPositive = mPositiveSums[index];
+        float oldNegative = mNegativeSums[index];
+        mStackVals[index * mStackSize + segment] = value;
+        computeStack(index);
+        onStackChanged(index, mXVals[index], oldSum, oldPositive, oldNegative);
+    }
+
+    /**
+     * Replaces the entry at the given index with a single-segment stack.
+     *
+     * @param index
+     * @param x
+     * @param y
+     */
+    @Override
+    public void updateEntry(int index, float x, float y) {
+        checkMutable();
+        if (index < 0 || index >= mEntryCount) {
+            throw new IndexOutOfBoundsException("index " + index + ", count " + mEntryCount);
+        }
+        float oldX = mXVals[index];
+        float oldSum = mSums[index];
+        float oldPositive = mPositiveSums[index];
+        float oldNegative = mNegativeSums[index];
+        putSingle(index, x, y);
+        onStackChanged(index, oldX, oldSum, oldPositive, oldNegative);
+    }
+
+    private void onStackChanged(int index, float oldX, float oldSum, float oldPositive, float oldNegative) {
+        onValueChanged(index, oldX, oldSum, mXVals[index], mSums[index]);
+        if (mMinMaxDirty) {
+            return;
+        }
+        // the extremes are the stack totals, not the sums
+        if ((oldPositive == mYMax && mPositiveSums[index] < oldPositive)
+                || (oldNegative == mYMin && mNegativeSums[index] > oldNegative)) {
+            mMinMaxDirty = true;
+            return;
+        }
+        calcMinMax(mXVals[index], mNegativeSums[index]);
+        calcMinMax(mXVals[index], mPositiveSums[index]);
+    }
+
+    @Override
+    public boolean removeEntry(int index) {
+        checkMutable();
+        if (index < 0 || index >= mEntryCount) {
+            return false;
+        }
+        float x = mXVals[index];
+        float sum = mSums[index];
+        float positive = mPositiveSums[index];
+        float negative = mNegativeSums[index];
+        int moved = mEntryCount - index - 1;
+        if (moved > 0) {
+            System.arraycopy(mXVals, index + 1, mXVals, index, moved);
+            System.arraycopy(mSums, index + 1, mSums, index, moved);
+            System.arraycopy(mPositiveSums, index + 1, mPositiveSums, index, moved);
+            System.arraycopy(mNegativeSums, index + 1, mNegativeSums, index, moved);
+            System.arraycopy(mStackVals, (index + 1) * mStackSize, mStackVals, index * mStackSize, moved * mStackSize);
+            System.arraycopy(mSegmentTops, (index + 1) * mStackSize, mSegmentTops, index * mStackSize, moved * mStackSize);
+        }
+        mEntryCount--;
+        onValueRemoved(index, x, sum);
+        if (positive == mYMax || negative == mYMin) {
+            mMinMaxDirty = true;
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        checkMutable();
+        markChanged(0, mEntryCount);
+        mEntryCount = 0;
+        onValuesReplaced();
+        calcMinMax();
+    }
+
+    @Override
+    public BarEntrySet copy() {
+        StackedBarEntrySet copy = new StackedBarEntrySet(mStackSize, getLabel());
+        copy.setValues(mXVals, mStackVals, mEntryCount);
+        copyTo(copy);
+        return copy;
+    }
+
+    /**
+     * Scans the stack totals of [from, to), the range index only holds one value per
+     * entry and is not used for stacked DataSets.
+     *
+     * @param from   first entry index (inclusive)
+     * @param to     last entry index (exclusive)
+     * @param minMax float[2]
+     */
+    @Override
+    public void getYMinMaxInRange(int from, int to, float[] minMax) {
+        minMax[0] = Float.MAX_VALUE;
+        minMax[1] = -Float.MAX_VALUE;
+        from = Math.max(from, 0);
+        to = Math.min(to, mEntryCount);
+        for (int i = from; i < to; i++) {
+            if (mNegativeSums[i] < minMax[0]) minMax[0] = mNegativeSums[i];
+            if (mPositiveSums[i] > minMax[1]) minMax[1] = mPositiveSums[i];
+        }
+    }
+
+    /**
+     * The y-range of a stacked entry reaches from its negative to its positive total.
+     */
+    @Override
+    public void calcMinMax() {
+        mYMax = -Float.MAX_VALUE;
+        mYMin = Float.MAX_VALUE;
+        mXMax = -Float.MAX_VALUE;
+        mXMin = Float.MAX_VALUE;
+        mMinMaxDirty = false;
+        //
+        for (int i = 0; i < mEntryCount; i++) {
+            calcMinMax(mXVals[i], mNegativeSums[i]);
+            calcMinMax(mXVals[i], mPositiveSums[i]);
+        }
+    }
+}
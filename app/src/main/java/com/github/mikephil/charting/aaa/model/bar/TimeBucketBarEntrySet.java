@@ -0,0 +1,343 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+import java.util.List;
+
+/**
+ * BarEntrySet that aggregates a stream of (timestamp, value) samples into fixed
+ * time buckets, e.g. one bar per minute. Sum, count, min and max of every bucket
+ * are kept in primitive columns, a sample only touches its own bucket in O(1) and
+ * the bar shows the selected Aggregation of it.
+ * <p>
+ * The buckets are contiguous, starting with the bucket of the first sample: the
+ * x-value of bucket i is i, the absolute bucket start is getXBase() + i * getXUnit()
+ * (see TimeSeriesBarEntrySet). Buckets without samples have count 0, their bar is
+ * 0 for SUM / COUNT and NaN (not drawn) otherwise. Samples older than the first
+ * bucket, or more than getMaxGap() buckets after the last one, are dropped. Entries
+ * can not be edited directly.
+ * <p>
+ * 按时间桶聚合的流式数据
+ */
+public class TimeBucketBarEntrySet extends BarEntrySet {
+
+    /**
+     * What the bar of a bucket shows.
+     */
+    public enum Aggregation {
+        SUM,
+        COUNT,
+        MIN,
+        MAX,
+        AVERAGE,
+    }
+
+    private final long mBucketMillis;
+
+    private Aggregation mAggregation;
+
+    /**
+     * maximum number of empty buckets a single sample may append, a bad timestamp far
+     * in the future would otherwise allocate and report millions of buckets
+     */
+    private int mMaxGap = 10000;
+
+    // 每个桶的聚合值
+    protected double[] mSums;
+    protected int[] mCounts;
+    protected float[] mMins;
+    protected float[] mMaxs;
+
+    /**
+     * the y-value of every bucket according to mAggregation
+     */
+    protected float[] mYVals;
+
+    protected int mBucketCount = 0;
+
+
+    /**
+     * @param bucketMillis length of a bucket in milliseconds, e.g. 60000 for one bar per minute
+     * @param aggregation  what the bars show
+     * @param label
+     */
+    public TimeBucketBarEntrySet(long bucketMillis, Aggregation aggregation, String label) {
+        super(null, label);
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("bucketMillis must be > 0");
+        }
+        mBucketMillis = bucketMillis;
+        mAggregation = aggregation;
+        mXUnit = bucketMillis;
+        // x = 0, 1, 2, ... is sorted by construction
+        mSortedX = true;
+        mSortedXValid = true;
+        ensureCapacity(16);
+    }
+
+    public long getBucketMillis() {
+        return mBucketMillis;
+    }
+
+    public Aggregation getAggregation() {
+        return mAggregation;
+    }
+
+    /**
+     * Sets the maximum number of empty buckets one sample may append before its own,
+     * default 10000. Samples further ahead are dropped by addSample().
+     *
+     * @param buckets
+     */
+    public void setMaxGap(int buckets) {
+        if (buckets < 0) {
+            throw new IllegalArgumentException("buckets must be >= 0");
+        }
+        mMaxGap = buckets;
+    }
+
+    public int getMaxGap() {
+        return mMaxGap;
+    }
+
+    /**
+     * Changes what the bars show, recomputes the y-value of every bucket. O(n).
+     *
+     * @param aggregation
+     */
+    public void setAggregation(Aggregation aggregation) {
+        checkMutable();
+        mAggregation = aggregation;
+        for (int i = 0; i < mBucketCount; i++) {
+            mYVals[i] = aggregate(i);
+        }
+        onValuesReplaced();
+        mSortedX = true;
+        mSortedXValid = true;
+        calcMinMax();
+    }
+
+    /**
+     * Adds a sample to the bucket its timestamp falls into. Appends empty buckets up to
+     * it if the timestamp lies after the last bucket, at most getMaxGap(). O(1)
+     * amortized, plus O(log n) for the level-of-detail pyramid if it is enabled.
+     * <p>
+     * 添加一个采样
+     *
+     * @param timestamp epoch milliseconds
+     * @param value
+     * @return false if the sample is older than the first bucket or too far after the
+     * last one and was dropped
+     */
+    public boolean addSample(long timestamp, float value) {
+        checkMutable();
+        if (mBucketCount == 0) {
+            // 第一个桶的起点 对齐到桶的长度
+            mXBase = floorBucket(timestamp);
+        }
+        long bucket = (timestamp - (long) mXBase) / mBucketMillis;
+        if (timestamp < (long) mXBase) {
+            return false;
+        }
+        // 跳过的空桶太多 丢弃
+        if (bucket - mBucketCount > mMaxGap) {
+            return false;
+        }
+        int index = (int) bucket;
+        while (mBucketCount <= index) {
+            appendBucket();
+        }
+        float oldY = mYVals[index];
+        mSums[index] += value;
+        mCounts[index]++;
+        if (value < mMins[index]) mMins[index] = value;
+        if (value > mMaxs[index]) mMaxs[index] = value;
+        float y = aggregate(index);
+        if (y != oldY && !(Float.isNaN(y) && Float.isNaN(oldY))) {
+            mYVals[index] = y;
+            onValueChanged(index, index, oldY, index, y);
+        }
+        return true;
+    }
+
+    private long floorBucket(long timestamp) {
+        long floor = timestamp - timestamp % mBucketMillis;
+        return timestamp < 0 && floor != timestamp ? floor - mBucketMillis : floor;
+    }
+
+    private void appendBucket() {
+        ensureCapacity(mBucketCount + 1);
+        int index = mBucketCount++;
+        mSums[index] = 0d;
+        mCounts[index] = 0;
+        mMins[index] = Float.MAX_VALUE;
+        mMaxs[index] = -Float.MAX_VALUE;
+        mYVals[index] = aggregate(index);
+        onValueAdded(index, mYVals[index]);
+    }
+
+    /**
+     * Returns the y-value of the given bucket according to the current Aggregation.
+     *
+     * @param index
+     * @return
+     */
+    protected float aggregate(int index) {
+        int count = mCounts[index];
+        switch (mAggregation) {
+            case SUM:
+                return (float) mSums[index];
+            case COUNT:
+                return count;
+            case MIN:
+                return count == 0 ? Float.NaN : mMins[index];
+            case MAX:
+                return count == 0 ? Float.NaN : mMaxs[index];
+            default:
+                return count == 0 ? Float.NaN : (float) (mSums[index] / count);
+        }
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (mYVals != null && mYVals.length >= capacity) {
+            return;
+        }
+        int newCapacity = grownCapacity(mYVals == null ? 0 : mYVals.length, capacity);
+        mSums = growColumn(mSums, newCapacity, mBucketCount);
+        mCounts = growColumn(mCounts, newCapacity, mBucketCount);
+        mMins = growColumn(mMins, newCapacity, mBucketCount);
+        mMaxs = growColumn(mMaxs, newCapacity, mBucketCount);
+        mYVals = growColumn(mYVals, newCapacity, mBucketCount);
+    }
+
+
+    /**
+     * ###### ###### 桶的数据 ##### ######
+     */
+
+    /**
+     * Returns the start of the given bucket in epoch milliseconds.
+     *
+     * @param index
+     * @return
+     */
+    public long getBucketStart(int index) {
+        return (long) mXBase + index * mBucketMillis;
+    }
+
+    public double getSum(int index) {
+        return mSums[index];
+    }
+
+    public int getCount(int index) {
+        return mCounts[index];
+    }
+
+    /**
+     * @param index
+     * @return the smallest sample of the bucket, NaN if it is empty
+     */
+    public float getMin(int index) {
+        return mCounts[index] == 0 ? Float.NaN : mMins[index];
+    }
+
+    /**
+     * @param index
+     * @return the largest sample of the bucket, NaN if it is empty
+     */
+    public float getMax(int index) {
+        return mCounts[index] == 0 ? Float.NaN : mMaxs[index];
+    }
+
+    /**
+     * @param index
+     * @return the mean of the samples of the bucket, NaN if it is empty
+     */
+    public float getAverage(int index) {
+        return mCounts[index] == 0 ? Float.NaN : (float) (mSums[index] / mCounts[index]);
+    }
+
+
+    @Override
+    public int getEntryCount() {
+        return mBucketCount;
+    }
+
+    @Override
+    public BarEntry getEntryForIndex(int index) {
+        return getEntryView(index);
+    }
+
+    @Override
+    public float getXForIndex(int index) {
+        return index;
+    }
+
+    @Override
+    public float getYForIndex(int index) {
+        return mYVals[index];
+    }
+
+    @Override
+    public List<BarEntry> getValues() {
+        return copyValues();
+    }
+
+    @Override
+    public void calcMinMax() {
+        mYMax = -Float.MAX_VALUE;
+        mYMin = Float.MAX_VALUE;
+        mXMax = -Float.MAX_VALUE;
+        mXMin = Float.MAX_VALUE;
+        mMinMaxDirty = false;
+        //
+        for (int i = 0; i < mBucketCount; i++) {
+            calcMinMax(i, mYVals[i]);
+        }
+    }
+
+    /**
+     * Removes all buckets, the next sample starts a new first bucket.
+     */
+    @Override
+    public void clear() {
+        checkMutable();
+        markChanged(0, mBucketCount);
+        mBucketCount = 0;
+        onValuesReplaced();
+        mSortedX = true;
+        mSortedXValid = true;
+        calcMinMax();
+    }
+
+    /**
+     * Returns a mutable copy that keeps aggregating from the current buckets.
+     *
+     * @return
+     */
+    @Override
+    public BarEntrySet copy() {
+        TimeBucketBarEntrySet copy = new TimeBucketBarEntrySet(mBucketMillis, mAggregation, getLabel());
+        copy.ensureCapacity(mBucketCount);
+        System.arraycopy(mSums, 0, copy.mSums, 0, mBucketCount);
+        System.arraycopy(mCounts, 0, copy.mCounts, 0, mBucketCount);
+        System.arraycopy(mMins, 0, copy.mMins, 0, mBucketCount);
+        System.arraycopy(mMaxs, 0, copy.mMaxs, 0, mBucketCount);
+        System.arraycopy(mYVals, 0, copy.mYVals, 0, mBucketCount);
+        copy.mBucketCount = mBucketCount;
+        copyTo(copy);
+        copy.onValuesReplaced();
+        copy.mSortedX = true;
+        copy.mSortedXValid = true;
+        copy.calcMinMax();
+        return copy;
+    }
+
+
+    /**
+     * The buckets are only fed by addSample(), setValues(), addEntry(), updateEntry()
+     * and removeEntry() are not supported.
+     */
+    @Override
+    protected void checkEditable() {
+        throw new UnsupportedOperationException("TimeBucketBarEntrySet is fed by addSample()");
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+/**
+ * Columnar BarEntrySet for epoch-millisecond timestamps. A float holds an epoch
+ * timestamp only to about two minutes, so the timestamps are stored relative to a
+ * base timestamp and in a configurable unit (e.g. seconds): x = (timestamp - base) / unit.
+ * BarRectBuffer, Transformer and the axis work on these small floats, only the
+ * conversion back (getTimestampForIndex(), AxisBase.toAbsoluteValue()) uses doubles.
+ * <p>
+ * 时间序列柱状图数据 X为相对于基准时间的偏移
+ */
+public class TimeSeriesBarEntrySet extends ColumnarBarEntrySet {
+
+    /**
+     * set once the base was fixed, by the constructor or the first timestamp
+     */
+    private boolean mHasBase;
+
+
+    /**
+     * Creates an empty time series whose base is the first timestamp added.
+     *
+     * @param unitMillis milliseconds per x-unit, e.g. 1000 to store seconds
+     * @param label
+     */
+    public TimeSeriesBarEntrySet(long unitMillis, String label) {
+        super(label);
+        if (unitMillis <= 0) {
+            throw new IllegalArgumentException("unitMillis must be > 0");
+        }
+        mXUnit = unitMillis;
+    }
+
+    /**
+     * Creates an empty time series with the given base.
+     *
+     * @param baseMillis timestamp x = 0 stands for
+     * @param unitMillis milliseconds per x-unit, e.g. 1000 to store seconds
+     * @param label
+     */
+    public TimeSeriesBarEntrySet(long baseMillis, long unitMillis, String label) {
+        this(unitMillis, label);
+        mXBase = baseMillis;
+        mHasBase = true;
+    }
+
+    public long getBaseMillis() {
+        return (long) mXBase;
+    }
+
+    /**
+     * Returns the timestamp of the entry at the given index, in epoch milliseconds.
+     *
+     * @param index
+     * @return
+     */
+    public long getTimestampForIndex(int index) {
+        return Math.round(toAbsoluteX(getXForIndex(index)));
+    }
+
+    /**
+     * Converts a timestamp into the stored x-value, fixing the base if there is none yet.
+     *
+     * @param timestamp
+     * @return
+     */
+    public float toX(long timestamp) {
+        if (!mHasBase) {
+            mXBase = timestamp;
+            mHasBase = true;
+        }
+        return toRelativeX(timestamp);
+    }
+
+    /**
+     * Appends a bar at the given timestamp.
+     * <p>
+     * 添加一个时间点的数据
+     *
+     * @param timestamp epoch milliseconds
+     * @param y
+     */
+    public void addEntry(long timestamp, float y) {
+        checkMutable();
+        addEntry(toX(timestamp), y);
+    }
+
+    /**
+     * Replaces the timestamp and y-value of the entry at the given index.
+     *
+     * @param index
+     * @param timestamp epoch milliseconds
+     * @param y
+     */
+    public void updateEntry(int index, long timestamp, float y) {
+        checkMutable();
+        updateEntry(index, toX(timestamp), y);
+    }
+
+    /**
+     * Moves the base to the given timestamp and rewrites all x-values relative to it,
+     * e.g. to keep the values of a long running stream small. O(n).
+     * <p>
+     * 修改基准时间
+     *
+     * @param baseMillis
+     */
+    public void setBaseMillis(long baseMillis) {
+        checkMutable();
+        double shift = (mXBase - baseMillis) / mXUnit;
+        for (int i = 0; i < mEntryCount; i++) {
+            mXVals[i] = (float) (mXVals[i] + shift);
+        }
+        mXBase = baseMillis;
+        mHasBase = true;
+        onValuesReplaced();
+        calcMinMax();
+    }
+
+    @Override
+    public BarEntrySet copy() {
+        TimeSeriesBarEntrySet copy = new TimeSeriesBarEntrySet((long) mXUnit, getLabel());
+        copy.mHasBase = mHasBase;
+        copy.setValues(mXVals, mYVals, mEntryCount);
+        copyTo(copy);
+        return copy;
+    }
+}
@@ -1,11 +1,10 @@
 
 package com.github.mikephil.charting.aaa.renderer;
 
-import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.Paint.Style;
 
+import com.github.mikephil.charting.aaa.canvas.ChartPaint;
+import com.github.mikephil.charting.aaa.canvas.IChartCanvas;
 import com.github.mikephil.charting.aaa.model.axis.AxisBase;
 import com.github.mikephil.charting.aaa.utils.Transformer;
 import com.github.mikephil.charting.aaa.utils.ViewPort;
@@ -27,15 +26,31 @@ public abstract class AxisRenderer extends Renderer {
      *
      */
     // paint for the x-label values
-    protected Paint mAxisLabelPaint;
+    protected ChartPaint mAxisLabelPaint;
     // paint for the line surrounding the chart
-    protected Paint mAxisLinePaint;
+    protected ChartPaint mAxisLinePaint;
 
     /**
      * transformer to transform values to screen pixels and return
      */
     protected Transformer mTrans;
 
+    /**
+     * the axis state the cached axis layer was drawn with, see isLayerUpToDate()
+     * <p>
+     * 缓存图层绘制时的坐标轴状态
+     */
+    protected final float[] mLayerState = new float[LAYER_STATE_SIZE];
+    protected final int[] mLayerInts = new int[LAYER_INTS_SIZE];
+    protected Object mLayerFormatter = null;
+    protected Object mLayerTypeface = null;
+    protected double mLayerValueBase = Double.NaN;
+    protected double mLayerValueUnit = Double.NaN;
+    protected boolean mLayerValid = false;
+
+    protected static final int LAYER_STATE_SIZE = 6;
+    protected static final int LAYER_INTS_SIZE = 4;
+
 
     public AxisRenderer(ViewPort viewPortHandler, Transformer trans, AxisBase axis) {
         super(viewPortHandler);
@@ -45,12 +60,12 @@ public abstract class AxisRenderer extends Renderer {
 
         if (mViewPort != null) {
             //
-            mAxisLabelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            mAxisLabelPaint = new ChartPaint(true);
             //
-            mAxisLinePaint = new Paint();
+            mAxisLinePaint = new ChartPaint();
             mAxisLinePaint.setColor(Color.BLACK);
             mAxisLinePaint.setStrokeWidth(1f);
-            mAxisLinePaint.setStyle(Style.STROKE);
+            mAxisLinePaint.setStyle(ChartPaint.Style.STROKE);
         }
     }
 
@@ -59,7 +74,7 @@ public abstract class AxisRenderer extends Renderer {
      *
      * @return
      */
-    public Paint getPaintAxisLabels() {
+    public ChartPaint getPaintAxisLabels() {
         return mAxisLabelPaint;
     }
 
@@ -129,17 +144,98 @@ public abstract class AxisRenderer extends Renderer {
         }
     }
 
+    /**
+     * Returns true if nothing the axis line and labels depend on changed since the
+     * last setLayerUpToDate(): axis range, label count, formatter, text style, offsets
+     * and flags. The pixel positions additionally depend on the Transformer, whose
+     * generation the caller has to compare. A formatter that changes its output
+     * without being replaced is not detected, see invalidateLayer().
+     *
+     * @return
+     */
+    public boolean isLayerUpToDate() {
+        if (!mLayerValid
+                || mLayerFormatter != mAxis.getValueFormatter()
+                || mLayerTypeface != mAxisLabelPaint.getTypeface()
+                || mLayerValueBase != mAxis.getValueBase()
+                || mLayerValueUnit != mAxis.getValueUnit()) {
+            return false;
+        }
+        fillLayerState(mLayerStateScratch, mLayerIntsScratch);
+        for (int i = 0; i < LAYER_STATE_SIZE; i++) {
+            if (Float.compare(mLayerState[i], mLayerStateScratch[i]) != 0) {
+                return false;
+            }
+        }
+        for (int i = 0; i < LAYER_INTS_SIZE; i++) {
+            if (mLayerInts[i] != mLayerIntsScratch[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final float[] mLayerStateScratch = new float[LAYER_STATE_SIZE];
+    private final int[] mLayerIntsScratch = new int[LAYER_INTS_SIZE];
+
+    /**
+     * Remembers the current axis state, call after the axis was drawn into the layer.
+     */
+    public void setLayerUpToDate() {
+        fillLayerState(mLayerState, mLayerInts);
+        mLayerFormatter = mAxis.getValueFormatter();
+        mLayerTypeface = mAxisLabelPaint.getTypeface();
+        mLayerValueBase = mAxis.getValueBase();
+        mLayerValueUnit = mAxis.getValueUnit();
+        mLayerValid = true;
+    }
+
+    /**
+     * Forces the axis to be drawn again on the next frame.
+     */
+    public void invalidateLayer() {
+        mLayerValid = false;
+    }
+
+    /**
+     * Writes the axis state compared by isLayerUpToDate() into the two arrays.
+     *
+     * @param values LAYER_STATE_SIZE floats
+     * @param ints   LAYER_INTS_SIZE ints, colors are compared bit-exact
+     */
+    protected void fillLayerState(float[] values, int[] ints) {
+        values[0] = mAxis.mAxisMinimum;
+        values[1] = mAxis.mAxisMaximum;
+        values[2] = mAxis.getTextSize();
+        values[3] = mAxis.getAxisLineWidth();
+        values[4] = mAxis.getXOffset();
+        values[5] = mAxis.getYOffset();
+        ints[0] = mAxis.getLabelCount();
+        ints[1] = mAxis.getTextColor();
+        ints[2] = mAxis.getAxisLineColor();
+        ints[3] = getLayerFlags();
+    }
+
+    /**
+     * Returns the flags that switch parts of the axis on or off as bits.
+     *
+     * @return
+     */
+    protected int getLayerFlags() {
+        return (mAxis.isEnabled() ? 1 : 0) | (mAxis.isDrawLabelsEnabled() ? 2 : 0);
+    }
+
     /**
      * Draws the axis labels to the screen.
      *
      * @param c
      */
-    public abstract void renderAxisLabels(Canvas c);
+    public abstract void renderAxisLabels(IChartCanvas c);
 
     /**
      * Draws the line that goes alongside the axis.
      *
      * @param c
      */
-    public abstract void renderAxisLine(Canvas c);
+    public abstract void renderAxisLine(IChartCanvas c);
 }
@@ -1,15 +1,18 @@
 
 package com.github.mikephil.charting.aaa.renderer;
 
-import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
-
-import com.github.mikephil.charting.aaa.BarChartView;
+import com.github.mikephil.charting.aaa.anima.BarTransition;
+import com.github.mikephil.charting.aaa.canvas.ChartPaint;
+import com.github.mikephil.charting.aaa.canvas.IChartCanvas;
 import com.github.mikephil.charting.aaa.formatter.IValueFormatter;
+import com.github.mikephil.charting.aaa.formatter.IValueTextFormatter;
 import com.github.mikephil.charting.aaa.model.bar.BarData;
 import com.github.mikephil.charting.aaa.model.bar.BarEntry;
 import com.github.mikephil.charting.aaa.model.bar.BarEntrySet;
+import com.github.mikephil.charting.aaa.model.bar.BarLodPyramid;
+import com.github.mikephil.charting.aaa.model.bar.MappedBarEntrySet;
+import com.github.mikephil.charting.aaa.model.bar.RingBarEntrySet;
+import com.github.mikephil.charting.aaa.sampling.IBarSampler;
 import com.github.mikephil.charting.aaa.utils.BarRectBuffer;
 import com.github.mikephil.charting.aaa.utils.Transformer;
 import com.github.mikephil.charting.aaa.utils.Utils;
@@ -19,7 +22,7 @@ import java.util.List;
 
 public class BarChartRenderer extends Renderer {
 
-    protected BarChartView mChart;
+    protected IBarDataProvider mChart;
 
     // BarRectBuffer 数组长度
     protected BarRectBuffer[] mBarRectBuffers;
@@ -28,46 +31,261 @@ public class BarChartRenderer extends Renderer {
     /**
      * main paint object used for rendering
      */
-    protected Paint mRenderPaint;
+    protected ChartPaint mRenderPaint;
 
     /**
      * paint object for drawing values (text representing values of chart
      * entries)
      */
-    protected Paint mValuePaint;
+    protected ChartPaint mValuePaint;
+
+    /**
+     * optional downsampling stage between the DataSet and the BarRectBuffer
+     */
+    protected IBarSampler mSampler = null;
 
+    /**
+     * width in pixels the pyramid buckets of a DataSet with LOD enabled should have
+     */
+    protected float mLodTargetPixels = 2f;
+
+    /**
+     * incremented when a setting that changes the fed rectangles changes
+     */
+    protected int mConfigGeneration = 0;
+
+    /**
+     * sub-pixel coalescing: bars narrower than mCoalesceThresholdPx are merged into
+     * one rectangle per pixel column and color
+     */
+    protected boolean mCoalesceEnabled = false;
+    protected float mCoalesceThresholdPx = 1f;
+
+    /**
+     * running data transitions per DataSet, see BarChartView.animateDataChange()
+     */
+    protected BarTransition[] mTransitions = null;
 
-    public BarChartRenderer(BarChartView chart,
-                            ViewPort viewPort) {
+    /**
+     * one rectangle, transformed on its own
+     */
+    protected float[] mRectScratch = new float[4];
+
+    /**
+     * batched submission: the bars of one color are collected as vertical lines
+     * (x, top, x, bottom) and drawn with one drawLines call, see setBatchedDrawing()
+     */
+    protected boolean mBatchedDrawing = false;
+    protected ChartPaint mBatchPaint;
+    protected float[] mBatchLines = new float[0];
+    protected int mBatchSize = 0;
+    protected float mBatchWidth = 0f;
+    private static final float BATCH_WIDTH_TOLERANCE = 0.01f;
+
+    /**
+     * pixels per dp, the renderer does not depend on Utils.init()
+     */
+    protected final float mDensity;
+
+
+    /**
+     * @param chart
+     * @param viewPort
+     * @param density  pixels per dp, e.g. DisplayMetrics.density, 1 when rendering headless
+     */
+    public BarChartRenderer(IBarDataProvider chart,
+                            ViewPort viewPort,
+                            float density) {
         super(viewPort);
         //
         this.mChart = chart;
+        this.mDensity = density;
+        //
+        mRenderPaint = new ChartPaint(true);
+        mRenderPaint.setStyle(ChartPaint.Style.FILL);
         //
-        mRenderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mRenderPaint.setStyle(Paint.Style.FILL);
+        mBatchPaint = new ChartPaint(true);
+        mBatchPaint.setStyle(ChartPaint.Style.STROKE);
+        // 线帽不超出柱子的上下边
+        mBatchPaint.setStrokeCap(ChartPaint.Cap.BUTT);
         //
-        mValuePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mValuePaint.setColor(Color.rgb(63, 63, 63));
-        mValuePaint.setTextAlign(Paint.Align.CENTER);
-        mValuePaint.setTextSize(Utils.convertDpToPixel(9f));
+        mValuePaint = new ChartPaint(true);
+        // rgb(63, 63, 63)
+        mValuePaint.setColor(0xFF3F3F3F);
+        mValuePaint.setTextAlign(ChartPaint.Align.CENTER);
+        mValuePaint.setTextSize(9f * density);
+    }
+
+    /**
+     * Sets the downsampling stage that runs before the BarRectBuffer is fed, e.g.
+     * MinMaxBarSampler or LttbBarSampler. Set null to draw every visible entry.
+     *
+     * @param sampler
+     */
+    public void setSampler(IBarSampler sampler) {
+        mSampler = sampler;
+        mConfigGeneration++;
+    }
+
+    public IBarSampler getSampler() {
+        return mSampler;
+    }
+
+    /**
+     * Sets the on-screen width (in pixels) at which the renderer switches to the next
+     * coarser level of a DataSet's level-of-detail pyramid. Default 2px.
+     *
+     * @param pixels
+     */
+    public void setLodTargetPixels(float pixels) {
+        mLodTargetPixels = pixels;
+        mConfigGeneration++;
+    }
+
+    public float getLodTargetPixels() {
+        return mLodTargetPixels;
+    }
+
+    /**
+     * Enables the sub-pixel coalescing render mode. When a bar is narrower than
+     * thresholdPx on screen, all bars whose center falls into the same device pixel
+     * column are drawn as one rectangle per color, reaching from their lowest to their
+     * highest end. The number of draw calls is then bounded by the content width
+     * (times the number of colors in a column).
+     * <p>
+     * 柱子小于一个像素时 按像素列合并绘制
+     *
+     * @param enabled
+     * @param thresholdPx
+     */
+    public void setSubPixelCoalescing(boolean enabled, float thresholdPx) {
+        mCoalesceEnabled = enabled;
+        mCoalesceThresholdPx = thresholdPx;
+    }
+
+    public boolean isSubPixelCoalescingEnabled() {
+        return mCoalesceEnabled;
+    }
+
+    /**
+     * Enables batched submission of the bars: instead of one drawRect call per bar,
+     * all visible bars of one color are packed into a float[] of vertical lines and
+     * drawn by a single drawLines call with a stroke width equal to the bar width.
+     * Pays off with a few thousand visible bars, where the per-call overhead dominates.
+     * <p>
+     * 同色柱子合并为一次drawLines
+     *
+     * @param enabled
+     */
+    public void setBatchedDrawing(boolean enabled) {
+        mBatchedDrawing = enabled;
+    }
+
+    public boolean isBatchedDrawingEnabled() {
+        return mBatchedDrawing;
     }
 
     /**
      * 创建RectBuffer 矩形数组
+     * <p>
+     * Existing buffers are kept if they are large enough, so calling
+     * notifyDataSetChanged() for a streaming DataSet does not reallocate them.
      */
     public void initRectBuffers() {
-        // 获取数据
-        BarData barData = mChart.getBarData();
+        mBarRectBuffers = createRectBuffers(mChart.getBarData(), mBarRectBuffers);
+        // the indices of a transition are only valid for the data it was built for
+        cancelTransitions();
+    }
+
+    /**
+     * Creates the rect buffers for the given data, reusing the buffers of old where
+     * possible. Pass null for old to prepare buffers off the UI thread, then hand
+     * them over with setRectBuffers().
+     *
+     * @param barData
+     * @param old     the current buffers, or null
+     * @return
+     */
+    public BarRectBuffer[] createRectBuffers(BarData barData, BarRectBuffer[] old) {
         // BarRectBuffer 数组长度
-        mBarRectBuffers = new BarRectBuffer[barData.getDataSetCount()];
+        BarRectBuffer[] buffers = old;
+        if (old == null || old.length != barData.getDataSetCount()) {
+            buffers = new BarRectBuffer[barData.getDataSetCount()];
+        }
         //
-        for (int i = 0; i < mBarRectBuffers.length; i++) {
+        for (int i = 0; i < buffers.length; i++) {
             BarEntrySet set = barData.getDataSetByIndex(i);
-            mBarRectBuffers[i] = new BarRectBuffer(set.getEntryCount() * 4);
+            int size = getRequiredBufferSize(set);
+            if (old != null && i < old.length && old[i] != null) {
+                buffers[i] = old[i];
+                buffers[i].ensureCapacity(size);
+                // entries edited in place do not change the generation, refeed once
+                buffers[i].invalidate();
+            } else {
+                buffers[i] = new BarRectBuffer(size);
+            }
+        }
+        return buffers;
+    }
+
+    /**
+     * Replaces the rect buffers with buffers prepared by createRectBuffers(). UI thread only.
+     *
+     * @param buffers
+     */
+    public void setRectBuffers(BarRectBuffer[] buffers) {
+        mBarRectBuffers = buffers;
+        cancelTransitions();
+    }
+
+    /**
+     * Sets the transitions (one per DataSet, null entries for DataSets without
+     * changes) that are drawn until they finish. Reset by initRectBuffers().
+     *
+     * @param transitions
+     */
+    public void setTransitions(BarTransition[] transitions) {
+        if (transitions != mTransitions) {
+            cancelTransitions();
+        }
+        mTransitions = transitions;
+    }
+
+    /**
+     * Drops the transitions and stops their animators, so they do not keep
+     * invalidating the chart for their remaining duration.
+     */
+    protected void cancelTransitions() {
+        if (mTransitions != null) {
+            for (BarTransition transition : mTransitions) {
+                if (transition != null) {
+                    transition.cancel();
+                }
+            }
+            mTransitions = null;
+        }
+    }
+
+    /**
+     * Returns the number of floats the buffer of the given DataSet needs. A
+     * RingBarEntrySet gets room for its full capacity up front, the buffer of a
+     * MappedBarEntrySet only grows to the visible slice on demand. Stacked DataSets
+     * need one rectangle per segment.
+     *
+     * @param set
+     * @return
+     */
+    protected int getRequiredBufferSize(BarEntrySet set) {
+        if (set instanceof RingBarEntrySet) {
+            return ((RingBarEntrySet) set).getCapacity() * 4;
         }
+        if (set instanceof MappedBarEntrySet) {
+            return 0;
+        }
+        return set.getEntryCount() * 4 * BarRectBuffer.getRectsPerEntry(set);
     }
 
-    public void drawData(Canvas c) {
+    public void drawData(IChartCanvas c) {
 
         BarData barData = mChart.getBarData();
 
@@ -82,30 +300,340 @@ public class BarChartRenderer extends Renderer {
     }
 
 
-    protected void drawDataSet(Canvas c, BarEntrySet dataSet, int index) {
+    /**
+     * buffer for the x-value range of the content rect
+     */
+    protected float[] mVisibleXBuffer = new float[4];
+
+    /**
+     * receives the visible entry index range [from, to) of a DataSet
+     */
+    protected int[] mVisibleRange = new int[2];
+
+    /**
+     * x-axis scale of the last computeVisibleRange() call, pixels per x-value
+     */
+    protected float mPixelsPerValueX = 0f;
+
+    /**
+     * Looks up the index range of the entries that are (partially) inside the
+     * content rect and writes it to mVisibleRange. Uses a binary search for
+     * DataSets with sorted x-values.
+     * <p>
+     * 计算可见区域内数据点的下标范围
+     *
+     * @param dataSet
+     */
+    protected void computeVisibleRange(BarEntrySet dataSet) {
+        computeVisibleRange(dataSet, 0f);
+    }
+
+    /**
+     * Like computeVisibleRange(BarEntrySet), for bars drawn moved by xOffset (grouped layout).
+     *
+     * @param dataSet
+     * @param xOffset
+     */
+    protected void computeVisibleRange(BarEntrySet dataSet, float xOffset) {
+        float[] pts = mVisibleXBuffer;
+        pts[0] = mViewPort.contentLeft();
+        pts[1] = 0f;
+        pts[2] = mViewPort.contentRight();
+        pts[3] = 0f;
+        mChart.getTransformer().pixelsToValue(pts);
+        float valueWidth = Math.abs(pts[2] - pts[0]);
+        mPixelsPerValueX = valueWidth > 0f ? mViewPort.contentWidth() / valueWidth : 0f;
+        // a bar is visible as long as half of its width reaches into the content
+        float barWidthHalf = mChart.getBarData().getBarWidth() / 2f;
+        dataSet.getVisibleRange(
+                Math.min(pts[0], pts[2]) - xOffset - barWidthHalf,
+                Math.max(pts[0], pts[2]) - xOffset + barWidthHalf,
+                mVisibleRange);
+    }
+
+    /**
+     * Feeds the entries [from, to) into the buffer. If the DataSet has a level-of-detail
+     * pyramid and the current scale picks a coarser level, the aggregated buckets
+     * covering the range are fed. Otherwise, if a sampler is set and the range holds
+     * more entries than the sampler would emit for the content width, only the
+     * sampled entries are fed.
+     * <p>
+     * 构建矩形，数据过多时先使用聚合层级或降采样
+     *
+     * @param buffer
+     * @param dataSet
+     * @param from
+     * @param to
+     */
+    protected void feedBuffer(BarRectBuffer buffer, BarEntrySet dataSet, int from, int to) {
+        BarLodPyramid pyramid = dataSet.getLodPyramid();
+        if (pyramid != null && dataSet.isSortedX()) {
+            int level = pyramid.selectLevel(mPixelsPerValueX, mLodTargetPixels);
+            if (level > 0) {
+                int entriesPerBucket = pyramid.getEntriesPerBucket(level);
+                int toBucket = Math.min((to + entriesPerBucket - 1) / entriesPerBucket,
+                        pyramid.getBucketCount(level));
+                buffer.feedLod(pyramid, level, from / entriesPerBucket, toBucket);
+                return;
+            }
+        }
+        if (mSampler != null && dataSet.isSortedX()) {
+            // one bucket per pixel column
+            int buckets = (int) Math.ceil(mViewPort.contentWidth());
+            int maxSamples = mSampler.getMaxSampleCount(buckets);
+            if (buckets > 0 && to - from > maxSamples) {
+                int[] indices = buffer.obtainEntryIndices(maxSamples);
+                int count = mSampler.sample(dataSet, from, to, buckets, indices);
+                buffer.feedSampled(dataSet, count);
+                return;
+            }
+        }
+        buffer.feed(dataSet, from, to);
+    }
+
+    protected void drawDataSet(IChartCanvas c, BarEntrySet dataSet, int index) {
 
 
         Transformer trans = mChart.getTransformer();
 
-        float phaseX = mChart.mAnimator.getPhaseX();
-        float phaseY = mChart.mAnimator.getPhaseY();
+        float phaseX = mChart.getAnimator().getPhaseX();
+        float phaseY = mChart.getAnimator().getPhaseY();
 
         // initialize the buffer
         BarRectBuffer buffer = mBarRectBuffers[index];
-        buffer.setPhases(phaseX, phaseY);
-        buffer.setDataSet(index);
-        buffer.setBarWidth(mChart.getBarData().getBarWidth());
+        BarData barData = mChart.getBarData();
+        buffer.setBarWidth(barData.getBarWidth());
+        // cached by BarData, a changed offset invalidates the buffer
+        buffer.setXOffset(barData.getGroupOffset(index));
+
+        BarTransition transition = mTransitions != null && index < mTransitions.length
+                ? mTransitions[index] : null;
+        if (transition != null && transition.isFinished()) {
+            // the tweened slots are rebuilt from the final values once
+            mTransitions[index] = null;
+            transition = null;
+            buffer.invalidate();
+        }
 
-        buffer.feed(dataSet);
+        // data, phases and matrix unchanged: the buffer still holds the pixels of the last frame
+        int dataGeneration = dataSet.getGeneration();
+        int phaseGeneration = mChart.getAnimator().getGeneration();
+        int matrixGeneration = trans.getGeneration();
+        if (!buffer.isUpToDate(dataSet, dataGeneration, phaseGeneration, matrixGeneration, mConfigGeneration)) {
+            buffer.setPhases(phaseX, phaseY);
+            buffer.setDataSet(index);
+
+            // only the visible slice is fed and drawn
+            computeVisibleRange(dataSet, buffer.getXOffset());
+            feedBuffer(buffer, dataSet, mVisibleRange[0], mVisibleRange[1]);
+
+            // only the fed part of the buffer, proportional to the visible bars
+            trans.pointValuesToPixel(buffer.buffer, 0, buffer.size() / 2);
+            buffer.setUpToDate(dataSet, dataGeneration, phaseGeneration, matrixGeneration, mConfigGeneration);
+        }
 
-        trans.pointValuesToPixel(buffer.buffer);
+        // only the slots of the tweened bars are rewritten while a transition runs
+        if (transition != null) {
+            applyTransition(buffer, dataSet, transition, trans);
+        }
 
-        final boolean isSingleColor = dataSet.getColors().size() == 1;
+        if (mCoalesceEnabled && buffer.size() >= 4
+                && buffer.buffer[2] - buffer.buffer[0] < mCoalesceThresholdPx) {
+            drawCoalesced(c, dataSet, buffer);
+        } else {
+            if (mBatchedDrawing && mBatchLines.length < buffer.size()) {
+                mBatchLines = new float[buffer.size()];
+            }
+            if (dataSet.isSingleColor()) {
+                setBarColor(c, dataSet.getColor());
+
+                for (int j = 0; j < buffer.size(); j += 4) {
+
+                    if (!mViewPort.isInBoundsLeft(buffer.buffer[j + 2]))
+                        continue;
 
-        if (isSingleColor) {
-            mRenderPaint.setColor(dataSet.getColor());
+                    if (!mViewPort.isInBoundsRight(buffer.buffer[j]))
+                        break;
+
+                    drawRect(c, buffer, j / 4);
+                }
+            } else {
+                drawRectsByColor(c, dataSet, buffer);
+            }
+            flushBars(c);
+        }
+
+        if (transition != null && transition.getRemovedCount() > 0) {
+            drawRemovedBars(c, dataSet, buffer, transition, trans);
         }
+    }
 
+    // 当前像素列内每种颜色的范围
+    protected final int[] mColumnColors = new int[MAX_COLOR_GROUPS];
+    protected final float[] mColumnTops = new float[MAX_COLOR_GROUPS];
+    protected final float[] mColumnBottoms = new float[MAX_COLOR_GROUPS];
+    protected int mColumnColorCount = 0;
+
+    /**
+     * Draws the visible rectangles merged per device pixel column and color, see
+     * setSubPixelCoalescing(). The buffer is walked once in x-order.
+     * <p>
+     * 按像素列合并绘制
+     *
+     * @param c
+     * @param dataSet
+     * @param buffer
+     */
+    protected void drawCoalesced(IChartCanvas c, BarEntrySet dataSet, BarRectBuffer buffer) {
+        final boolean isSingleColor = dataSet.isSingleColor();
+        final boolean isStacked = buffer.getRectsPerEntry() > 1;
+        final int singleColor = dataSet.getColor();
+        float[] rects = buffer.buffer;
+
+        mColumnColorCount = 0;
+        int column = 0;
+        for (int j = 0; j < buffer.size(); j += 4) {
+
+            if (!mViewPort.isInBoundsLeft(rects[j + 2]))
+                continue;
+
+            if (!mViewPort.isInBoundsRight(rects[j]))
+                break;
+
+            int col = (int) Math.floor((rects[j] + rects[j + 2]) / 2f);
+            if (col != column) {
+                flushColumn(c, column);
+                column = col;
+            }
+            int color;
+            if (isSingleColor) {
+                color = singleColor;
+            } else {
+                int rect = j / 4;
+                color = isStacked
+                        ? dataSet.getColor(buffer.getStackIndex(rect))
+                        : dataSet.getEntryColor(buffer.getEntryIndex(rect));
+            }
+            float top = Math.min(rects[j + 1], rects[j + 3]);
+            float bottom = Math.max(rects[j + 1], rects[j + 3]);
+
+            int slot = mColumnColorCount - 1;
+            while (slot >= 0 && mColumnColors[slot] != color) {
+                slot--;
+            }
+            if (slot >= 0) {
+                if (top < mColumnTops[slot]) mColumnTops[slot] = top;
+                if (bottom > mColumnBottoms[slot]) mColumnBottoms[slot] = bottom;
+                continue;
+            }
+            if (mColumnColorCount == MAX_COLOR_GROUPS) {
+                // too many colors in one column, draw what was merged so far
+                flushColumn(c, column);
+            }
+            mColumnColors[mColumnColorCount] = color;
+            mColumnTops[mColumnColorCount] = top;
+            mColumnBottoms[mColumnColorCount] = bottom;
+            mColumnColorCount++;
+        }
+        flushColumn(c, column);
+    }
+
+    private void flushColumn(IChartCanvas c, int column) {
+        for (int k = 0; k < mColumnColorCount; k++) {
+            mRenderPaint.setColor(mColumnColors[k]);
+            c.drawRect(column, mColumnTops[k], column + 1, mColumnBottoms[k], mRenderPaint);
+        }
+        mColumnColorCount = 0;
+    }
+
+    /**
+     * Rewrites the rectangles of the bars the transition tweens with their current
+     * value. Bars outside the fed slice, or fed sampled / aggregated / stacked, are
+     * drawn at their final value.
+     * <p>
+     * 更新过渡动画中的柱子
+     *
+     * @param buffer
+     * @param dataSet
+     * @param transition
+     * @param trans
+     */
+    protected void applyTransition(BarRectBuffer buffer, BarEntrySet dataSet,
+                                   BarTransition transition, Transformer trans) {
+        float[] rect = mRectScratch;
+        for (int k = 0; k < transition.getAnimatedCount(); k++) {
+            int entryIndex = transition.getAnimatedIndex(k);
+            int slot = buffer.getRectForEntry(entryIndex);
+            if (slot < 0) {
+                continue;
+            }
+            float y = transition.getAnimatedY(k, dataSet.getYForIndex(entryIndex));
+            buffer.buildRect(dataSet.getXForIndex(entryIndex), y, rect);
+            trans.pointValuesToPixel(rect);
+            System.arraycopy(rect, 0, buffer.buffer, slot * 4, 4);
+        }
+    }
+
+    /**
+     * Draws the bars the transition removes, shrinking at their old x-value.
+     *
+     * @param c
+     * @param dataSet
+     * @param buffer
+     * @param transition
+     * @param trans
+     */
+    protected void drawRemovedBars(IChartCanvas c, BarEntrySet dataSet, BarRectBuffer buffer,
+                                   BarTransition transition, Transformer trans) {
+        float[] rect = mRectScratch;
+        mRenderPaint.setColor(dataSet.getColor());
+        for (int r = 0; r < transition.getRemovedCount(); r++) {
+            buffer.buildRect(transition.getRemovedX(r), transition.getRemovedY(r), rect);
+            trans.pointValuesToPixel(rect);
+            if (!mViewPort.isInBoundsLeft(rect[2]) || !mViewPort.isInBoundsRight(rect[0]))
+                continue;
+            c.drawRect(rect[0], rect[1], rect[2], rect[3], mRenderPaint);
+        }
+    }
+
+    /**
+     * at most this many distinct colors are drawn grouped, more (e.g. a fine gradient)
+     * are drawn in order, changing the paint color only between different colors
+     */
+    protected static final int MAX_COLOR_GROUPS = 32;
+
+    // 按颜色分组绘制时复用的数组
+    protected int[] mRectOrder = new int[0];
+    protected int[] mRectColors = new int[0];
+    protected int[] mRectSlots = new int[0];
+    protected final int[] mGroupColors = new int[MAX_COLOR_GROUPS];
+    protected final int[] mGroupStarts = new int[MAX_COLOR_GROUPS + 1];
+
+    /**
+     * Draws the visible rectangles of a multi-colored DataSet grouped by color, so the
+     * paint color is set once per color instead of once per bar. The rectangles are
+     * ordered with a counting sort over the colors, without allocating.
+     * <p>
+     * 按颜色分组绘制矩形
+     *
+     * @param c
+     * @param dataSet
+     * @param buffer
+     */
+    protected void drawRectsByColor(IChartCanvas c, BarEntrySet dataSet, BarRectBuffer buffer) {
+        int rectCount = buffer.size() / 4;
+        if (mRectColors.length < rectCount) {
+            mRectOrder = new int[rectCount];
+            mRectColors = new int[rectCount];
+            mRectSlots = new int[rectCount];
+        }
+        // stacked bars are colored per segment
+        final boolean isStacked = buffer.getRectsPerEntry() > 1;
+
+        // collect the visible rectangles and their colors
+        int visible = 0;
+        int groups = 0;
+        boolean grouped = true;
         for (int j = 0; j < buffer.size(); j += 4) {
 
             if (!mViewPort.isInBoundsLeft(buffer.buffer[j + 2]))
@@ -114,26 +642,123 @@ public class BarChartRenderer extends Renderer {
             if (!mViewPort.isInBoundsRight(buffer.buffer[j]))
                 break;
 
-            if (!isSingleColor) {
-                // Set the color for the currently drawn value. If the index
-                // is out of bounds, reuse colors.
-                mRenderPaint.setColor(dataSet.getColor(j / 4));
+            int rect = j / 4;
+            int color = isStacked
+                    ? dataSet.getColor(buffer.getStackIndex(rect))
+                    : dataSet.getEntryColor(buffer.getEntryIndex(rect));
+            mRectOrder[visible] = rect;
+            mRectColors[visible] = color;
+            if (grouped) {
+                int slot = groups - 1;
+                while (slot >= 0 && mGroupColors[slot] != color) {
+                    slot--;
+                }
+                if (slot < 0) {
+                    if (groups == MAX_COLOR_GROUPS) {
+                        grouped = false;
+                    } else {
+                        slot = groups;
+                        mGroupColors[groups++] = color;
+                    }
+                }
+                mRectSlots[visible] = slot;
             }
+            visible++;
+        }
 
+        if (!grouped) {
+            for (int k = 0; k < visible; k++) {
+                if (k == 0 || mRectColors[k] != mRectColors[k - 1]) {
+                    setBarColor(c, mRectColors[k]);
+                }
+                drawRect(c, buffer, mRectOrder[k]);
+            }
+            return;
+        }
+
+        // counting sort: start of every color group, mRectColors is reused for the order
+        for (int g = 0; g <= groups; g++) {
+            mGroupStarts[g] = 0;
+        }
+        for (int k = 0; k < visible; k++) {
+            mGroupStarts[mRectSlots[k] + 1]++;
+        }
+        for (int g = 1; g <= groups; g++) {
+            mGroupStarts[g] += mGroupStarts[g - 1];
+        }
+        int[] sorted = mRectColors;
+        for (int k = 0; k < visible; k++) {
+            sorted[mGroupStarts[mRectSlots[k]]++] = mRectOrder[k];
+        }
+        // mGroupStarts[g] now holds the end of group g
+        int start = 0;
+        for (int g = 0; g < groups; g++) {
+            setBarColor(c, mGroupColors[g]);
+            for (int k = start; k < mGroupStarts[g]; k++) {
+                drawRect(c, buffer, sorted[k]);
+            }
+            start = mGroupStarts[g];
+        }
+    }
+
+    private void drawRect(IChartCanvas c, BarRectBuffer buffer, int rect) {
+        int j = rect * 4;
+        if (!mBatchedDrawing) {
             c.drawRect(buffer.buffer[j], buffer.buffer[j + 1], buffer.buffer[j + 2],
                     buffer.buffer[j + 3], mRenderPaint);
+            return;
+        }
+        float left = buffer.buffer[j];
+        float right = buffer.buffer[j + 2];
+        float width = right - left;
+        if (Math.abs(width - mBatchWidth) > BATCH_WIDTH_TOLERANCE) {
+            // one stroke width per drawLines call, rounding noise of the transform is ignored
+            flushBars(c);
+            mBatchWidth = width;
+        }
+        float x = (left + right) / 2f;
+        mBatchLines[mBatchSize++] = x;
+        mBatchLines[mBatchSize++] = buffer.buffer[j + 1];
+        mBatchLines[mBatchSize++] = x;
+        mBatchLines[mBatchSize++] = buffer.buffer[j + 3];
+    }
 
+    /**
+     * Changes the color of the following bars, draws the batch collected so far.
+     *
+     * @param c
+     * @param color
+     */
+    private void setBarColor(IChartCanvas c, int color) {
+        flushBars(c);
+        mRenderPaint.setColor(color);
+    }
+
+    /**
+     * Draws the collected batch with one drawLines call.
+     * <p>
+     * 提交当前批次
+     *
+     * @param c
+     */
+    private void flushBars(IChartCanvas c) {
+        if (mBatchSize == 0) {
+            return;
         }
+        mBatchPaint.setColor(mRenderPaint.getColor());
+        mBatchPaint.setStrokeWidth(Math.abs(mBatchWidth));
+        c.drawLines(mBatchLines, 0, mBatchSize, mBatchPaint);
+        mBatchSize = 0;
     }
 
-    public void drawValues(Canvas c) {
+    public void drawValues(IChartCanvas c) {
 
         // if values are drawn
         if (isDrawingValuesAllowed(mChart)) {
 
             List<BarEntrySet> dataSets = mChart.getBarData().getDataSets();
 
-            final float valueOffsetPlus = Utils.convertDpToPixel(4.5f);
+            final float valueOffsetPlus = 4.5f * mDensity;
             float posOffset = 0f;
             float negOffset = 0f;
             boolean drawValueAboveBar = mChart.isDrawValueAboveBarEnabled();
@@ -154,31 +779,49 @@ public class BarChartRenderer extends Renderer {
                 posOffset = (drawValueAboveBar ? -valueOffsetPlus : valueTextHeight + valueOffsetPlus);
                 negOffset = (drawValueAboveBar ? valueTextHeight + valueOffsetPlus : -valueOffsetPlus);
 
-                // get the buffer
+                // get the buffer, it holds the visible (sampled) bars fed by drawDataSet()
                 BarRectBuffer buffer = mBarRectBuffers[i];
 
+                // aggregated buckets have no single value to draw
+                if (buffer.getLodLevel() > 0)
+                    continue;
+
+                // one value per entry, drawn at the ends of the whole stack
+                int step = buffer.getRectsPerEntry() * 4;
+
+                // null: the DataSet has a String formatter
+                IValueTextFormatter textFormatter = dataSet.getValueTextFormatter();
 
                 //
-                for (int j = 0; j < buffer.buffer.length; j += 4) {
+                for (int j = 0; j < buffer.size(); j += step) {
 
                     float x = (buffer.buffer[j] + buffer.buffer[j + 2]) / 2f;
 
                     if (!mViewPort.isInBoundsRight(x))
                         break;
 
-                    if (!mViewPort.isInBoundsY(buffer.buffer[j + 1])
+                    float top = buffer.buffer[j + 1];
+                    float bottom = buffer.buffer[j + 3];
+                    for (int k = j + 4; k < j + step; k += 4) {
+                        top = Math.min(top, buffer.buffer[k + 1]);
+                        bottom = Math.max(bottom, buffer.buffer[k + 3]);
+                    }
+
+                    if (!mViewPort.isInBoundsY(top)
                             || !mViewPort.isInBoundsLeft(x))
                         continue;
 
-                    BarEntry entry = dataSet.getEntryForIndex(j / 4);
-                    float val = entry.getY();
-
-                    if (dataSet.isDrawValuesEnabled()) {
-                        drawValue(c, dataSet.getValueFormatter(), val, entry, i, x,
-                                val >= 0 ?
-                                        (buffer.buffer[j + 1] + posOffset) :
-                                        (buffer.buffer[j + 3] + negOffset),
-                                dataSet.getValueTextColor(j / 4));
+                    int entryIndex = buffer.getEntryIndex(j / 4);
+                    float val = dataSet.getYForIndex(entryIndex);
+                    float y = val >= 0 ? (top + posOffset) : (bottom + negOffset);
+
+                    if (textFormatter != null) {
+                        drawValue(c, textFormatter, val, entryIndex, i, x, y,
+                                dataSet.getValueTextColor(entryIndex));
+                    } else {
+                        BarEntry entry = dataSet.getEntryForIndex(entryIndex);
+                        drawValue(c, dataSet.getValueFormatter(), val, entry, i, x, y,
+                                dataSet.getValueTextColor(entryIndex));
                     }
                 }
             }
@@ -196,8 +839,8 @@ public class BarChartRenderer extends Renderer {
     }
 
 
-    protected boolean isDrawingValuesAllowed(BarChartView chart) {
-        return chart.getData().getEntryCount() < chart.getMaxVisibleCount();
+    protected boolean isDrawingValuesAllowed(IBarDataProvider chart) {
+        return chart.getBarData().getEntryCount() < chart.getMaxVisibleCount();
     }
 
 
@@ -224,9 +867,35 @@ public class BarChartRenderer extends Renderer {
      * @param y            position
      * @param color
      */
-    public void drawValue(Canvas c, IValueFormatter formatter, float value, BarEntry entry, int dataSetIndex, float x, float y, int color) {
+    public void drawValue(IChartCanvas c, IValueFormatter formatter, float value, BarEntry entry, int dataSetIndex, float x, float y, int color) {
         mValuePaint.setColor(color);
         c.drawText(formatter.getFormattedValue(value, entry, dataSetIndex, mViewPort), x, y, mValuePaint);
     }
 
+    /**
+     * characters of the value label currently drawn, reused for every label
+     */
+    protected final char[] mValueChars = new char[IValueTextFormatter.MAX_LENGTH];
+
+    /**
+     * Draws the value of the given entry with an allocation-free formatter.
+     * <p>
+     * 绘制数值 不创建String
+     *
+     * @param c            canvas
+     * @param formatter
+     * @param value        the value to be drawn
+     * @param entryIndex   the index of the entry in its DataSet
+     * @param dataSetIndex the index of the DataSet the drawn Entry belongs to
+     * @param x            position
+     * @param y            position
+     * @param color
+     */
+    public void drawValue(IChartCanvas c, IValueTextFormatter formatter, float value, int entryIndex,
+                          int dataSetIndex, float x, float y, int color) {
+        mValuePaint.setColor(color);
+        int length = formatter.format(value, entryIndex, dataSetIndex, mValueChars);
+        c.drawText(mValueChars, 0, length, x, y, mValuePaint);
+    }
+
 }
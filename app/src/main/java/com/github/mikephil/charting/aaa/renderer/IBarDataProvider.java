@@ -0,0 +1,29 @@
+package com.github.mikephil.charting.aaa.renderer;
+
+import com.github.mikephil.charting.aaa.anima.ChartAnimator;
+import com.github.mikephil.charting.aaa.model.bar.BarData;
+import com.github.mikephil.charting.aaa.utils.Transformer;
+
+/**
+ * What the BarChartRenderer needs from its chart. Implemented by BarChartView,
+ * a plain implementation lets the renderer run without a View.
+ * <p>
+ * 渲染器所需的图表数据
+ */
+public interface IBarDataProvider {
+
+    BarData getBarData();
+
+    Transformer getTransformer();
+
+    ChartAnimator getAnimator();
+
+    boolean isDrawValueAboveBarEnabled();
+
+    /**
+     * Returns the maximum number of entries values are drawn for.
+     *
+     * @return
+     */
+    int getMaxVisibleCount();
+}
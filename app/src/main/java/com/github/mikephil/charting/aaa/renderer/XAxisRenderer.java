@@ -1,12 +1,10 @@
 
 package com.github.mikephil.charting.aaa.renderer;
 
-import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.Paint.Align;
-import android.graphics.Rect;
 
+import com.github.mikephil.charting.aaa.canvas.ChartPaint;
+import com.github.mikephil.charting.aaa.canvas.IChartCanvas;
 import com.github.mikephil.charting.aaa.model.axis.XAxis;
 import com.github.mikephil.charting.aaa.utils.Transformer;
 import com.github.mikephil.charting.aaa.utils.Utils;
@@ -22,7 +20,7 @@ public class XAxisRenderer extends AxisRenderer {
         this.mXAxis = xAxis;
         //
         mAxisLabelPaint.setColor(Color.BLACK);
-        mAxisLabelPaint.setTextAlign(Align.CENTER);
+        mAxisLabelPaint.setTextAlign(ChartPaint.Align.CENTER);
         mAxisLabelPaint.setTextSize(Utils.convertDpToPixel(10f));
     }
 
@@ -48,7 +46,7 @@ public class XAxisRenderer extends AxisRenderer {
     }
 
     @Override
-    public void renderAxisLabels(Canvas c) {
+    public void renderAxisLabels(IChartCanvas c) {
         //
         if (!mXAxis.isEnabled() || !mXAxis.isDrawLabelsEnabled()) {
             return;
@@ -67,7 +65,7 @@ public class XAxisRenderer extends AxisRenderer {
      * @param c
      */
     @Override
-    public void renderAxisLine(Canvas c) {
+    public void renderAxisLine(IChartCanvas c) {
         // 是否绘制的判断
         if (!mXAxis.isEnabled()) {
             return;
@@ -84,6 +82,8 @@ public class XAxisRenderer extends AxisRenderer {
                 mViewPort.contentBottom(), mAxisLinePaint);
     }
 
+    protected float[] mLabelPositionsBuffer = new float[0];
+
     /**
      * draws the x-labels on the specified y-position
      * <p>
@@ -91,11 +91,15 @@ public class XAxisRenderer extends AxisRenderer {
      *
      * @param pos
      */
-    protected void drawLabels(Canvas c, float pos) {
+    protected void drawLabels(IChartCanvas c, float pos) {
         // value转化为坐标点
-        float[] positions = new float[mXAxis.mEntryCount * 2];
+        if (mLabelPositionsBuffer.length != mXAxis.mEntryCount * 2) {
+            mLabelPositionsBuffer = new float[mXAxis.mEntryCount * 2];
+        }
+        float[] positions = mLabelPositionsBuffer;
         for (int i = 0; i < positions.length; i += 2) {
             positions[i] = mXAxis.mEntries[i / 2];
+            positions[i + 1] = 0f;
         }
         mTrans.pointValuesToPixel(positions);
         // 绘制坐标点
@@ -117,33 +121,31 @@ public class XAxisRenderer extends AxisRenderer {
      * @param x
      * @param y
      */
-    protected void drawLabel(Canvas c, String formattedLabel, float x, float y) {
+    protected void drawLabel(IChartCanvas c, String formattedLabel, float x, float y) {
         drawXAxisValue(c, formattedLabel, x, y, mAxisLabelPaint);
     }
 
 
-    private Rect mDrawTextRectBuffer = new Rect();
-    private Paint.FontMetrics mFontMetricsBuffer = new Paint.FontMetrics();
-    public void drawXAxisValue(Canvas c,
+    public void drawXAxisValue(IChartCanvas c,
                                       String text,
                                       float x, float y,
-                                      Paint paint) {
+                                      ChartPaint paint) {
 
         float drawOffsetX = 0.f;
         float drawOffsetY = 0.f;
 
-        paint.getFontMetrics(mFontMetricsBuffer);
-        paint.getTextBounds(text, 0, text.length(), mDrawTextRectBuffer);
+        float ascent = paint.getAscent();
+        int textWidth = paint.getTextBoundsWidth(text);
         // To have a consistent point of reference, we always draw left-aligned
-        paint.setTextAlign(Paint.Align.LEFT);
+        paint.setTextAlign(ChartPaint.Align.LEFT);
 
 
         // Android does not snap the bounds to line boundaries,
         //  and draws from bottom to top.
         // And we want to normalize it.
-        drawOffsetY += -mFontMetricsBuffer.ascent;
+        drawOffsetY += -ascent;
         //
-        drawOffsetX -= mDrawTextRectBuffer.width() * 0.5f;
+        drawOffsetX -= textWidth * 0.5f;
         //
         drawOffsetX += x;
         drawOffsetY += y;
@@ -1,9 +1,9 @@
 package com.github.mikephil.charting.aaa.renderer;
 
-import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Paint.Align;
 
+import com.github.mikephil.charting.aaa.canvas.ChartPaint;
+import com.github.mikephil.charting.aaa.canvas.IChartCanvas;
 import com.github.mikephil.charting.aaa.utils.ViewPort;
 import com.github.mikephil.charting.aaa.model.axis.YAxis;
 import com.github.mikephil.charting.aaa.utils.Transformer;
@@ -33,7 +33,7 @@ public class YAxisRenderer extends AxisRenderer {
      * draws the y-axis labels to the screen
      */
     @Override
-    public void renderAxisLabels(Canvas c) {
+    public void renderAxisLabels(IChartCanvas c) {
         //
         if (!mYAxis.isEnabled() || !mYAxis.isDrawLabelsEnabled()) {
             return;
@@ -42,7 +42,7 @@ public class YAxisRenderer extends AxisRenderer {
         mAxisLabelPaint.setTextSize(mYAxis.getTextSize());
         // 文字颜色
         mAxisLabelPaint.setColor(mYAxis.getTextColor());
-        mAxisLabelPaint.setTextAlign(Align.RIGHT);
+        mAxisLabelPaint.setTextAlign(ChartPaint.Align.RIGHT);
 
         //
         float[] positions = getTransformedPositions();
@@ -61,7 +61,7 @@ public class YAxisRenderer extends AxisRenderer {
      * @param c
      */
     @Override
-    public void renderAxisLine(Canvas c) {
+    public void renderAxisLine(IChartCanvas c) {
 
         if (!mYAxis.isEnabled()) {
             return;
@@ -84,7 +84,7 @@ public class YAxisRenderer extends AxisRenderer {
      * @param fixedPosition
      * @param positions
      */
-    protected void drawYLabels(Canvas c, float fixedPosition, float[] positions, float offset) {
+    protected void drawYLabels(IChartCanvas c, float fixedPosition, float[] positions, float offset) {
 
         final int from = mYAxis.isDrawBottomYLabelEntryEnabled() ? 0 : 1;
         final int to = mYAxis.isDrawTopYLabelEntryEnabled()
@@ -101,6 +101,14 @@ public class YAxisRenderer extends AxisRenderer {
     }
 
 
+    @Override
+    protected int getLayerFlags() {
+        return super.getLayerFlags()
+                | (mYAxis.isDrawBottomYLabelEntryEnabled() ? 4 : 0)
+                | (mYAxis.isDrawTopYLabelEntryEnabled() ? 8 : 0);
+    }
+
+
     protected float[] mGetTransformedPositionsBuffer = new float[2];
 
     /**
@@ -0,0 +1,36 @@
+package com.github.mikephil.charting.aaa.sampling;
+
+import com.github.mikephil.charting.aaa.model.bar.BarEntrySet;
+
+/**
+ * Interface for a downsampling stage that runs between the BarEntrySet and the
+ * BarRectBuffer. It picks the entries worth drawing, so the work per frame is
+ * bounded by the number of pixels instead of the number of entries.
+ * <p>
+ * 降采样
+ */
+public interface IBarSampler {
+
+    /**
+     * Returns the largest number of indices sample() can write for the given
+     * number of buckets. The renderer only samples if the visible range holds more
+     * entries than this.
+     *
+     * @param buckets number of buckets, usually the content width in pixels
+     * @return
+     */
+    int getMaxSampleCount(int buckets);
+
+    /**
+     * Selects the entries of [from, to) that should be drawn and writes their indices
+     * in ascending order to indices.
+     *
+     * @param set     the DataSet, its x-values are expected to be sorted
+     * @param from    first entry index (inclusive)
+     * @param to      last entry index (exclusive)
+     * @param buckets number of buckets, usually the content width in pixels
+     * @param indices receives the selected entry indices, at least getMaxSampleCount(buckets) long
+     * @return the number of indices written
+     */
+    int sample(BarEntrySet set, int from, int to, int buckets, int[] indices);
+}
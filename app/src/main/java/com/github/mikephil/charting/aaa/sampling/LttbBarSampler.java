@@ -0,0 +1,96 @@
+package com.github.mikephil.charting.aaa.sampling;
+
+import com.github.mikephil.charting.aaa.model.bar.BarEntrySet;
+
+/**
+ * Largest-Triangle-Three-Buckets sampler (Steinarsson 2013). The first and the last
+ * entry are always kept. Every bucket in between contributes the one entry that
+ * forms the largest triangle with the entry picked before it and the average of
+ * the next bucket. This keeps the visual shape with one bar per bucket.
+ * <p>
+ * LTTB 降采样
+ */
+public class LttbBarSampler implements IBarSampler {
+
+    @Override
+    public int getMaxSampleCount(int buckets) {
+        return Math.max(buckets, 2);
+    }
+
+    @Override
+    public int sample(BarEntrySet set, int from, int to, int buckets, int[] indices) {
+        final int size = to - from;
+        final int threshold = getMaxSampleCount(buckets);
+
+        if (size <= threshold) {
+            for (int i = 0; i < size; i++) {
+                indices[i] = from + i;
+            }
+            return Math.max(size, 0);
+        }
+
+        int count = 0;
+        // 第一个点
+        int a = from;
+        indices[count++] = a;
+
+        // the first and last entry are kept, the rest is split into threshold - 2 buckets
+        final double every = (double) (size - 2) / (threshold - 2);
+
+        for (int b = 0; b < threshold - 2; b++) {
+
+            // average of the next bucket, used as the third corner of the triangle
+            int avgStart = from + (int) Math.floor((b + 1) * every) + 1;
+            int avgEnd = Math.min(from + (int) Math.floor((b + 2) * every) + 1, to);
+            float avgX = 0f;
+            float avgY = 0f;
+            int avgCount = 0;
+            for (int i = avgStart; i < avgEnd; i++) {
+                float y = set.getYForIndex(i);
+                if (Float.isNaN(y)) {
+                    continue;
+                }
+                avgX += set.getXForIndex(i);
+                avgY += y;
+                avgCount++;
+            }
+            if (avgCount > 0) {
+                avgX /= avgCount;
+                avgY /= avgCount;
+            } else {
+                avgX = set.getXForIndex(to - 1);
+                avgY = set.getYForIndex(to - 1);
+            }
+
+            // the current bucket
+            int rangeStart = from + (int) Math.floor(b * every) + 1;
+            int rangeEnd = from + (int) Math.floor((b + 1) * every) + 1;
+
+            float ax = set.getXForIndex(a);
+            float ay = set.getYForIndex(a);
+
+            float maxArea = -1f;
+            int next = rangeStart;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                float y = set.getYForIndex(i);
+                if (Float.isNaN(y)) {
+                    continue;
+                }
+                // twice the triangle area, the factor does not matter for the comparison
+                float area = Math.abs((ax - avgX) * (y - ay)
+                        - (ax - set.getXForIndex(i)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = i;
+                }
+            }
+
+            indices[count++] = next;
+            a = next;
+        }
+
+        // 最后一个点
+        indices[count++] = to - 1;
+        return count;
+    }
+}
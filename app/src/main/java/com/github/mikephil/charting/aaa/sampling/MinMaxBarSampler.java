@@ -0,0 +1,72 @@
+package com.github.mikephil.charting.aaa.sampling;
+
+import com.github.mikephil.charting.aaa.model.bar.BarEntrySet;
+
+/**
+ * Pixel-bucket min / max sampler. The visible x-range is split into one bucket per
+ * pixel column, and of every bucket only the entries with the smallest and the
+ * largest y-value are kept. The outline of the drawn bars stays exactly the same.
+ * <p>
+ * 每个像素只保留最大值与最小值
+ */
+public class MinMaxBarSampler implements IBarSampler {
+
+    @Override
+    public int getMaxSampleCount(int buckets) {
+        return buckets * 2;
+    }
+
+    @Override
+    public int sample(BarEntrySet set, int from, int to, int buckets, int[] indices) {
+        if (to <= from || buckets <= 0) {
+            return 0;
+        }
+        final float xStart = set.getXForIndex(from);
+        final float xRange = set.getXForIndex(to - 1) - xStart;
+        // x-values per bucket, all entries land in bucket 0 if the range is empty
+        final float bucketScale = xRange > 0f ? buckets / xRange : 0f;
+
+        int count = 0;
+        int bucket = -1;
+        int minIndex = -1;
+        int maxIndex = -1;
+
+        for (int i = from; i < to; i++) {
+            float y = set.getYForIndex(i);
+            if (Float.isNaN(y)) {
+                continue;
+            }
+            int b = Math.min((int) ((set.getXForIndex(i) - xStart) * bucketScale), buckets - 1);
+            if (b != bucket) {
+                count = flush(indices, count, minIndex, maxIndex);
+                bucket = b;
+                minIndex = i;
+                maxIndex = i;
+                continue;
+            }
+            if (y < set.getYForIndex(minIndex)) {
+                minIndex = i;
+            }
+            if (y > set.getYForIndex(maxIndex)) {
+                maxIndex = i;
+            }
+        }
+        return flush(indices, count, minIndex, maxIndex);
+    }
+
+    /**
+     * Writes the min and max index of a bucket in ascending order.
+     */
+    private static int flush(int[] indices, int count, int minIndex, int maxIndex) {
+        if (minIndex < 0) {
+            return count;
+        }
+        if (minIndex == maxIndex) {
+            indices[count++] = minIndex;
+        } else {
+            indices[count++] = Math.min(minIndex, maxIndex);
+            indices[count++] = Math.max(minIndex, maxIndex);
+        }
+        return count;
+    }
+}
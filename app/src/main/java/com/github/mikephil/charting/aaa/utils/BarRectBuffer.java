@@ -1,8 +1,9 @@
 
 package com.github.mikephil.charting.aaa.utils;
 
-import com.github.mikephil.charting.aaa.model.bar.BarEntry;
 import com.github.mikephil.charting.aaa.model.bar.BarEntrySet;
+import com.github.mikephil.charting.aaa.model.bar.BarLodPyramid;
+import com.github.mikephil.charting.aaa.model.bar.StackedBarEntrySet;
 
 /**
  * 由坐标点，转化为要绘制的矩形
@@ -18,7 +19,37 @@ public class BarRectBuffer {
     /**
      * float-buffer that holds the data points to draw, order: left,top,right,bottom
      */
-    public final float[] buffer;
+    public float[] buffer;
+
+    /**
+     * number of floats written by the last feed(), the buffer may be larger
+     */
+    protected int mSize = 0;
+
+    /**
+     * index of the entry the first rectangle in the buffer belongs to
+     */
+    protected int mFirstEntryIndex = 0;
+
+    /**
+     * entry indices of the rectangles after sampling, see feedSampled()
+     */
+    protected int[] mEntryIndices = new int[0];
+
+    /**
+     * number of valid mEntryIndices, -1 if the buffer holds a contiguous slice
+     */
+    protected int mEntryIndexCount = -1;
+
+    /**
+     * pyramid level the rectangles were built from, 0 for single entries
+     */
+    protected int mLodLevel = 0;
+
+    /**
+     * number of rectangles per entry: the stack size for stacked DataSets, else 1
+     */
+    protected int mRectsPerEntry = 1;
 
 
     protected int mDataSetIndex = 0;
@@ -30,6 +61,27 @@ public class BarRectBuffer {
      */
     protected float mBarWidth = 1f;
 
+    /**
+     * x-offset (in values) added to every rectangle, used by the grouped layout
+     * <p>
+     * 分组柱状图的X偏移
+     */
+    protected float mXOffset = 0f;
+
+
+    /**
+     * stamps the pixel rectangles in the buffer were built with, see isUpToDate()
+     * <p>
+     * 缓存的版本号
+     */
+    protected BarEntrySet mCachedDataSet = null;
+    protected int mCachedDataGeneration;
+    protected int mCachedPhaseGeneration;
+    protected int mCachedMatrixGeneration;
+    protected int mCachedConfigGeneration;
+    protected float mCachedBarWidth;
+    protected float mCachedXOffset;
+
 
     /** animation phase x-axis */
     protected float phaseX = 1f;
@@ -63,46 +115,360 @@ public class BarRectBuffer {
         buffer[index++] = bottom;
     }
 
+    /**
+     * Makes sure the buffer can hold at least the given number of floats. The buffer
+     * is only reallocated if it is too small, so a growing or streaming DataSet
+     * reuses it from frame to frame.
+     *
+     * @param size BarEntrySet.getEntryCount() * 4
+     */
+    public void ensureCapacity(int size) {
+        if (buffer.length < size) {
+            buffer = new float[Math.max(size, buffer.length + (buffer.length >> 1))];
+            invalidate();
+        }
+    }
+
+    /**
+     * Returns true if the buffer still holds the pixel rectangles built for the given
+     * DataSet and stamps, so feeding and transforming it again can be skipped.
+     * <p>
+     * 缓存是否有效
+     *
+     * @param set
+     * @param dataGeneration   BarEntrySet.getGeneration()
+     * @param phaseGeneration  ChartAnimator.getGeneration()
+     * @param matrixGeneration Transformer.getGeneration()
+     * @param configGeneration generation of the renderer settings (sampler, LOD)
+     * @return
+     */
+    public boolean isUpToDate(BarEntrySet set, int dataGeneration, int phaseGeneration,
+                              int matrixGeneration, int configGeneration) {
+        return mCachedDataSet == set
+                && mCachedDataGeneration == dataGeneration
+                && mCachedPhaseGeneration == phaseGeneration
+                && mCachedMatrixGeneration == matrixGeneration
+                && mCachedConfigGeneration == configGeneration
+                && mCachedBarWidth == mBarWidth
+                && mCachedXOffset == mXOffset;
+    }
+
+    /**
+     * Remembers the stamps the pixel rectangles currently in the buffer were built with.
+     *
+     * @param set
+     * @param dataGeneration
+     * @param phaseGeneration
+     * @param matrixGeneration
+     * @param configGeneration
+     */
+    public void setUpToDate(BarEntrySet set, int dataGeneration, int phaseGeneration,
+                            int matrixGeneration, int configGeneration) {
+        mCachedDataSet = set;
+        mCachedDataGeneration = dataGeneration;
+        mCachedPhaseGeneration = phaseGeneration;
+        mCachedMatrixGeneration = matrixGeneration;
+        mCachedConfigGeneration = configGeneration;
+        mCachedBarWidth = mBarWidth;
+        mCachedXOffset = mXOffset;
+    }
+
+    /**
+     * Forgets the cached rectangles, the next draw feeds the buffer again.
+     */
+    public void invalidate() {
+        mCachedDataSet = null;
+    }
+
     /**
      * @param data
      */
     public void feed(BarEntrySet data) {
-        // 矩形的数量
-        float size = data.getEntryCount();
+        feed(data, 0, data.getEntryCount());
+    }
+
+    /**
+     * Builds the rectangles of the entries [from, to) only. The rectangles are written
+     * to the start of the buffer, rectangle k belongs to entry getFirstEntryIndex() + k.
+     * <p>
+     * 只构建可见区域内的矩形
+     *
+     * @param data
+     * @param from first entry index (inclusive)
+     * @param to   last entry index (exclusive)
+     */
+    public void feed(BarEntrySet data, int from, int to) {
+        mRectsPerEntry = getRectsPerEntry(data);
+        ensureCapacity((to - from) * 4 * mRectsPerEntry);
+        mFirstEntryIndex = from;
         // 矩形 宽的一半
         float barWidthHalf = mBarWidth / 2f;
         //
-        for (int i = 0; i < size; i++) {
-            BarEntry e = data.getEntryForIndex(i);
-            //
-            if (e == null) {
+        mEntryIndexCount = -1;
+        mLodLevel = 0;
+        if (mRectsPerEntry > 1) {
+            StackedBarEntrySet stacked = (StackedBarEntrySet) data;
+            for (int i = from; i < to; i++) {
+                addStackedEntry(stacked, i, barWidthHalf);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                addEntry(data, i, barWidthHalf);
+            }
+        }
+        //
+        mSize = index;
+        reset();
+    }
+
+    /**
+     * Builds the rectangles of the first count entry indices of getEntryIndices(),
+     * which a sampler has filled in ascending order. Rectangle k belongs to entry
+     * getEntryIndices()[k].
+     * <p>
+     * 只构建采样后的矩形
+     *
+     * @param data
+     * @param count
+     */
+    public void feedSampled(BarEntrySet data, int count) {
+        mRectsPerEntry = getRectsPerEntry(data);
+        ensureCapacity(count * 4 * mRectsPerEntry);
+        mFirstEntryIndex = count > 0 ? mEntryIndices[0] : 0;
+        mEntryIndexCount = count;
+        mLodLevel = 0;
+        // 矩形 宽的一半
+        float barWidthHalf = mBarWidth / 2f;
+        //
+        if (mRectsPerEntry > 1) {
+            StackedBarEntrySet stacked = (StackedBarEntrySet) data;
+            for (int k = 0; k < count; k++) {
+                addStackedEntry(stacked, mEntryIndices[k], barWidthHalf);
+            }
+        } else {
+            for (int k = 0; k < count; k++) {
+                addEntry(data, mEntryIndices[k], barWidthHalf);
+            }
+        }
+        //
+        mSize = index;
+        reset();
+    }
+
+    /**
+     * Builds one rectangle per bucket [fromBucket, toBucket) of the given pyramid level.
+     * A rectangle spans the x-range of its bucket and reaches from 0 to the bucket's
+     * max (and min, for negative values). Buckets without values are skipped.
+     * Rectangle k belongs to the first entry of its bucket, see getEntryIndex().
+     * <p>
+     * 由聚合后的桶构建矩形
+     *
+     * @param pyramid
+     * @param level      &gt; 0
+     * @param fromBucket inclusive
+     * @param toBucket   exclusive
+     */
+    public void feedLod(BarLodPyramid pyramid, int level, int fromBucket, int toBucket) {
+        int count = Math.max(toBucket - fromBucket, 0);
+        ensureCapacity(count * 4);
+        obtainEntryIndices(count);
+        mLodLevel = level;
+        mRectsPerEntry = 1;
+        int entriesPerBucket = pyramid.getEntriesPerBucket(level);
+        // 矩形 宽的一半
+        float barWidthHalf = mBarWidth / 2f;
+        //
+        int k = 0;
+        for (int b = fromBucket; b < toBucket; b++) {
+            if (pyramid.getBucketCount(level, b) == 0) {
                 continue;
             }
-            // 坐标点
-            float x = e.getX();
-            float y = e.getY();
-            // 构建矩形的四个点
-            float left = x - barWidthHalf;
-            float right = x + barWidthHalf;
-            float top = y >= 0 ? y : 0;
-            float bottom = y <= 0 ? y : 0;
-
-            // multiply the height of the rect with the phase
-            top *= phaseY;
-            bottom *= phaseY;
-
-            // 添加一个矩形
-            addBar(left, top, right, bottom);
+            float max = pyramid.getBucketMax(level, b);
+            float min = pyramid.getBucketMin(level, b);
+            float top = max >= 0 ? max : 0;
+            float bottom = min <= 0 ? min : 0;
+            addBar(pyramid.getBucketXMin(level, b) + mXOffset - barWidthHalf, top * phaseY,
+                    pyramid.getBucketXMax(level, b) + mXOffset + barWidthHalf, bottom * phaseY);
+            mEntryIndices[k++] = b * entriesPerBucket;
         }
+        mEntryIndexCount = k;
+        mFirstEntryIndex = k > 0 ? mEntryIndices[0] : 0;
         //
+        mSize = index;
         reset();
     }
 
+    /**
+     * 添加一个数据点的矩形
+     *
+     * @param data
+     * @param i
+     * @param barWidthHalf
+     */
+    private void addEntry(BarEntrySet data, int i, float barWidthHalf) {
+        // 坐标点
+        float x = data.getXForIndex(i) + mXOffset;
+        float y = data.getYForIndex(i);
+        // 构建矩形的四个点
+        float left = x - barWidthHalf;
+        float right = x + barWidthHalf;
+        float top = y >= 0 ? y : 0;
+        float bottom = y <= 0 ? y : 0;
+
+        // multiply the height of the rect with the phase
+        top *= phaseY;
+        bottom *= phaseY;
+
+        // 添加一个矩形
+        addBar(left, top, right, bottom);
+    }
+
+    /**
+     * 添加一个堆叠数据点的矩形, 每段一个
+     *
+     * @param data
+     * @param i
+     * @param barWidthHalf
+     */
+    private void addStackedEntry(StackedBarEntrySet data, int i, float barWidthHalf) {
+        float x = data.getXForIndex(i) + mXOffset;
+        float left = x - barWidthHalf;
+        float right = x + barWidthHalf;
+        int stackSize = data.getStackSize();
+        for (int s = 0; s < stackSize; s++) {
+            // 正值向上堆叠, 负值向下堆叠
+            float end = data.getSegmentTop(i, s);
+            float start = data.getSegmentBottom(i, s);
+            float top = end >= start ? end : start;
+            float bottom = end >= start ? start : end;
+            addBar(left, top * phaseY, right, bottom * phaseY);
+        }
+    }
+
+    /**
+     * Returns the number of rectangles the buffer builds per entry of the given DataSet.
+     *
+     * @param data
+     * @return
+     */
+    public static int getRectsPerEntry(BarEntrySet data) {
+        return data instanceof StackedBarEntrySet ? ((StackedBarEntrySet) data).getStackSize() : 1;
+    }
+
+    /**
+     * Writes the rectangle of a bar at x with value y into out (left, top, right,
+     * bottom, in values), the same way feed() builds it, including bar width, x-offset
+     * and phase.
+     *
+     * @param x
+     * @param y
+     * @param out float[4]
+     */
+    public void buildRect(float x, float y, float[] out) {
+        float barWidthHalf = mBarWidth / 2f;
+        x += mXOffset;
+        out[0] = x - barWidthHalf;
+        out[1] = (y >= 0 ? y : 0) * phaseY;
+        out[2] = x + barWidthHalf;
+        out[3] = (y <= 0 ? y : 0) * phaseY;
+    }
+
+    /**
+     * Returns the index of the rectangle of the given entry, -1 if the last feed did
+     * not build exactly one rectangle for it (not visible, sampled, aggregated or stacked).
+     *
+     * @param entryIndex
+     * @return
+     */
+    public int getRectForEntry(int entryIndex) {
+        if (mEntryIndexCount >= 0 || mLodLevel > 0 || mRectsPerEntry != 1) {
+            return -1;
+        }
+        int rect = entryIndex - mFirstEntryIndex;
+        return rect >= 0 && rect < mSize / 4 ? rect : -1;
+    }
+
+    /**
+     * Returns the entry index array a sampler writes into, grown to at least the
+     * given capacity. It is owned by this buffer and reused between frames.
+     *
+     * @param capacity
+     * @return
+     */
+    public int[] obtainEntryIndices(int capacity) {
+        if (mEntryIndices.length < capacity) {
+            mEntryIndices = new int[capacity];
+        }
+        return mEntryIndices;
+    }
+
+    /**
+     * Returns the index of the entry the given rectangle belongs to.
+     *
+     * @param rect index of the rectangle (buffer position / 4)
+     * @return
+     */
+    public int getEntryIndex(int rect) {
+        int entry = rect / mRectsPerEntry;
+        return mEntryIndexCount >= 0 ? mEntryIndices[entry] : mFirstEntryIndex + entry;
+    }
+
+    /**
+     * Returns the stack segment the given rectangle belongs to, 0 for unstacked bars.
+     *
+     * @param rect index of the rectangle (buffer position / 4)
+     * @return
+     */
+    public int getStackIndex(int rect) {
+        return rect % mRectsPerEntry;
+    }
+
+    /**
+     * Returns the number of rectangles of the last feed per entry.
+     *
+     * @return
+     */
+    public int getRectsPerEntry() {
+        return mRectsPerEntry;
+    }
+
+
+    /**
+     * Returns the pyramid level of the last feed, 0 if every rectangle is a single entry.
+     *
+     * @return
+     */
+    public int getLodLevel() {
+        return mLodLevel;
+    }
+
+    /**
+     * Returns the index of the entry the first rectangle in the buffer belongs to.
+     *
+     * @return
+     */
+    public int getFirstEntryIndex() {
+        return mFirstEntryIndex;
+    }
 
     public void setBarWidth(float barWidth) {
         this.mBarWidth = barWidth;
     }
 
+    /**
+     * Sets the x-offset (in values) the rectangles are moved by, see
+     * BarData.getGroupOffset().
+     *
+     * @param xOffset
+     */
+    public void setXOffset(float xOffset) {
+        this.mXOffset = xOffset;
+    }
+
+    public float getXOffset() {
+        return mXOffset;
+    }
+
     public void setDataSet(int index) {
         this.mDataSetIndex = index;
     }
@@ -115,12 +481,13 @@ public class BarRectBuffer {
     }
 
     /**
-     * Returns the size (length) of the buffer array.
+     * Returns the number of floats written by the last feed(), which can be less
+     * than the length of the buffer array.
      *
      * @return
      */
     public int size() {
-        return buffer.length;
+        return mSize;
     }
 
     /**
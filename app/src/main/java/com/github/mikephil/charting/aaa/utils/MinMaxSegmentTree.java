@@ -0,0 +1,161 @@
+package com.github.mikephil.charting.aaa.utils;
+
+/**
+ * Segment tree answering min / max queries over an index range in O(log n).
+ * Single values are updated in O(log n) as well. The tree is stored as two flat
+ * arrays (min and max), leaf i lives at mLeafCount + i. NaN values are ignored
+ * by the queries.
+ * <p>
+ * 区间最大值、最小值查询
+ */
+public class MinMaxSegmentTree {
+
+    /**
+     * number of leaves, always a power of two
+     */
+    private int mLeafCount;
+
+    /**
+     * number of leaves that hold values
+     */
+    private int mSize;
+
+    private float[] mMin;
+    private float[] mMax;
+
+
+    /**
+     * @param size the number of values the tree is built for
+     */
+    public MinMaxSegmentTree(int size) {
+        reset(size);
+    }
+
+    /**
+     * Prepares the tree for the given number of values, all leaves are emptied.
+     * Fill them with setLeaf() and call buildParents() afterwards.
+     *
+     * @param size
+     */
+    public void reset(int size) {
+        int leafCount = 1;
+        while (leafCount < size) {
+            leafCount <<= 1;
+        }
+        if (mMin == null || mMin.length != leafCount * 2) {
+            mMin = new float[leafCount * 2];
+            mMax = new float[leafCount * 2];
+        }
+        mLeafCount = leafCount;
+        mSize = size;
+        for (int i = 0; i < mMin.length; i++) {
+            mMin[i] = Float.MAX_VALUE;
+            mMax[i] = -Float.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Returns the number of values the tree was built for.
+     *
+     * @return
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Returns the number of values the tree can hold without being rebuilt.
+     *
+     * @return
+     */
+    public int capacity() {
+        return mLeafCount;
+    }
+
+    /**
+     * Sets a leaf without updating its parents, used for bulk building.
+     *
+     * @param index
+     * @param value
+     */
+    public void setLeaf(int index, float value) {
+        int node = mLeafCount + index;
+        if (Float.isNaN(value)) {
+            mMin[node] = Float.MAX_VALUE;
+            mMax[node] = -Float.MAX_VALUE;
+        } else {
+            mMin[node] = value;
+            mMax[node] = value;
+        }
+    }
+
+    /**
+     * Recomputes all inner nodes from the leaves in O(n).
+     */
+    public void buildParents() {
+        for (int node = mLeafCount - 1; node > 0; node--) {
+            mMin[node] = Math.min(mMin[node * 2], mMin[node * 2 + 1]);
+            mMax[node] = Math.max(mMax[node * 2], mMax[node * 2 + 1]);
+        }
+    }
+
+    /**
+     * Updates a single value and its parents in O(log n). Returns false if the
+     * index is beyond the capacity, the tree then has to be rebuilt larger.
+     * <p>
+     * 修改一个值
+     *
+     * @param index
+     * @param value
+     * @return
+     */
+    public boolean update(int index, float value) {
+        if (index < 0 || index >= mLeafCount) {
+            return false;
+        }
+        if (index >= mSize) {
+            mSize = index + 1;
+        }
+        setLeaf(index, value);
+        int node = (mLeafCount + index) >> 1;
+        while (node > 0) {
+            mMin[node] = Math.min(mMin[node * 2], mMin[node * 2 + 1]);
+            mMax[node] = Math.max(mMax[node * 2], mMax[node * 2 + 1]);
+            node >>= 1;
+        }
+        return true;
+    }
+
+    /**
+     * Folds the min / max of the values [from, to) into minMax. minMax[0] is only
+     * lowered and minMax[1] only raised, so several ranges can be combined.
+     * <p>
+     * 查询区间的最大值、最小值
+     *
+     * @param from   inclusive
+     * @param to     exclusive
+     * @param minMax float[2], {min, max}
+     */
+    public void query(int from, int to, float[] minMax) {
+        float min = minMax[0];
+        float max = minMax[1];
+        int l = Math.max(from, 0) + mLeafCount;
+        int r = Math.min(to, mSize) + mLeafCount;
+        while (l < r) {
+            if ((l & 1) == 1) {
+                if (mMin[l] < min) min = mMin[l];
+                if (mMax[l] > max) max = mMax[l];
+                l++;
+            }
+            if ((r & 1) == 1) {
+                r--;
+                if (mMin[r] < min) min = mMin[r];
+                if (mMax[r] > max) max = mMax[r];
+            }
+            l >>= 1;
+            r >>= 1;
+        }
+        minMax[0] = min;
+        minMax[1] = max;
+    }
+}
@@ -1,31 +1,55 @@
 
 package com.github.mikephil.charting.aaa.utils;
 
-import android.graphics.Matrix;
-
 /**
  * Transformer class that contains all matrices and is responsible for
- * transforming values into pixels on the screen and backwards.
+ * transforming values into pixels on the screen and backwards. The value and the
+ * offset matrix only scale and translate, so they are kept as their parameters and
+ * one pre-concatenated affine transform instead of android.graphics.Matrix, which
+ * lets the render path run on a plain JVM.
  *
  */
 public class Transformer {
 
+    protected ViewPort mViewPortHandler;
+
     /**
-     * matrix to map the values to the screen pixels
+     * incremented whenever one of the matrices actually changes
      */
-    protected Matrix mMatrixValueToPx = new Matrix();
+    protected int mGeneration = 0;
 
     /**
-     * matrix for handling the different offsets of the chart
+     * the values the matrices were last prepared with
+     * xChartMin, scaleX, scaleY, yChartMin, offsetX, offsetY (NaN: not prepared yet)
      */
-    protected Matrix mMatrixOffset = new Matrix();
+    protected float[] mMatrixParams = new float[]{
+            Float.NaN, Float.NaN, Float.NaN, Float.NaN, Float.NaN, Float.NaN};
 
-    protected ViewPort mViewPortHandler;
+    /**
+     * both matrices pre-concatenated into one affine transform:
+     * px = a * x + b * y + c, py = d * x + e * y + f, stored as {a, b, c, d, e, f}
+     * <p>
+     * 合并后的仿射变换
+     */
+    protected final float[] mAffine = new float[]{1f, 0f, 0f, 0f, 1f, 0f};
 
     public Transformer(ViewPort viewPortHandler) {
         this.mViewPortHandler = viewPortHandler;
     }
 
+    /**
+     * Copies the matrices of the given transformer, the viewport stays the own one.
+     * <p>
+     * 复制另一个Transformer的矩阵
+     *
+     * @param trans
+     */
+    public void copyFrom(Transformer trans) {
+        System.arraycopy(trans.mMatrixParams, 0, mMatrixParams, 0, mMatrixParams.length);
+        System.arraycopy(trans.mAffine, 0, mAffine, 0, mAffine.length);
+        mGeneration++;
+    }
+
     /**
      * Prepares the matrix that transforms values to pixels. Calculates the
      * scale factors from the charts size and offsets.
@@ -47,24 +71,77 @@ public class Transformer {
             scaleY = 0;
         }
 
-        // setup all matrices
-        mMatrixValueToPx.reset();
-        // 平移
-        mMatrixValueToPx.postTranslate(-xChartMin, -yChartMin);
-        // 缩放
-        mMatrixValueToPx.postScale(scaleX, -scaleY);
+        // 矩阵没有变化
+        if (mMatrixParams[0] == xChartMin && mMatrixParams[1] == scaleX
+                && mMatrixParams[2] == scaleY && mMatrixParams[3] == yChartMin) {
+            return;
+        }
+        mMatrixParams[0] = xChartMin;
+        mMatrixParams[1] = scaleX;
+        mMatrixParams[2] = scaleY;
+        mMatrixParams[3] = yChartMin;
+        mGeneration++;
+
+        // 平移后缩放
+        updateAffine();
     }
 
     /**
      * Prepares the matrix that contains all offsets.
      */
     public void prepareMatrixOffset() {
-        //
-        mMatrixOffset.reset();
+        float offsetX = mViewPortHandler.offsetLeft();
+        float offsetY = mViewPortHandler.getChartHeight() - mViewPortHandler.offsetBottom();
+        // 矩阵没有变化
+        if (mMatrixParams[4] == offsetX && mMatrixParams[5] == offsetY) {
+            return;
+        }
+        mMatrixParams[4] = offsetX;
+        mMatrixParams[5] = offsetY;
+        mGeneration++;
+
         // 平移
-        mMatrixOffset.postTranslate(
-                mViewPortHandler.offsetLeft(),
-                mViewPortHandler.getChartHeight() - mViewPortHandler.offsetBottom());
+        updateAffine();
+    }
+
+    /**
+     * Concatenates the value and the offset matrix into mAffine. Both are a scale
+     * and a translation, so this is done on the parameters directly. A matrix that
+     * was not prepared yet counts as identity.
+     */
+    protected void updateAffine() {
+        float xChartMin = Float.isNaN(mMatrixParams[0]) ? 0f : mMatrixParams[0];
+        float scaleX = Float.isNaN(mMatrixParams[1]) ? 1f : mMatrixParams[1];
+        float scaleY = Float.isNaN(mMatrixParams[2]) ? -1f : mMatrixParams[2];
+        float yChartMin = Float.isNaN(mMatrixParams[3]) ? 0f : mMatrixParams[3];
+        float offsetX = Float.isNaN(mMatrixParams[4]) ? 0f : mMatrixParams[4];
+        float offsetY = Float.isNaN(mMatrixParams[5]) ? 0f : mMatrixParams[5];
+        mAffine[0] = scaleX;
+        mAffine[1] = 0f;
+        mAffine[2] = -xChartMin * scaleX + offsetX;
+        mAffine[3] = 0f;
+        mAffine[4] = -scaleY;
+        mAffine[5] = yChartMin * scaleY + offsetY;
+    }
+
+    /**
+     * Returns the pre-concatenated transform {a, b, c, d, e, f} with
+     * px = a * x + b * y + c, py = d * x + e * y + f. Do not modify.
+     *
+     * @return
+     */
+    public float[] getAffine() {
+        return mAffine;
+    }
+
+    /**
+     * Returns a stamp that changes whenever the value or the offset matrix changes.
+     * Pixel positions computed with one generation stay valid until it changes.
+     *
+     * @return
+     */
+    public int getGeneration() {
+        return mGeneration;
     }
 
 
@@ -75,7 +152,54 @@ public class Transformer {
      * @param pts
      */
     public void pointValuesToPixel(float[] pts) {
-        mMatrixValueToPx.mapPoints(pts);
-        mMatrixOffset.mapPoints(pts);
+        pointValuesToPixel(pts, 0, pts.length / 2);
+    }
+
+    /**
+     * Transforms count points (x, y, x, y, ...) of the array, starting at the given
+     * position, in a single pass with the pre-concatenated transform. Points outside
+     * the range are left untouched, so only the visible slice of a buffer has to be
+     * transformed.
+     * <p>
+     * 只变换数组中的一段
+     *
+     * @param pts
+     * @param from  index of the first x-value in pts (even)
+     * @param count number of points
+     */
+    public void pointValuesToPixel(float[] pts, int from, int count) {
+        // both matrices only scale and translate, b and d are always 0
+        final float a = mAffine[0], c = mAffine[2];
+        final float e = mAffine[4], f = mAffine[5];
+        final int end = from + count * 2;
+        for (int i = from; i < end; i += 2) {
+            pts[i] = a * pts[i] + c;
+            pts[i + 1] = e * pts[i + 1] + f;
+        }
+    }
+
+    /**
+     * Transforms the given array of touch positions (pixels) (x, y, x, y, ...)
+     * into values on the chart. Inverse of pointValuesToPixel().
+     *
+     * @param pixels
+     */
+    public void pixelsToValue(float[] pixels) {
+        // 先撤销偏移 再撤销缩放与平移
+        final float a = mAffine[0], c = mAffine[2];
+        final float e = mAffine[4], f = mAffine[5];
+        float offsetX = Float.isNaN(mMatrixParams[4]) ? 0f : mMatrixParams[4];
+        float offsetY = Float.isNaN(mMatrixParams[5]) ? 0f : mMatrixParams[5];
+        // a scale of 0 cannot be inverted, only the offset is removed then
+        boolean invertible = a != 0f && e != 0f;
+        for (int i = 0; i + 1 < pixels.length; i += 2) {
+            if (invertible) {
+                pixels[i] = (pixels[i] - c) / a;
+                pixels[i + 1] = (pixels[i + 1] - f) / e;
+            } else {
+                pixels[i] -= offsetX;
+                pixels[i + 1] -= offsetY;
+            }
+        }
     }
 }
@@ -9,6 +9,8 @@ import android.graphics.Rect;
 import android.util.DisplayMetrics;
 import android.util.Log;
 
+import com.github.mikephil.charting.aaa.canvas.ChartPaint;
+
 /**
  * Utilities class that has some helper methods. Needs to be initialized by
  * calling Utils.init(...) before usage. Inside the Chart.init() method, this is
@@ -80,7 +82,27 @@ public abstract class Utils {
         return (int) paint.measureText(demoText);
     }
 
-    private static Rect mCalcTextHeightRect = new Rect();
+    /**
+     * 计算字符的宽度
+     *
+     * @param paint
+     * @param demoText
+     * @return
+     */
+    public static int calcTextWidth(ChartPaint paint, String demoText) {
+        return (int) paint.measureText(demoText);
+    }
+
+    /**
+     * 计算字符的高度
+     *
+     * @param paint
+     * @param demoText
+     * @return
+     */
+    public static int calcTextHeight(ChartPaint paint, String demoText) {
+        return paint.getTextBoundsHeight(demoText);
+    }
 
     /**
      * 计算字符的高度
@@ -91,13 +113,94 @@ public abstract class Utils {
      */
     public static int calcTextHeight(Paint paint, String demoText) {
 
-        Rect r = mCalcTextHeightRect;
-        r.set(0, 0, 0, 0);
+        // 每次调用一个Rect 可在后台线程测量
+        Rect r = new Rect();
         paint.getTextBounds(demoText, 0, demoText.length(), r);
         return r.height();
     }
 
 
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L
+    };
+
+    /**
+     * Writes the value with the given number of decimals into out, without allocating.
+     * Trailing zeros are trimmed down to minDecimals. Values too large for 18 digits
+     * fall back to String.valueOf().
+     * <p>
+     * 数字格式化到char数组 不创建对象
+     *
+     * @param value
+     * @param decimals    0..9
+     * @param minDecimals decimals kept even if they are 0, &lt;= decimals
+     * @param out         receives the characters, at least 32 long
+     * @param offset      position of the first character in out
+     * @return the position after the last character written
+     */
+    public static int formatNumber(double value, int decimals, int minDecimals, char[] out, int offset) {
+        int pos = offset;
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return copyChars(String.valueOf((float) value), out, pos);
+        }
+        boolean negative = value < 0;
+        double abs = negative ? -value : value;
+        long scale = POWERS_OF_TEN[decimals];
+        if (abs * scale >= 1e18) {
+            return copyChars(String.valueOf((float) value), out, pos);
+        }
+        long scaled = Math.round(abs * scale);
+        long intPart = scaled / scale;
+        long fraction = scaled % scale;
+
+        if (negative && scaled != 0) {
+            out[pos++] = '-';
+        }
+        // 整数部分 从后往前写
+        int digits = 1;
+        for (long v = intPart / 10; v > 0; v /= 10) {
+            digits++;
+        }
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            out[i] = (char) ('0' + intPart % 10);
+            intPart /= 10;
+        }
+        pos += digits;
+        // 小数部分 去掉末尾的0
+        int fractionDigits = decimals;
+        while (fractionDigits > minDecimals && fraction % 10 == 0) {
+            fraction /= 10;
+            fractionDigits--;
+        }
+        if (fractionDigits > 0) {
+            out[pos++] = '.';
+            for (int i = pos + fractionDigits - 1; i >= pos; i--) {
+                out[i] = (char) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            pos += fractionDigits;
+        }
+        return pos;
+    }
 
+    /**
+     * Returns the number of digits of the integer part of the given value, at least 1.
+     *
+     * @param abs a value &gt;= 0
+     * @return
+     */
+    public static int integerDigits(double abs) {
+        int digits = 1;
+        double limit = 10d;
+        while (abs >= limit && digits < 40) {
+            limit *= 10d;
+            digits++;
+        }
+        return digits;
+    }
 
+    private static int copyChars(String text, char[] out, int pos) {
+        text.getChars(0, text.length(), out, pos);
+        return pos + text.length();
+    }
 }
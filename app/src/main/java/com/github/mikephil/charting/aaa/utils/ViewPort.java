@@ -1,8 +1,6 @@
 
 package com.github.mikephil.charting.aaa.utils;
 
-import android.graphics.RectF;
-
 /**
  * Class that contains information about the charts current viewport settings, including offsets, scale & translation
  * levels, ...
@@ -13,11 +11,15 @@ public class ViewPort {
 
 
     /**
-     * this rectangle defines the area in which graph values can be drawn
+     * this rectangle defines the area in which graph values can be drawn, kept as
+     * plain floats so the viewport needs no Android classes
      * <p>
      * View的Rect
      */
-    protected RectF mContentRect = new RectF();
+    protected float mContentLeft = 0f;
+    protected float mContentTop = 0f;
+    protected float mContentRight = 0f;
+    protected float mContentBottom = 0f;
 
     // View的宽
     protected float mChartWidth = 0f;
@@ -53,6 +55,22 @@ public class ViewPort {
         restrainViewPort(offsetLeft, offsetTop, offsetRight, offsetBottom);
     }
 
+    /**
+     * Copies the chart dimensions and content rect of the given viewport.
+     * <p>
+     * 复制另一个窗口的尺寸
+     *
+     * @param viewPort
+     */
+    public void copyFrom(ViewPort viewPort) {
+        mChartWidth = viewPort.mChartWidth;
+        mChartHeight = viewPort.mChartHeight;
+        mContentLeft = viewPort.mContentLeft;
+        mContentTop = viewPort.mContentTop;
+        mContentRight = viewPort.mContentRight;
+        mContentBottom = viewPort.mContentBottom;
+    }
+
     /**
      * @param offsetLeft
      * @param offsetTop
@@ -61,55 +79,50 @@ public class ViewPort {
      */
     public void restrainViewPort(float offsetLeft, float offsetTop, float offsetRight,
                                  float offsetBottom) {
-        mContentRect.set(
-                offsetLeft,
-                offsetTop,
-                mChartWidth - offsetRight,
-                mChartHeight - offsetBottom);
+        mContentLeft = offsetLeft;
+        mContentTop = offsetTop;
+        mContentRight = mChartWidth - offsetRight;
+        mContentBottom = mChartHeight - offsetBottom;
     }
 
     public float offsetLeft() {
-        return mContentRect.left;
+        return mContentLeft;
     }
 
     public float offsetRight() {
-        return mChartWidth - mContentRect.right;
+        return mChartWidth - mContentRight;
     }
 
     public float offsetTop() {
-        return mContentRect.top;
+        return mContentTop;
     }
 
     public float offsetBottom() {
-        return mChartHeight - mContentRect.bottom;
+        return mChartHeight - mContentBottom;
     }
 
     public float contentTop() {
-        return mContentRect.top;
+        return mContentTop;
     }
 
     public float contentLeft() {
-        return mContentRect.left;
+        return mContentLeft;
     }
 
     public float contentRight() {
-        return mContentRect.right;
+        return mContentRight;
     }
 
     public float contentBottom() {
-        return mContentRect.bottom;
+        return mContentBottom;
     }
 
     public float contentWidth() {
-        return mContentRect.width();
+        return mContentRight - mContentLeft;
     }
 
     public float contentHeight() {
-        return mContentRect.height();
-    }
-
-    public RectF getContentRect() {
-        return mContentRect;
+        return mContentBottom - mContentTop;
     }
 
 
@@ -134,21 +147,21 @@ public class ViewPort {
     }
 
     public boolean isInBoundsLeft(float x) {
-        return mContentRect.left <= x + 1;
+        return mContentLeft <= x + 1;
     }
 
     public boolean isInBoundsRight(float x) {
         x = (float) ((int) (x * 100.f)) / 100.f;
-        return mContentRect.right >= x - 1;
+        return mContentRight >= x - 1;
     }
 
     public boolean isInBoundsTop(float y) {
-        return mContentRect.top <= y;
+        return mContentTop <= y;
     }
 
     public boolean isInBoundsBottom(float y) {
         y = (float) ((int) (y * 100.f)) / 100.f;
-        return mContentRect.bottom >= y;
+        return mContentBottom >= y;
     }
 
 
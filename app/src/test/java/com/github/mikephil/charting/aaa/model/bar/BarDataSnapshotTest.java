@@ -0,0 +1,98 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+import com.github.mikephil.charting.aaa.color.IBarColorMapper;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 快照的写入与读取
+ */
+public class BarDataSnapshotTest {
+
+    private static BarData roundTrip(BarData data) {
+        ByteBuffer buffer = ByteBuffer.allocate(BarDataSnapshot.getEncodedSize(data));
+        BarDataSnapshot.write(data, buffer);
+        assertEquals(0, buffer.remaining());
+        buffer.flip();
+        return BarDataSnapshot.read(buffer);
+    }
+
+    private static BarData newData(BarEntrySet... sets) {
+        List<BarEntrySet> list = new ArrayList<BarEntrySet>();
+        for (BarEntrySet set : sets) {
+            list.add(set);
+        }
+        return new BarData(list);
+    }
+
+    @Test
+    public void roundTripKeepsValuesColorsAndGroups() {
+        ColumnarBarEntrySet first = new ColumnarBarEntrySet("first");
+        ColumnarBarEntrySet second = new ColumnarBarEntrySet("second");
+        for (int i = 0; i < 100; i++) {
+            first.addEntry(i, i * 0.5f - 10f);
+            second.addEntry(i, 100 - i);
+        }
+        int[] entryColors = new int[]{0xFF112233, 0xFF445566, 0xFF778899};
+        first.setEntryColors(entryColors);
+        BarData data = newData(first, second);
+        data.setBarWidth(0.3f);
+        data.setGroupSpacing(0.2f, 0.1f);
+
+        BarData restored = roundTrip(data);
+
+        assertEquals(2, restored.getDataSetCount());
+        assertTrue(restored.isGrouped());
+        assertEquals(0.3f, restored.getBarWidth(), 0f);
+        assertEquals(0.2f, restored.getGroupSpace(), 0f);
+        assertEquals(0.1f, restored.getBarSpace(), 0f);
+        for (int s = 0; s < 2; s++) {
+            BarEntrySet expected = data.getDataSetByIndex(s);
+            BarEntrySet actual = restored.getDataSetByIndex(s);
+            assertEquals(expected.getLabel(), actual.getLabel());
+            assertEquals(expected.getEntryCount(), actual.getEntryCount());
+            for (int i = 0; i < expected.getEntryCount(); i++) {
+                assertEquals(expected.getXForIndex(i), actual.getXForIndex(i), 0f);
+                assertEquals(expected.getYForIndex(i), actual.getYForIndex(i), 0f);
+                assertEquals(expected.getColor(i), actual.getColor(i));
+            }
+        }
+        assertArrayEquals(entryColors, restored.getDataSetByIndex(0).getEntryColors());
+        assertEquals(data.getYMin(), restored.getYMin(), 0f);
+        assertEquals(data.getYMax(), restored.getYMax(), 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stackedSetIsRejected() {
+        StackedBarEntrySet stacked = new StackedBarEntrySet(2, "stacked");
+        stacked.addEntry(0f, new float[]{1f, 2f}, 0);
+        BarDataSnapshot.getEncodedSize(newData(stacked));
+    }
+
+    @Test
+    public void colorMapperIsRejectedBeforeWriting() {
+        ColumnarBarEntrySet set = new ColumnarBarEntrySet("mapped");
+        set.addEntry(0f, 1f);
+        set.setColorMapper(new IBarColorMapper() {
+            @Override
+            public int getColor(float x, float y, int index) {
+                return 0;
+            }
+        });
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        try {
+            BarDataSnapshot.write(newData(set), buffer);
+            throw new AssertionError("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, buffer.position());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 新旧数据差异的测试
+ */
+public class BarEntrySetDiffTest {
+
+    @Test
+    public void classifiesByX() {
+        ColumnarBarEntrySet oldSet = new ColumnarBarEntrySet(
+                new float[]{0f, 1f, 2f, 3f, 4f}, new float[]{10f, 11f, 12f, 13f, 14f}, "old");
+        // 0 删除, 1 移动, 2 修改, 2.5 插入, 3 / 4 移动, 5 插入
+        ColumnarBarEntrySet newSet = new ColumnarBarEntrySet(
+                new float[]{1f, 2f, 2.5f, 3f, 4f, 5f}, new float[]{11f, 20f, 30f, 13f, 14f, 15f}, "new");
+
+        BarEntrySetDiff diff = new BarEntrySetDiff().compute(oldSet, newSet);
+
+        assertEquals(6, diff.getNewCount());
+        assertEquals(BarEntrySetDiff.MOVED, diff.getState(0));
+        assertEquals(1, diff.getOldIndex(0));
+        assertEquals(BarEntrySetDiff.CHANGED, diff.getState(1));
+        assertEquals(2, diff.getOldIndex(1));
+        assertEquals(BarEntrySetDiff.INSERTED, diff.getState(2));
+        assertEquals(-1, diff.getOldIndex(2));
+        assertEquals(BarEntrySetDiff.UNCHANGED, diff.getState(3));
+        assertEquals(BarEntrySetDiff.UNCHANGED, diff.getState(4));
+        assertEquals(BarEntrySetDiff.INSERTED, diff.getState(5));
+
+        assertEquals(1, diff.getRemovedCount());
+        assertEquals(0, diff.getRemovedIndex(0));
+        assertEquals(1, diff.getMovedCount());
+        assertEquals(1, diff.getChangedCount());
+        assertEquals(2, diff.getInsertedCount());
+    }
+
+    @Test
+    public void unsortedSetsAreReplaced() {
+        ColumnarBarEntrySet oldSet = new ColumnarBarEntrySet(
+                new float[]{1f, 0f}, new float[]{1f, 1f}, "old");
+        ColumnarBarEntrySet newSet = new ColumnarBarEntrySet(
+                new float[]{0f, 1f}, new float[]{1f, 1f}, "new");
+
+        BarEntrySetDiff diff = new BarEntrySetDiff().compute(oldSet, newSet);
+
+        assertEquals(2, diff.getInsertedCount());
+        assertEquals(2, diff.getRemovedCount());
+    }
+}
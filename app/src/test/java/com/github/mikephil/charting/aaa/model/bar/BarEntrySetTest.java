@@ -0,0 +1,51 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 数据集的测试
+ */
+public class BarEntrySetTest {
+
+    private static final int COUNT = 4096;
+
+    private static CountingBarEntrySet createSet() {
+        CountingBarEntrySet set = new CountingBarEntrySet();
+        for (int i = 0; i < COUNT; i++) {
+            set.addEntry(i, (i * 37 % 101) - 50f);
+        }
+        return set;
+    }
+
+    @Test
+    public void freezeBuildsDerivedState() {
+        CountingBarEntrySet set = createSet();
+        set.setRangeIndexEnabled(true);
+        set.setLodEnabled(true);
+        set.freeze();
+
+        // the first frame only queries, nothing is built
+        set.mReads = 0;
+        float[] minMax = new float[2];
+        set.getYMinMaxInRange(100, 3000, minMax);
+        set.getLodPyramid().getLevelCount();
+        int[] range = new int[2];
+        set.getVisibleRange(100f, 3000f, range);
+        assertTrue("reads " + set.mReads, set.mReads < 64);
+
+        assertEquals(-50f, minMax[0], 0f);
+        assertEquals(50f, minMax[1], 0f);
+        assertEquals(100, range[0]);
+        assertEquals(3001, range[1]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void frozenSetRejectsMutation() {
+        CountingBarEntrySet set = createSet();
+        set.freeze();
+        set.addEntry(COUNT, 1f);
+    }
+}
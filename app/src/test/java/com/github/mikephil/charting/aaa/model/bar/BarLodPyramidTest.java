@@ -0,0 +1,88 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 多分辨率聚合金字塔的测试
+ */
+public class BarLodPyramidTest {
+
+    private static float valueAt(int i) {
+        return (i * 37 % 101) - 50f;
+    }
+
+    @Test
+    public void appendMatchesRebuild() {
+        ColumnarBarEntrySet set = new ColumnarBarEntrySet("set");
+        set.setLodEnabled(true, 4);
+        for (int i = 0; i < 10; i++) {
+            set.addEntry(i, valueAt(i));
+        }
+        // build, all further appends patch the pyramid
+        set.getLodPyramid().getLevelCount();
+        for (int i = 10; i < 1000; i++) {
+            set.addEntry(i, valueAt(i));
+        }
+
+        BarEntrySet rebuilt = set.copy();
+        assertPyramidEquals(rebuilt.getLodPyramid(), set.getLodPyramid());
+    }
+
+    @Test
+    public void appendStacksLevelWithoutRebuild() {
+        CountingBarEntrySet set = new CountingBarEntrySet();
+        set.setLodEnabled(true, 2);
+        for (int i = 0; i < 2048; i++) {
+            set.addEntry(i, valueAt(i));
+        }
+        // 1024, 512, ... 2 buckets
+        assertEquals(11, set.getLodPyramid().getLevelCount());
+
+        set.mReads = 0;
+        set.addEntry(2048, valueAt(2048));
+        assertEquals(12, set.getLodPyramid().getLevelCount());
+        assertTrue("reads " + set.mReads, set.mReads <= 4);
+        assertPyramidEquals(set.copy().getLodPyramid(), set.getLodPyramid());
+    }
+
+    @Test
+    public void updateMatchesRebuild() {
+        CountingBarEntrySet set = new CountingBarEntrySet();
+        set.setLodEnabled(true, 4);
+        for (int i = 0; i < 4096; i++) {
+            set.addEntry(i, valueAt(i));
+        }
+        set.getLodPyramid().getLevelCount();
+
+        set.mReads = 0;
+        // lower the maximum of its buckets, which cannot be patched by folding
+        set.updateEntry(1234, -1000f);
+        set.updateEntry(1234, 7f);
+        assertTrue("reads " + set.mReads, set.mReads < 64);
+        assertPyramidEquals(set.copy().getLodPyramid(), set.getLodPyramid());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void ringRejectsLod() {
+        new RingBarEntrySet(16, "ring").setLodEnabled(true);
+    }
+
+    static void assertPyramidEquals(BarLodPyramid expected, BarLodPyramid actual) {
+        assertEquals(expected.getLevelCount(), actual.getLevelCount());
+        for (int level = 1; level < expected.getLevelCount(); level++) {
+            assertEquals("level " + level, expected.getBucketCount(level), actual.getBucketCount(level));
+            for (int b = 0; b < expected.getBucketCount(level); b++) {
+                String at = "level " + level + " bucket " + b;
+                assertEquals(at, expected.getBucketXMin(level, b), actual.getBucketXMin(level, b), 0f);
+                assertEquals(at, expected.getBucketXMax(level, b), actual.getBucketXMax(level, b), 0f);
+                assertEquals(at, expected.getBucketMin(level, b), actual.getBucketMin(level, b), 0f);
+                assertEquals(at, expected.getBucketMax(level, b), actual.getBucketMax(level, b), 0f);
+                assertEquals(at, expected.getBucketSum(level, b), actual.getBucketSum(level, b), 0.01f);
+                assertEquals(at, expected.getBucketCount(level, b), actual.getBucketCount(level, b));
+            }
+        }
+    }
+}
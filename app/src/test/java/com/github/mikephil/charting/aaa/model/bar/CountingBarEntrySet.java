@@ -0,0 +1,28 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+/**
+ * ColumnarBarEntrySet that counts the reads of its columns, so a test can tell a
+ * patch of derived state from a rebuild, which reads every entry.
+ * <p>
+ * 统计读取次数的数据集
+ */
+class CountingBarEntrySet extends ColumnarBarEntrySet {
+
+    int mReads = 0;
+
+    CountingBarEntrySet() {
+        super("counting");
+    }
+
+    @Override
+    public float getXForIndex(int index) {
+        mReads++;
+        return super.getXForIndex(index);
+    }
+
+    @Override
+    public float getYForIndex(int index) {
+        mReads++;
+        return super.getYForIndex(index);
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 内存映射数据的二分查找测试
+ */
+public class MappedBarEntrySetTest {
+
+    // 略多于三个索引步长, 每个x出现两次
+    private static final int COUNT = MappedBarEntrySet.INDEX_STRIDE * 3 + 100;
+
+    @Test
+    public void strideSearchMatchesFullSearch() {
+        float[] xVals = new float[COUNT];
+        float[] yVals = new float[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            xVals[i] = i / 2;
+            yVals[i] = i % 7;
+        }
+        ColumnarBarEntrySet columnar = new ColumnarBarEntrySet(xVals, yVals, "columnar");
+
+        ByteBuffer buffer = ByteBuffer.allocate(MappedBarEntrySet.getEncodedSize(COUNT));
+        MappedBarEntrySet.encode(buffer, xVals, yVals, COUNT);
+        buffer.flip();
+        MappedBarEntrySet mapped = new MappedBarEntrySet(buffer, "mapped");
+        assertTrue(mapped.isSortedX());
+
+        for (float x = -2f; x <= COUNT / 2 + 2; x += 0.5f) {
+            assertEquals("lower " + x, columnar.lowerBoundX(x), mapped.lowerBoundX(x));
+            assertEquals("upper " + x, columnar.upperBoundX(x), mapped.upperBoundX(x));
+        }
+        // 步长边界
+        for (int k = 1; k <= 3; k++) {
+            float x = xVals[k * MappedBarEntrySet.INDEX_STRIDE];
+            assertEquals(columnar.lowerBoundX(x), mapped.lowerBoundX(x));
+            assertEquals(columnar.upperBoundX(x), mapped.upperBoundX(x));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void rejectsEdits() {
+        float[] vals = new float[]{0f, 1f, 2f};
+        ByteBuffer buffer = ByteBuffer.allocate(MappedBarEntrySet.getEncodedSize(vals.length));
+        MappedBarEntrySet.encode(buffer, vals, vals, vals.length);
+        buffer.flip();
+        new MappedBarEntrySet(buffer, "mapped").updateEntry(1, 5f);
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 环形缓冲区的测试: 单调队列维护的最大值、最小值与中间删除
+ */
+public class RingBarEntrySetTest {
+
+    private static final int CAPACITY = 64;
+
+    @Test
+    public void windowExtremesFollowAppendsAndEvictions() {
+        RingBarEntrySet set = new RingBarEntrySet(CAPACITY, "ring");
+        List<float[]> expected = new ArrayList<float[]>();
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            float y = random.nextInt(200) - 100f;
+            if (i % 17 == 0) {
+                y = Float.NaN;
+            }
+            set.addEntry(i, y);
+            expected.add(new float[]{i, y});
+            if (expected.size() > CAPACITY) {
+                expected.remove(0);
+            }
+            assertWindow(expected, set);
+        }
+    }
+
+    @Test
+    public void removeMiddleMatchesList() {
+        RingBarEntrySet set = new RingBarEntrySet(CAPACITY, "ring");
+        set.setRangeIndexEnabled(true);
+        List<float[]> expected = new ArrayList<float[]>();
+        Random random = new Random(11);
+        for (int i = 0; i < 500; i++) {
+            float y = random.nextInt(200) - 100f;
+            set.addEntry(i, y);
+            expected.add(new float[]{i, y});
+            if (expected.size() > CAPACITY) {
+                expected.remove(0);
+            }
+            // 交替删除靠近头部和尾部的数据点
+            if (i % 5 == 4 && expected.size() > 4) {
+                int index = i % 2 == 0 ? 1 : expected.size() - 2;
+                set.removeEntry(index);
+                expected.remove(index);
+            }
+            assertWindow(expected, set);
+        }
+    }
+
+    private static void assertWindow(List<float[]> expected, RingBarEntrySet set) {
+        assertEquals(expected.size(), set.getEntryCount());
+        float xMin = Float.MAX_VALUE;
+        float xMax = -Float.MAX_VALUE;
+        float yMin = Float.MAX_VALUE;
+        float yMax = -Float.MAX_VALUE;
+        for (int i = 0; i < expected.size(); i++) {
+            float[] e = expected.get(i);
+            assertEquals(e[0], set.getXForIndex(i), 0f);
+            assertEquals(e[1], set.getYForIndex(i), 0f);
+            if (Float.isNaN(e[1])) {
+                continue;
+            }
+            xMin = Math.min(xMin, e[0]);
+            xMax = Math.max(xMax, e[0]);
+            yMin = Math.min(yMin, e[1]);
+            yMax = Math.max(yMax, e[1]);
+        }
+        assertEquals(xMin, set.getXMin(), 0f);
+        assertEquals(xMax, set.getXMax(), 0f);
+        assertEquals(yMin, set.getYMin(), 0f);
+        assertEquals(yMax, set.getYMax(), 0f);
+
+        float[] minMax = new float[2];
+        set.getYMinMaxInRange(0, set.getEntryCount(), minMax);
+        assertEquals(yMin, minMax[0], 0f);
+        assertEquals(yMax, minMax[1], 0f);
+    }
+}
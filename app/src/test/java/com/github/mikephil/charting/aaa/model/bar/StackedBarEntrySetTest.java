@@ -0,0 +1,37 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 堆叠数据的参数校验
+ */
+public class StackedBarEntrySetTest {
+
+    private static StackedBarEntrySet newSet() {
+        StackedBarEntrySet set = new StackedBarEntrySet(3, "stacked");
+        set.addEntry(0f, new float[]{1f, 2f, 3f}, 0);
+        set.addEntry(1f, new float[]{4f, -5f, 6f}, 0);
+        return set;
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void updateStackValueRejectsIndex() {
+        newSet().updateStackValue(2, 0, 1f);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void updateStackValueRejectsSegment() {
+        newSet().updateStackValue(0, 3, 1f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setValuesRejectsNullEntry() {
+        List<BarEntry> values = new ArrayList<BarEntry>();
+        values.add(new BarEntry(0f, 1f));
+        values.add(null);
+        newSet().setValues(values);
+    }
+}
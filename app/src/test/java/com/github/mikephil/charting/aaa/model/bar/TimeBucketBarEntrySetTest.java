@@ -0,0 +1,60 @@
+package com.github.mikephil.charting.aaa.model.bar;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 按时间桶聚合的测试
+ */
+public class TimeBucketBarEntrySetTest {
+
+    @Test
+    public void samplesAreAggregatedPerBucket() {
+        TimeBucketBarEntrySet set = new TimeBucketBarEntrySet(1000L, TimeBucketBarEntrySet.Aggregation.SUM, "set");
+        assertTrue(set.addSample(10000L, 1f));
+        assertTrue(set.addSample(10500L, 2f));
+        assertTrue(set.addSample(12100L, 4f));
+
+        assertEquals(3, set.getEntryCount());
+        assertEquals(3f, set.getYForIndex(0), 0f);
+        // empty bucket in between
+        assertEquals(0, set.getCount(1));
+        assertEquals(4f, set.getYForIndex(2), 0f);
+        assertEquals(10000L, set.getBucketStart(0));
+        assertEquals(4f, set.getYMax(), 0f);
+        // older than the first bucket
+        assertFalse(set.addSample(9999L, 1f));
+    }
+
+    @Test
+    public void sampleFarAheadIsDropped() {
+        TimeBucketBarEntrySet set = new TimeBucketBarEntrySet(1000L, TimeBucketBarEntrySet.Aggregation.SUM, "set");
+        set.setMaxGap(100);
+        set.addSample(0L, 1f);
+
+        assertFalse(set.addSample(1000L * 1000000L, 1f));
+        assertEquals(1, set.getEntryCount());
+        // 100 empty buckets, then the sample's own
+        assertTrue(set.addSample(1000L * 101L, 1f));
+        assertEquals(102, set.getEntryCount());
+    }
+
+    @Test
+    public void samplesPatchThePyramid() {
+        TimeBucketBarEntrySet set = new TimeBucketBarEntrySet(1000L, TimeBucketBarEntrySet.Aggregation.MAX, "set");
+        set.setLodEnabled(true, 4);
+        for (int i = 0; i < 500; i++) {
+            set.addSample(i * 1000L, i % 13);
+        }
+        set.getLodPyramid().getLevelCount();
+        // every sample changes an existing bucket or appends one
+        for (int i = 0; i < 2000; i++) {
+            set.addSample((i * 7919L) % 600000L, (i * 31) % 17 - 5f);
+        }
+
+        BarLodPyramidTest.assertPyramidEquals(set.copy().getLodPyramid(), set.getLodPyramid());
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.mikephil.charting.aaa.renderer;
+
+import com.github.mikephil.charting.aaa.anima.ChartAnimator;
+import com.github.mikephil.charting.aaa.canvas.ChartPaint;
+import com.github.mikephil.charting.aaa.canvas.MonospaceTextMetrics;
+import com.github.mikephil.charting.aaa.canvas.RecordingChartCanvas;
+import com.github.mikephil.charting.aaa.model.bar.BarData;
+import com.github.mikephil.charting.aaa.model.bar.BarEntrySet;
+import com.github.mikephil.charting.aaa.model.bar.ColumnarBarEntrySet;
+import com.github.mikephil.charting.aaa.utils.Transformer;
+import com.github.mikephil.charting.aaa.utils.ViewPort;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares per-rect and batched submission of a few thousand bars: counts the draw
+ * calls and times both modes on a RecordingChartCanvas. The timings are printed, not
+ * asserted, the recording canvas only approximates the per-call cost of a real one.
+ * <p>
+ * 批量绘制与逐个绘制的对比
+ */
+public class BarChartRendererBatchingTest {
+
+    private static final int COUNT = 4000;
+    private static final int COLORS = 3;
+    private static final int WARMUP = 50;
+    private static final int FRAMES = 200;
+
+    private BarData mData;
+    private Transformer mTransformer;
+    private BarChartRenderer mRenderer;
+
+    @Before
+    public void setUp() {
+        ChartPaint.setDefaultTextMetrics(new MonospaceTextMetrics());
+
+        ColumnarBarEntrySet set = new ColumnarBarEntrySet("DataSet");
+        for (int i = 0; i < COUNT; i++) {
+            set.addEntry(i, (i * 37 % 101) + 1f);
+        }
+        set.setColors(0xFFFF0000, 0xFF00FF00, 0xFF0000FF);
+        set.setDrawValues(false);
+        List<BarEntrySet> sets = new ArrayList<BarEntrySet>();
+        sets.add(set);
+        mData = new BarData(sets);
+
+        // 每根柱子约2个像素宽
+        ViewPort viewPort = new ViewPort();
+        viewPort.setChartDimens(COUNT * 2f + 60f, 500f);
+        viewPort.restrainViewPort(50f, 10f, 10f, 40f);
+
+        mTransformer = new Transformer(viewPort);
+        mTransformer.prepareMatrixValuePx(-0.5f, COUNT, 102f, 0f);
+        mTransformer.prepareMatrixOffset();
+
+        final ChartAnimator animator = new ChartAnimator();
+        mRenderer = new BarChartRenderer(new IBarDataProvider() {
+            @Override
+            public BarData getBarData() {
+                return mData;
+            }
+
+            @Override
+            public Transformer getTransformer() {
+                return mTransformer;
+            }
+
+            @Override
+            public ChartAnimator getAnimator() {
+                return animator;
+            }
+
+            @Override
+            public boolean isDrawValueAboveBarEnabled() {
+                return true;
+            }
+
+            @Override
+            public int getMaxVisibleCount() {
+                return 100;
+            }
+        }, viewPort, 1f);
+        mRenderer.initRectBuffers();
+    }
+
+    @Test
+    public void batchedDrawingNeedsOneCallPerColor() {
+        RecordingChartCanvas perRect = new RecordingChartCanvas();
+        mRenderer.setBatchedDrawing(false);
+        mRenderer.drawData(perRect);
+
+        RecordingChartCanvas batched = new RecordingChartCanvas();
+        mRenderer.setBatchedDrawing(true);
+        mRenderer.drawData(batched);
+
+        assertEquals(COUNT, perRect.getDrawCallCount());
+        assertEquals(COUNT, perRect.countOps(RecordingChartCanvas.OP_RECT));
+        assertEquals(COLORS, batched.getDrawCallCount());
+        int lines = 0;
+        for (int i = 0; i < batched.getOpCount(); i++) {
+            assertEquals(RecordingChartCanvas.OP_LINES, batched.getOp(i));
+            lines += batched.getCoordCount(i) / 4;
+        }
+        // 每根柱子一条线
+        assertEquals(COUNT, lines);
+    }
+
+    @Test
+    public void timeBatchedAgainstPerRect() {
+        long perRect = timeFrames(false);
+        long batched = timeFrames(true);
+        System.out.println("BarChartRendererBatchingTest: " + COUNT + " bars, per-rect "
+                + perRect / FRAMES / 1000 + " us/frame, batched "
+                + batched / FRAMES / 1000 + " us/frame");
+        assertTrue(perRect > 0 && batched > 0);
+    }
+
+    private long timeFrames(boolean batched) {
+        mRenderer.setBatchedDrawing(batched);
+        RecordingChartCanvas canvas = new RecordingChartCanvas();
+        for (int i = 0; i < WARMUP; i++) {
+            canvas.reset();
+            mRenderer.drawData(canvas);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++) {
+            canvas.reset();
+            mRenderer.drawData(canvas);
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.mikephil.charting.aaa.renderer;
+
+import com.github.mikephil.charting.aaa.anima.ChartAnimator;
+import com.github.mikephil.charting.aaa.canvas.ChartPaint;
+import com.github.mikephil.charting.aaa.canvas.MonospaceTextMetrics;
+import com.github.mikephil.charting.aaa.canvas.RecordingChartCanvas;
+import com.github.mikephil.charting.aaa.model.bar.BarData;
+import com.github.mikephil.charting.aaa.model.bar.BarEntrySet;
+import com.github.mikephil.charting.aaa.model.bar.ColumnarBarEntrySet;
+import com.github.mikephil.charting.aaa.utils.Transformer;
+import com.github.mikephil.charting.aaa.utils.ViewPort;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Renders a BarData into a RecordingChartCanvas on the plain JVM, no Android classes
+ * are touched on this path.
+ * <p>
+ * 无Android环境的渲染测试
+ */
+public class BarChartRendererTest {
+
+    private static final int COUNT = 10;
+    private static final float DELTA = 0.001f;
+
+    private BarData mData;
+    private ViewPort mViewPort;
+    private Transformer mTransformer;
+    private BarChartRenderer mRenderer;
+
+    @Before
+    public void setUp() {
+        ChartPaint.setDefaultTextMetrics(new MonospaceTextMetrics());
+
+        float[] xVals = new float[COUNT];
+        float[] yVals = new float[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            xVals[i] = i;
+            yVals[i] = i + 1;
+        }
+        List<BarEntrySet> sets = new ArrayList<BarEntrySet>();
+        sets.add(new ColumnarBarEntrySet(xVals, yVals, "DataSet"));
+        mData = new BarData(sets);
+
+        // 内容区域 940 x 450
+        mViewPort = new ViewPort();
+        mViewPort.setChartDimens(1000f, 500f);
+        mViewPort.restrainViewPort(50f, 10f, 10f, 40f);
+
+        mTransformer = new Transformer(mViewPort);
+        mTransformer.prepareMatrixValuePx(-0.5f, COUNT, COUNT, 0f);
+        mTransformer.prepareMatrixOffset();
+
+        final ChartAnimator animator = new ChartAnimator();
+        mRenderer = new BarChartRenderer(new IBarDataProvider() {
+            @Override
+            public BarData getBarData() {
+                return mData;
+            }
+
+            @Override
+            public Transformer getTransformer() {
+                return mTransformer;
+            }
+
+            @Override
+            public ChartAnimator getAnimator() {
+                return animator;
+            }
+
+            @Override
+            public boolean isDrawValueAboveBarEnabled() {
+                return true;
+            }
+
+            @Override
+            public int getMaxVisibleCount() {
+                return 100;
+            }
+        }, mViewPort, 1f);
+        mRenderer.initRectBuffers();
+    }
+
+    @Test
+    public void drawDataRecordsOneRectPerBar() {
+        RecordingChartCanvas canvas = new RecordingChartCanvas();
+        mRenderer.drawData(canvas);
+
+        assertEquals(COUNT, canvas.countOps(RecordingChartCanvas.OP_RECT));
+        assertEquals(COUNT, canvas.getDrawCallCount());
+
+        // 第一根柱子 x = 0, y = 1
+        float halfWidth = mData.getBarWidth() / 2f;
+        float scaleX = mViewPort.contentWidth() / COUNT;
+        float scaleY = mViewPort.contentHeight() / COUNT;
+        int start = canvas.getCoordStart(0);
+        float[] coords = canvas.getCoords();
+        assertEquals(50f + (0.5f - halfWidth) * scaleX, coords[start], DELTA);
+        assertEquals(460f - scaleY, coords[start + 1], DELTA);
+        assertEquals(50f + (0.5f + halfWidth) * scaleX, coords[start + 2], DELTA);
+        assertEquals(460f, coords[start + 3], DELTA);
+        assertEquals(BarEntrySet.DEFAULT_COLOR, canvas.getColor(0));
+    }
+
+    @Test
+    public void drawDataIsDeterministic() {
+        RecordingChartCanvas first = new RecordingChartCanvas();
+        RecordingChartCanvas second = new RecordingChartCanvas();
+        mRenderer.drawData(first);
+        mRenderer.drawData(second);
+
+        assertEquals(-1, first.firstDifference(second));
+    }
+
+    @Test
+    public void batchedDrawingIssuesOneDrawLines() {
+        mRenderer.setBatchedDrawing(true);
+        RecordingChartCanvas canvas = new RecordingChartCanvas();
+        mRenderer.drawData(canvas);
+
+        assertEquals(1, canvas.getDrawCallCount());
+        assertEquals(RecordingChartCanvas.OP_LINES, canvas.getOp(0));
+        assertEquals(COUNT * 4, canvas.getCoordCount(0));
+    }
+
+    @Test
+    public void drawValuesRecordsOneTextPerBar() {
+        RecordingChartCanvas canvas = new RecordingChartCanvas();
+        mRenderer.drawData(canvas);
+        canvas.reset();
+        mRenderer.drawValues(canvas);
+
+        assertEquals(COUNT, canvas.countOps(RecordingChartCanvas.OP_TEXT));
+        assertEquals("1.0", canvas.getText(0));
+        // centered 4.5dp above the bar, density 1
+        float scaleY = mViewPort.contentHeight() / COUNT;
+        int start = canvas.getCoordStart(0);
+        assertEquals(50f + 0.5f * mViewPort.contentWidth() / COUNT, canvas.getCoords()[start], DELTA);
+        assertEquals(460f - scaleY - 4.5f, canvas.getCoords()[start + 1], DELTA);
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.mikephil.charting.aaa.sampling;
+
+import com.github.mikephil.charting.aaa.model.bar.ColumnarBarEntrySet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * LTTB 降采样的测试
+ */
+public class LttbBarSamplerTest {
+
+    private static final int COUNT = 1000;
+    private static final int BUCKETS = 50;
+
+    @Test
+    public void keepsEndsAndSpike() {
+        ColumnarBarEntrySet set = new ColumnarBarEntrySet("set");
+        for (int i = 0; i < COUNT; i++) {
+            set.addEntry(i, i == 503 ? 1000f : i % 3);
+        }
+        LttbBarSampler sampler = new LttbBarSampler();
+        int[] indices = new int[sampler.getMaxSampleCount(BUCKETS)];
+
+        int count = sampler.sample(set, 0, COUNT, BUCKETS, indices);
+
+        assertEquals(BUCKETS, count);
+        assertEquals(0, indices[0]);
+        assertEquals(COUNT - 1, indices[count - 1]);
+        boolean spike = false;
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                assertTrue("ascending at " + i, indices[i] > indices[i - 1]);
+            }
+            spike |= indices[i] == 503;
+        }
+        assertTrue("spike kept", spike);
+    }
+
+    @Test
+    public void smallRangeIsNotSampled() {
+        ColumnarBarEntrySet set = new ColumnarBarEntrySet("set");
+        for (int i = 0; i < 20; i++) {
+            set.addEntry(i, i);
+        }
+        int[] indices = new int[BUCKETS];
+
+        int count = new LttbBarSampler().sample(set, 5, 15, BUCKETS, indices);
+
+        assertEquals(10, count);
+        for (int i = 0; i < count; i++) {
+            assertEquals(5 + i, indices[i]);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.mikephil.charting.aaa.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * 区间最大值、最小值查询的测试
+ */
+public class MinMaxSegmentTreeTest {
+
+    private static final int SIZE = 300;
+
+    @Test
+    public void queriesMatchScan() {
+        Random random = new Random(3);
+        float[] values = new float[SIZE];
+        MinMaxSegmentTree tree = new MinMaxSegmentTree(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = i % 13 == 0 ? Float.NaN : random.nextFloat() * 100f - 50f;
+            tree.setLeaf(i, values[i]);
+        }
+        tree.buildParents();
+        assertQueries(values, tree, random);
+
+        // 单点修改
+        for (int k = 0; k < 100; k++) {
+            int i = random.nextInt(SIZE);
+            values[i] = random.nextFloat() * 400f - 200f;
+            tree.update(i, values[i]);
+        }
+        assertQueries(values, tree, random);
+    }
+
+    @Test
+    public void updateBeyondCapacityFails() {
+        MinMaxSegmentTree tree = new MinMaxSegmentTree(4);
+        assertFalse(tree.update(tree.capacity(), 1f));
+    }
+
+    private static void assertQueries(float[] values, MinMaxSegmentTree tree, Random random) {
+        float[] minMax = new float[2];
+        for (int k = 0; k < 500; k++) {
+            int from = random.nextInt(SIZE);
+            int to = from + random.nextInt(SIZE - from + 1);
+            float min = Float.MAX_VALUE;
+            float max = -Float.MAX_VALUE;
+            for (int i = from; i < to; i++) {
+                if (Float.isNaN(values[i])) {
+                    continue;
+                }
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+            }
+            minMax[0] = Float.MAX_VALUE;
+            minMax[1] = -Float.MAX_VALUE;
+            tree.query(from, to, minMax);
+            assertEquals("[" + from + ", " + to + ")", min, minMax[0], 0f);
+            assertEquals("[" + from + ", " + to + ")", max, minMax[1], 0f);
+        }
+    }
+}